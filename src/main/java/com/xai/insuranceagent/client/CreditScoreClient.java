@@ -2,7 +2,14 @@ package com.xai.insuranceagent.client;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xai.insuranceagent.concurrent.WorkloadExecutors;
 import com.xai.insuranceagent.util.EncryptionUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
 import okhttp3.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,7 +23,9 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Client for external credit scoring API (Experian simulation)
+ * Client for external credit scoring API (Experian simulation).
+ * Concurrent lookups for the same customer and SSN share one call
+ * (see {@link SingleFlight}).
  */
 @Component
 public class CreditScoreClient {
@@ -24,6 +33,11 @@ public class CreditScoreClient {
     private static final Logger logger = LoggerFactory.getLogger(CreditScoreClient.class);
     private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
 
+    /**
+     * Bureau name of mock and fallback responses
+     */
+    public static final String MOCK_BUREAU = "Experian (Mock)";
+
     private final OkHttpClient httpClient;
     private final ObjectMapper objectMapper;
     private final Random random;
@@ -40,6 +54,17 @@ public class CreditScoreClient {
     @Value("${insurance.external-api.credit-score.enabled}")
     private boolean apiEnabled;
 
+    @Value("${insurance.external-api.coalescing.enabled:true}")
+    private boolean coalescing;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private WorkloadExecutors workloadExecutors;
+
+    private SingleFlight<CreditScoreResponse> creditFlight;
+
     public CreditScoreClient() {
         this.httpClient = new OkHttpClient.Builder()
                 .connectTimeout(30, TimeUnit.SECONDS)
@@ -49,6 +74,11 @@ public class CreditScoreClient {
         this.random = new Random();
     }
 
+    @PostConstruct
+    public void init() {
+        this.creditFlight = new SingleFlight<>("credit-score", score -> score.toBuilder().build(), meterRegistry);
+    }
+
     /**
      * Asynchronously get credit score
      */
@@ -60,7 +90,7 @@ public class CreditScoreClient {
                 logger.error("Error getting credit score: {}", e.getMessage(), e);
                 throw new RuntimeException("Failed to get credit score", e);
             }
-        });
+        }, workloadExecutors.externalApi());
     }
 
     /**
@@ -71,7 +101,20 @@ public class CreditScoreClient {
             logger.debug("External credit API disabled, using mock response");
             return getMockCreditScore(customerId);
         }
+        if (!coalescing || creditFlight == null) {
+            return fetchCreditScore(customerId, ssn);
+        }
+
+        try {
+            return creditFlight.call(SingleFlight.key(customerId, ssn), () -> fetchCreditScore(customerId, ssn));
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Credit score lookup failed", e);
+        }
+    }
 
+    private CreditScoreResponse fetchCreditScore(String customerId, String ssn) throws IOException {
         // Encrypt sensitive data
         String encryptedSsn = encryptionUtil.encrypt(ssn);
         logger.info("Calling credit score API for customer: {}", 
@@ -114,7 +157,7 @@ public class CreditScoreClient {
                 .customerId(customerId)
                 .creditScore(baseScore)
                 .scoreRange("300-850")
-                .bureau("Experian (Mock)")
+                .bureau(MOCK_BUREAU)
                 .delinquencies(baseScore < 650 ? random.nextInt(3) : 0)
                 .bankruptcies(baseScore < 600 ? random.nextInt(2) : 0)
                 .accountsInGoodStanding(random.nextInt(10) + 5)
@@ -166,7 +209,7 @@ public class CreditScoreClient {
      * Credit score response model
      */
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class CreditScoreResponse {
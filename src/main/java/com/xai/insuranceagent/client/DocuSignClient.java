@@ -2,9 +2,11 @@ package com.xai.insuranceagent.client;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xai.insuranceagent.concurrent.WorkloadExecutors;
 import okhttp3.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -36,6 +38,9 @@ public class DocuSignClient {
     @Value("${insurance.external-api.docusign.enabled}")
     private boolean apiEnabled;
 
+    @Autowired
+    private WorkloadExecutors workloadExecutors;
+
     public DocuSignClient() {
         this.httpClient = new OkHttpClient.Builder()
                 .connectTimeout(30, TimeUnit.SECONDS)
@@ -57,7 +62,7 @@ public class DocuSignClient {
                 logger.error("Error sending for signature: {}", e.getMessage(), e);
                 throw new RuntimeException("Failed to send for signature", e);
             }
-        });
+        }, workloadExecutors.externalApi());
     }
 
     /**
@@ -1,22 +1,40 @@
 package com.xai.insuranceagent.client;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.xai.insuranceagent.model.quote.QuoteRequest;
 import com.xai.insuranceagent.model.quote.QuoteResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import okhttp3.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Client for external insurance quoting API (Guidewire simulation)
+ * Client for external insurance quoting API (Guidewire simulation).
+ *
+ * Async quotes are dispatched with OkHttp's Call.enqueue on a dedicated
+ * dispatcher: at most max-requests calls (max-requests-per-host per host)
+ * run at once, each on one of a fixed set of guidewire-http threads, and
+ * further calls wait in the dispatcher queue without holding a thread.
+ * Nothing blocks the common ForkJoinPool. Identical concurrent quote
+ * requests share one call (see {@link SingleFlight}).
  */
 @Component
 public class GuideWireClient {
@@ -24,8 +42,9 @@ public class GuideWireClient {
     private static final Logger logger = LoggerFactory.getLogger(GuideWireClient.class);
     private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
 
-    private final OkHttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final ObjectReader quoteReader;
+    private OkHttpClient httpClient;
 
     @Value("${insurance.external-api.guidewire.url}")
     private String apiUrl;
@@ -39,27 +58,143 @@ public class GuideWireClient {
     @Value("${insurance.external-api.guidewire.enabled}")
     private boolean apiEnabled;
 
+    @Value("${insurance.external-api.guidewire.max-requests:16}")
+    private int maxRequests;
+
+    @Value("${insurance.external-api.guidewire.max-requests-per-host:8}")
+    private int maxRequestsPerHost;
+
+    @Value("${insurance.external-api.coalescing.enabled:true}")
+    private boolean coalescing;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private SingleFlight<QuoteResponse> quoteFlight;
+
     public GuideWireClient() {
+        this.objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.quoteReader = objectMapper.readerFor(QuoteResponse.class);
+    }
+
+    @PostConstruct
+    public void init() {
+        // Fixed pool sized to the dispatcher limit; idle threads are released
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxRequests, maxRequests, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "guidewire-http-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+
+        Dispatcher dispatcher = new Dispatcher(executor);
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
         this.httpClient = new OkHttpClient.Builder()
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .writeTimeout(30, TimeUnit.SECONDS)
+                .dispatcher(dispatcher)
+                .connectTimeout(timeoutSeconds, TimeUnit.SECONDS)
+                .readTimeout(timeoutSeconds, TimeUnit.SECONDS)
+                .writeTimeout(timeoutSeconds, TimeUnit.SECONDS)
                 .build();
-        this.objectMapper = new ObjectMapper();
+
+        this.quoteFlight = new SingleFlight<>("guidewire", quote -> quote.toBuilder().build(), meterRegistry);
+
+        if (meterRegistry != null) {
+            Gauge.builder("guidewire.calls", dispatcher, Dispatcher::runningCallsCount)
+                    .description("Guidewire API calls in flight")
+                    .tag("state", "running")
+                    .register(meterRegistry);
+            Gauge.builder("guidewire.calls", dispatcher, Dispatcher::queuedCallsCount)
+                    .description("Guidewire API calls waiting for a dispatcher slot")
+                    .tag("state", "queued")
+                    .register(meterRegistry);
+        }
+
+        logger.info("Guidewire client - Enabled: {}, Max requests: {}, Per host: {}, Timeout: {}s",
+                apiEnabled, maxRequests, maxRequestsPerHost, timeoutSeconds);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (httpClient != null) {
+            httpClient.dispatcher().executorService().shutdown();
+            httpClient.connectionPool().evictAll();
+        }
     }
 
     /**
-     * Asynchronously get quote from external API
+     * Asynchronously get quote from external API. The call is enqueued on
+     * the client's dispatcher and the future completes from its callback;
+     * API errors fall back to the mock response as in {@link #getQuote}.
+     * Identical requests already in flight are not sent again; they share
+     * the outstanding call's response. Without coalescing, cancelling the
+     * future cancels the HTTP call.
      */
     public CompletableFuture<QuoteResponse> getQuoteAsync(QuoteRequest quoteRequest) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return getQuote(quoteRequest);
-            } catch (Exception e) {
-                logger.error("Error getting quote from Guidewire API: {}", e.getMessage(), e);
-                throw new RuntimeException("Failed to get external quote", e);
+        if (!apiEnabled) {
+            logger.debug("External API disabled, using mock response");
+            return CompletableFuture.completedFuture(getMockQuoteResponse(quoteRequest));
+        }
+
+        byte[] requestBody;
+        try {
+            requestBody = objectMapper.writeValueAsBytes(quoteRequest);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (!coalescing) {
+            return enqueueQuote(quoteRequest, requestBody);
+        }
+        // The serialized request is the canonical form: equal requests, equal bodies
+        return quoteFlight.execute(SingleFlight.key(requestBody), () -> enqueueQuote(quoteRequest, requestBody));
+    }
+
+    private CompletableFuture<QuoteResponse> enqueueQuote(QuoteRequest quoteRequest, byte[] requestBody) {
+        logger.info("Calling Guidewire API asynchronously for insurance type: {}", quoteRequest.getInsuranceType());
+
+        CompletableFuture<QuoteResponse> future = new CompletableFuture<>();
+        Call call = httpClient.newCall(quoteCall(requestBody));
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    if (!response.isSuccessful()) {
+                        logger.warn("Guidewire API returned error: {}, falling back to mock", response.code());
+                        future.complete(getMockQuoteResponse(quoteRequest));
+                        return;
+                    }
+                    QuoteResponse quoteResponse = readQuote(response);
+                    logger.info("Successfully received quote from Guidewire API - Premium: ${}",
+                            quoteResponse.getTotalPremium());
+                    future.complete(quoteResponse);
+                } catch (Exception e) {
+                    logger.warn("Error reading Guidewire API response, using mock response: {}", e.getMessage());
+                    future.complete(getMockQuoteResponse(quoteRequest));
+                }
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                if (future.isCancelled()) {
+                    return;
+                }
+                logger.warn("Error calling Guidewire API, using mock response: {}", e.getMessage());
+                future.complete(getMockQuoteResponse(quoteRequest));
+            }
+        });
+
+        future.whenComplete((quote, throwable) -> {
+            if (future.isCancelled()) {
+                call.cancel();
             }
         });
+        return future;
     }
 
     /**
@@ -73,14 +208,7 @@ public class GuideWireClient {
 
         logger.info("Calling Guidewire API for insurance type: {}", quoteRequest.getInsuranceType());
 
-        String requestBody = objectMapper.writeValueAsString(quoteRequest);
-
-        Request request = new Request.Builder()
-                .url(apiUrl + "/quotes")
-                .addHeader("Authorization", "Bearer " + apiKey)
-                .addHeader("Content-Type", "application/json")
-                .post(RequestBody.create(requestBody, JSON))
-                .build();
+        Request request = quoteCall(objectMapper.writeValueAsBytes(quoteRequest));
 
         try (Response response = httpClient.newCall(request).execute()) {
             if (!response.isSuccessful()) {
@@ -88,8 +216,7 @@ public class GuideWireClient {
                 return getMockQuoteResponse(quoteRequest);
             }
 
-            String responseBody = response.body().string();
-            QuoteResponse quoteResponse = objectMapper.readValue(responseBody, QuoteResponse.class);
+            QuoteResponse quoteResponse = readQuote(response);
             
             logger.info("Successfully received quote from Guidewire API - Premium: ${}", 
                     quoteResponse.getTotalPremium());
@@ -102,6 +229,36 @@ public class GuideWireClient {
         }
     }
 
+    private Request quoteCall(byte[] requestBody) {
+        return new Request.Builder()
+                .url(apiUrl + "/quotes")
+                .addHeader("Authorization", "Bearer " + apiKey)
+                .addHeader("Content-Type", "application/json")
+                .post(RequestBody.create(requestBody, JSON))
+                .build();
+    }
+
+    /**
+     * Calls made and duplicates suppressed by request coalescing
+     */
+    public SingleFlight<QuoteResponse> getQuoteFlight() {
+        return quoteFlight;
+    }
+
+    /**
+     * Parse the quote straight from the response body stream, without
+     * buffering it into a String first
+     */
+    private QuoteResponse readQuote(Response response) throws IOException {
+        ResponseBody body = response.body();
+        if (body == null) {
+            throw new IOException("Empty Guidewire API response");
+        }
+        try (InputStream in = body.byteStream()) {
+            return quoteReader.readValue(in);
+        }
+    }
+
     /**
      * Mock response for testing/fallback
      */
@@ -0,0 +1,158 @@
+package com.xai.insuranceagent.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Collapses concurrent identical outbound calls into one.
+ *
+ * The first caller for a key (the leader) makes the call; callers that
+ * arrive with the same key while it is in flight share its outcome instead
+ * of making their own. Nothing is cached: once the call completes the key
+ * is released and the next caller makes a fresh call. Every caller gets its
+ * own copy of the result, so callers may modify what they receive.
+ */
+public final class SingleFlight<V> {
+
+    private final ConcurrentHashMap<String, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final UnaryOperator<V> copier;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder suppressed = new LongAdder();
+
+    /**
+     * @param client   tag value for the external.calls.coalesced metrics
+     * @param copier   copies a result for each caller
+     * @param registry meter registry, or null for no metrics
+     */
+    public SingleFlight(String client, UnaryOperator<V> copier, MeterRegistry registry) {
+        this.copier = copier;
+        if (registry != null) {
+            FunctionCounter.builder("external.calls.coalesced", calls, LongAdder::sum)
+                    .description("Outbound external API calls made through the single-flight layer")
+                    .tag("client", client)
+                    .tag("result", "called")
+                    .register(registry);
+            FunctionCounter.builder("external.calls.coalesced", suppressed, LongAdder::sum)
+                    .description("Duplicate external API calls answered by an identical in-flight call")
+                    .tag("client", client)
+                    .tag("result", "suppressed")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Start {@code call} unless an identical one is in flight. Cancelling the
+     * returned future does not cancel the shared call.
+     */
+    public CompletableFuture<V> execute(String key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> shared = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, shared);
+        if (existing != null) {
+            suppressed.increment();
+            return existing.thenApply(copier);
+        }
+
+        calls.increment();
+        CompletableFuture<V> outbound;
+        try {
+            outbound = call.get();
+        } catch (RuntimeException e) {
+            outbound = CompletableFuture.failedFuture(e);
+        }
+        outbound.whenComplete((value, throwable) -> {
+            // Release the key before completing so later callers start afresh
+            inFlight.remove(key, shared);
+            if (throwable != null) {
+                shared.completeExceptionally(throwable);
+            } else {
+                shared.complete(value);
+            }
+        });
+        return shared.thenApply(copier);
+    }
+
+    /**
+     * Blocking variant: the leader runs {@code call} on its own thread and
+     * identical concurrent callers wait for its result or exception
+     */
+    public V call(String key, Callable<V> call) throws Exception {
+        CompletableFuture<V> shared = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, shared);
+        if (existing != null) {
+            suppressed.increment();
+            try {
+                return copier.apply(existing.join());
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+
+        calls.increment();
+        try {
+            V value = call.call();
+            inFlight.remove(key, shared);
+            shared.complete(value);
+            return copier.apply(value);
+        } catch (Exception | Error e) {
+            inFlight.remove(key, shared);
+            shared.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Outbound calls made
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * Duplicate calls answered by an in-flight call
+     */
+    public long getSuppressed() {
+        return suppressed.sum();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * Canonical key over the given parts: a SHA-256 of their length-prefixed
+     * concatenation, so sensitive values (e.g. an SSN) are never held as keys
+     */
+    public static String key(String... parts) {
+        StringBuilder canonical = new StringBuilder(64);
+        for (String part : parts) {
+            if (part == null) {
+                canonical.append('~');
+            } else {
+                canonical.append(part.length()).append(':').append(part);
+            }
+            canonical.append('|');
+        }
+        return key(canonical.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String key(byte[] canonical) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.xai.insuranceagent.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-size pool of daemon threads with a bounded queue. A full queue
+ * rejects with ExecutorSaturatedException instead of growing or blocking
+ * the caller.
+ *
+ * Metrics, tagged name=<pool>: executor.active, executor.queued,
+ * executor.queue.remaining and the other ExecutorServiceMetrics gauges,
+ * plus executor.wait (time from submission to start) and executor.rejected.
+ */
+final class BoundedExecutor extends ThreadPoolExecutor {
+
+    private final Timer waitTimer;
+
+    BoundedExecutor(String name, int threads, int queueCapacity, long retryAfterSeconds, MeterRegistry registry) {
+        super(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                daemonThreads(name), rejectWith(name, retryAfterSeconds, registry));
+        allowCoreThreadTimeOut(true);
+
+        this.waitTimer = Timer.builder("executor.wait")
+                .description("Time tasks spend queued before a worker picks them up")
+                .tag("name", name)
+                .register(registry);
+        new ExecutorServiceMetrics(this, name, Tags.empty()).bindTo(registry);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        long queuedAt = System.nanoTime();
+        super.execute(() -> {
+            waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+            command.run();
+        });
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static RejectedExecutionHandler rejectWith(String name, long retryAfterSeconds, MeterRegistry registry) {
+        Counter rejected = Counter.builder("executor.rejected")
+                .description("Tasks refused because the pool and its queue were full")
+                .tag("name", name)
+                .register(registry);
+        return (task, executor) -> {
+            rejected.increment();
+            throw new ExecutorSaturatedException(name, retryAfterSeconds);
+        };
+    }
+}
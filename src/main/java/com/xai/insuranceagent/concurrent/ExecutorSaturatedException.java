@@ -0,0 +1,44 @@
+package com.xai.insuranceagent.concurrent;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Thrown when a workload pool's threads and queue are full, or no pooled
+ * rule session frees up in time. Controllers map it to 503 Service
+ * Unavailable with a Retry-After header.
+ */
+public class ExecutorSaturatedException extends RejectedExecutionException {
+
+    private final String pool;
+    private final long retryAfterSeconds;
+
+    public ExecutorSaturatedException(String pool, long retryAfterSeconds) {
+        this(pool, retryAfterSeconds, "The " + pool + " worker pool is saturated; retry in " + retryAfterSeconds + " s");
+    }
+
+    public ExecutorSaturatedException(String pool, long retryAfterSeconds, String message) {
+        super(message);
+        this.pool = pool;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getPool() {
+        return pool;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Rethrows the saturation in {@code throwable}'s cause chain, if any, so
+     * that fallbacks and catch-alls let it reach the controllers as a 503.
+     */
+    public static void rethrowIfSaturated(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ExecutorSaturatedException saturated) {
+                throw saturated;
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.xai.insuranceagent.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Virtual thread per task, admitting at most maxConcurrency tasks at once.
+ * There is no queue: a task beyond the limit is rejected with
+ * ExecutorSaturatedException, as a full BoundedExecutor would.
+ *
+ * Metrics, tagged name=<pool>: executor.active, executor.wait and
+ * executor.rejected, as for BoundedExecutor.
+ */
+final class VirtualThreadExecutor extends AbstractExecutorService {
+
+    private final ExecutorService threads;
+    private final Semaphore permits;
+    private final String name;
+    private final long retryAfterSeconds;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    VirtualThreadExecutor(String name, int maxConcurrency, long retryAfterSeconds, MeterRegistry registry) {
+        this.threads = VirtualThreads.newThreadPerTaskExecutor(name + "-vt-");
+        this.permits = new Semaphore(maxConcurrency);
+        this.name = name;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        this.waitTimer = Timer.builder("executor.wait")
+                .description("Time tasks spend queued before a worker picks them up")
+                .tag("name", name)
+                .register(registry);
+        this.rejected = Counter.builder("executor.rejected")
+                .description("Tasks refused because the pool and its queue were full")
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("executor.active", permits, p -> maxConcurrency - p.availablePermits())
+                .description("The approximate number of threads that are actively executing tasks")
+                .tag("name", name)
+                .register(registry);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (!permits.tryAcquire()) {
+            rejected.increment();
+            throw new ExecutorSaturatedException(name, retryAfterSeconds);
+        }
+        long queuedAt = System.nanoTime();
+        try {
+            threads.execute(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        threads.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return threads.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return threads.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return threads.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return threads.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,69 @@
+package com.xai.insuranceagent.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to JDK 21 virtual threads from code compiled for Java 17. The API
+ * is reached by reflection; callers check {@link #isAvailable()} and fall
+ * back to platform threads on older runtimes.
+ */
+public final class VirtualThreads {
+
+    private static final boolean AVAILABLE = Runtime.version().feature() >= 21 && hasOfVirtual();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * True when running on JDK 21 or later
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Factory for virtual threads named prefix0, prefix1, ...
+     */
+    public static ThreadFactory factory(String prefix) {
+        requireAvailable();
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create virtual thread factory", e);
+        }
+    }
+
+    /**
+     * Executor that starts a new virtual thread for each task
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String prefix) {
+        ThreadFactory factory = factory(prefix);
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create virtual thread executor", e);
+        }
+    }
+
+    private static void requireAvailable() {
+        if (!AVAILABLE) {
+            throw new IllegalStateException("Virtual threads need JDK 21 or later (running "
+                    + Runtime.version().feature() + ")");
+        }
+    }
+
+    private static boolean hasOfVirtual() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
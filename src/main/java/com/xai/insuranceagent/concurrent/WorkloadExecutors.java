@@ -0,0 +1,135 @@
+package com.xai.insuranceagent.concurrent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Separate bounded pools for the kinds of async work the service does, so
+ * that blocking PDF I/O and slow external APIs cannot starve CPU-bound
+ * quoting and underwriting (previously all of it shared the common pool).
+ *
+ * A saturated pool rejects new work with ExecutorSaturatedException, which
+ * the controllers turn into 503 with Retry-After. Code that must not block
+ * on a pool's own result should not join inside that pool.
+ *
+ * Bulk jobs (/assess-batch, /quote/batch, ML batch scoring) share the batch
+ * pool so that a large batch queues behind other batches instead of
+ * filling the cpu pool's queue and shedding interactive requests.
+ *
+ * With insurance.threads.virtual.enabled on JDK 21+, the blocking-io and
+ * external-api pools run each task on its own virtual thread instead,
+ * admitting up to virtual-max-concurrency tasks each. The cpu and batch
+ * pools always use platform threads.
+ */
+@Component
+public class WorkloadExecutors {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkloadExecutors.class);
+
+    private final ExecutorService cpu;
+    private final ExecutorService batch;
+    private final int batchPoolSize;
+    private final ExecutorService blockingIo;
+    private final ExecutorService externalApi;
+
+    @Autowired
+    public WorkloadExecutors(MeterRegistry meterRegistry,
+                             @Value("${insurance.executors.cpu.threads:0}") int cpuThreads,
+                             @Value("${insurance.executors.cpu.queue-capacity:1000}") int cpuQueueCapacity,
+                             @Value("${insurance.executors.batch.threads:0}") int batchThreads,
+                             @Value("${insurance.executors.batch.queue-capacity:1000}") int batchQueueCapacity,
+                             @Value("${insurance.executors.blocking-io.threads:16}") int ioThreads,
+                             @Value("${insurance.executors.blocking-io.queue-capacity:200}") int ioQueueCapacity,
+                             @Value("${insurance.executors.external-api.threads:32}") int apiThreads,
+                             @Value("${insurance.executors.external-api.queue-capacity:500}") int apiQueueCapacity,
+                             @Value("${insurance.executors.retry-after-seconds:2}") long retryAfterSeconds,
+                             @Value("${insurance.threads.virtual.enabled:false}") boolean virtualThreads,
+                             @Value("${insurance.executors.virtual-max-concurrency:10000}") int virtualMaxConcurrency) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int cpuPoolSize = cpuThreads > 0 ? cpuThreads : cores;
+        this.cpu = new BoundedExecutor("cpu", cpuPoolSize, cpuQueueCapacity, retryAfterSeconds, meterRegistry);
+        this.batchPoolSize = batchThreads > 0 ? batchThreads : cores;
+        this.batch = new BoundedExecutor("batch", batchPoolSize, batchQueueCapacity, retryAfterSeconds, meterRegistry);
+
+        boolean virtual = virtualThreads && VirtualThreads.isAvailable();
+        if (virtualThreads && !virtual) {
+            logger.warn("Virtual threads need JDK 21+, running {}; using platform thread pools",
+                    Runtime.version().feature());
+        }
+        if (virtual) {
+            this.blockingIo = new VirtualThreadExecutor("blocking-io", virtualMaxConcurrency,
+                    retryAfterSeconds, meterRegistry);
+            this.externalApi = new VirtualThreadExecutor("external-api", virtualMaxConcurrency,
+                    retryAfterSeconds, meterRegistry);
+            logger.info("Workload executors - cpu: {}/{}, batch: {}/{} (threads/queue), blocking-io and "
+                    + "external-api: virtual threads, up to {} tasks each", cpuPoolSize, cpuQueueCapacity,
+                    batchPoolSize, batchQueueCapacity, virtualMaxConcurrency);
+        } else {
+            this.blockingIo = new BoundedExecutor("blocking-io", ioThreads, ioQueueCapacity,
+                    retryAfterSeconds, meterRegistry);
+            this.externalApi = new BoundedExecutor("external-api", apiThreads, apiQueueCapacity,
+                    retryAfterSeconds, meterRegistry);
+            logger.info("Workload executors - cpu: {}/{}, batch: {}/{}, blocking-io: {}/{}, external-api: {}/{} "
+                    + "(threads/queue)", cpuPoolSize, cpuQueueCapacity, batchPoolSize, batchQueueCapacity, ioThreads, ioQueueCapacity,
+                    apiThreads, apiQueueCapacity);
+        }
+    }
+
+    /**
+     * Platform thread pools with the default sizes
+     */
+    public WorkloadExecutors(MeterRegistry meterRegistry) {
+        this(meterRegistry, 0, 1000, 0, 1000, 16, 200, 32, 500, 2, false, 10000);
+    }
+
+    /**
+     * Quoting, rules and scoring: sized to the cores
+     */
+    public Executor cpu() {
+        return cpu;
+    }
+
+    /**
+     * Partitions, rows and chunks of bulk jobs: sized to the cores
+     */
+    public Executor batch() {
+        return batch;
+    }
+
+    /**
+     * Threads in the batch pool, for splitting a job into that many parts
+     */
+    public int batchParallelism() {
+        return batchPoolSize;
+    }
+
+    /**
+     * Local blocking I/O such as PDF generation
+     */
+    public Executor blockingIo() {
+        return blockingIo;
+    }
+
+    /**
+     * Calls to external APIs (credit bureau, DocuSign)
+     */
+    public Executor externalApi() {
+        return externalApi;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cpu.shutdown();
+        batch.shutdown();
+        blockingIo.shutdown();
+        externalApi.shutdown();
+    }
+}
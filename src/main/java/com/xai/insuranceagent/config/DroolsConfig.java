@@ -1,37 +1,170 @@
 package com.xai.insuranceagent.config;
 
+import com.xai.insuranceagent.rules.RulesModelCompiler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.kie.api.KieBase;
 import org.kie.api.KieServices;
 import org.kie.api.builder.KieBuilder;
 import org.kie.api.builder.KieFileSystem;
 import org.kie.api.builder.KieModule;
+import org.kie.api.builder.ReleaseId;
 import org.kie.api.runtime.KieContainer;
 import org.kie.internal.io.ResourceFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Drools Rules Engine Configuration
+ *
+ * By default the KieContainer is loaded from the executable-model kjar that
+ * RulesModelCompiler produces during the Maven build. Runtime DRL compilation
+ * is only used when the "dev" profile is active.
  */
 @Configuration
 public class DroolsConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(DroolsConfig.class);
-    private static final String RULES_PATH = "underwriting-rules.drl";
+    public static final String RULES_PATH = "underwriting-rules.drl";
+
+    @Bean
+    public KieContainer kieContainer(Environment environment, MeterRegistry meterRegistry) {
+        boolean devProfile = environment.acceptsProfiles(Profiles.of("dev"));
+        String source = devProfile ? "drl" : "executable-model";
+        logger.info("Initializing Drools KieContainer from {}...", source);
+
+        long start = System.nanoTime();
+        KieContainer kieContainer = devProfile ? compileDrl() : loadExecutableModel();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        TimeGauge.builder("underwriting.rules.load.time", () -> elapsedMillis, TimeUnit.MILLISECONDS)
+                .description("Time taken to build the underwriting KieContainer at startup")
+                .tag("source", source)
+                .strongReference(true)
+                .register(meterRegistry);
 
+        logger.info("Drools KieContainer initialized successfully from {} in {} ms", source, elapsedMillis);
+        return kieContainer;
+    }
+
+    /**
+     * Shared, thread-safe KieBase; sessions are created from it by RuleSessionExecutor
+     */
     @Bean
-    public KieContainer kieContainer() {
-        logger.info("Initializing Drools KieContainer...");
-        
+    public KieBase kieBase(KieContainer kieContainer) {
+        return kieContainer.getKieBase();
+    }
+
+    /**
+     * Load the pre-compiled executable model kjar from the classpath
+     */
+    public KieContainer loadExecutableModel() {
+        byte[] kjar;
+        try (InputStream in = DroolsConfig.class.getClassLoader()
+                .getResourceAsStream(RulesModelCompiler.KJAR_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Executable rules model " + RulesModelCompiler.KJAR_RESOURCE
+                        + " not found on classpath; build with 'mvn package' or run with the 'dev' profile");
+            }
+            kjar = in.readAllBytes();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read executable rules model", e);
+        }
+
+        KieServices kieServices = KieServices.Factory.get();
+        KieModule kieModule = kieServices.getRepository()
+                .addKieModule(kieServices.getResources().newByteArrayResource(kjar));
+        return kieServices.newKieContainer(kieModule.getReleaseId());
+    }
+
+    /**
+     * Compile a set of DRL sources (file name to content) at runtime into a
+     * KieContainer released under the given ruleset version. Used by the
+     * rules hot-reloader; the module is removed from the shared KieRepository
+     * again so that successive reloads do not accumulate.
+     */
+    public KieContainer compileDrl(Map<String, byte[]> drlSources, String version) {
+        KieServices kieServices = KieServices.Factory.get();
+        ReleaseId releaseId = kieServices.newReleaseId(
+                RulesModelCompiler.GROUP_ID, RulesModelCompiler.ARTIFACT_ID, RulesModelCompiler.VERSION + "-" + version);
+
+        KieFileSystem kieFileSystem = kieServices.newKieFileSystem();
+        kieFileSystem.generateAndWritePomXML(releaseId);
+        drlSources.forEach((name, content) -> kieFileSystem.write("src/main/resources/rules/" + name, content));
+
+        KieBuilder kieBuilder = kieServices.newKieBuilder(kieFileSystem);
+        kieBuilder.buildAll();
+
+        if (kieBuilder.getResults().hasMessages(org.kie.api.builder.Message.Level.ERROR)) {
+            StringBuilder errors = new StringBuilder();
+            kieBuilder.getResults().getMessages(org.kie.api.builder.Message.Level.ERROR)
+                    .forEach(message -> errors.append(System.lineSeparator()).append(message));
+            throw new IllegalArgumentException("Drools rules compilation failed for ruleset " + version + errors);
+        }
+
+        KieContainer kieContainer = kieServices.newKieContainer(releaseId);
+        kieContainer.getKieBase(); // Build eagerly, before the module leaves the repository
+        kieServices.getRepository().removeKieModule(releaseId);
+        return kieContainer;
+    }
+
+    /**
+     * Version of the ruleset packaged on the classpath (underwriting-rules.drl)
+     */
+    public static String classpathRulesetVersion() {
+        try (InputStream in = DroolsConfig.class.getClassLoader().getResourceAsStream(RULES_PATH)) {
+            if (in == null) {
+                return "unknown";
+            }
+            return rulesetVersion(Map.of(RULES_PATH, in.readAllBytes()));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read " + RULES_PATH, e);
+        }
+    }
+
+    /**
+     * Content-derived ruleset version: the first 12 hex digits of a SHA-256
+     * over the DRL sources in file-name order
+     */
+    public static String rulesetVersion(Map<String, byte[]> drlSources) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            new TreeMap<>(drlSources).forEach((name, content) -> {
+                digest.update(name.getBytes(StandardCharsets.UTF_8));
+                digest.update(content);
+            });
+            return HexFormat.of().formatHex(digest.digest(), 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Parse and compile the DRL at runtime (dev profile only)
+     */
+    public KieContainer compileDrl() {
         KieServices kieServices = KieServices.Factory.get();
-        
+
         KieFileSystem kieFileSystem = kieServices.newKieFileSystem();
         kieFileSystem.write(ResourceFactory.newClassPathResource(RULES_PATH));
-        
+
         KieBuilder kieBuilder = kieServices.newKieBuilder(kieFileSystem);
         kieBuilder.buildAll();
-        
+
         if (kieBuilder.getResults().hasMessages(org.kie.api.builder.Message.Level.ERROR)) {
             logger.error("Drools rules compilation errors:");
             kieBuilder.getResults().getMessages().forEach(
@@ -39,12 +172,8 @@ public class DroolsConfig {
             );
             throw new RuntimeException("Drools rules compilation failed");
         }
-        
+
         KieModule kieModule = kieBuilder.getKieModule();
-        KieContainer kieContainer = kieServices.newKieContainer(kieModule.getReleaseId());
-        
-        logger.info("Drools KieContainer initialized successfully");
-        return kieContainer;
+        return kieServices.newKieContainer(kieModule.getReleaseId());
     }
 }
-
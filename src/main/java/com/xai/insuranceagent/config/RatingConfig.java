@@ -0,0 +1,34 @@
+package com.xai.insuranceagent.config;
+
+import com.xai.insuranceagent.rating.KeywordClassifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+
+import java.io.IOException;
+
+/**
+ * Rating reference data shared by the quoting and underwriting services
+ */
+@Configuration
+public class RatingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(RatingConfig.class);
+
+    /**
+     * Vehicle, occupation and location keyword dictionaries compiled into a
+     * single automaton
+     */
+    @Bean
+    public KeywordClassifier keywordClassifier(ResourceLoader resourceLoader,
+                                               @Value("${insurance.rating.keywords:classpath:rating/keywords.json}") String location)
+            throws IOException {
+        KeywordClassifier classifier = KeywordClassifier.load(resourceLoader.getResource(location));
+        logger.info("Keyword dictionaries {} loaded from {} - {} classes, {} states",
+                classifier.getVersion(), location, classifier.getClassNames().size(), classifier.numStates());
+        return classifier;
+    }
+}
@@ -0,0 +1,36 @@
+package com.xai.insuranceagent.config;
+
+import com.xai.insuranceagent.concurrent.VirtualThreads;
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Opt-in virtual-thread request handling (insurance.threads.virtual.enabled).
+ * On JDK 21+ Tomcat runs each request on its own virtual thread, so requests
+ * blocked in OkHttp or PDF I/O no longer hold one of server.tomcat.threads.max
+ * platform threads. On older runtimes the setting is ignored with a warning.
+ */
+@Configuration
+@ConditionalOnProperty(name = "insurance.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadRequestHandling() {
+        return protocolHandler -> {
+            if (!VirtualThreads.isAvailable()) {
+                logger.warn("Virtual threads need JDK 21+, running {}; Tomcat keeps its platform thread pool",
+                        Runtime.version().feature());
+                return;
+            }
+            protocolHandler.setExecutor(VirtualThreads.newThreadPerTaskExecutor("http-vt-"));
+            logger.info("Tomcat request handling on virtual threads");
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.xai.insuranceagent.controller;
 
+import com.xai.insuranceagent.concurrent.ExecutorSaturatedException;
 import com.xai.insuranceagent.model.ErrorResponse;
 import com.xai.insuranceagent.model.document.DocumentRequest;
 import com.xai.insuranceagent.model.document.DocumentResponse;
@@ -80,6 +81,7 @@ public class DocumentController {
                     }
                 })
                 .exceptionally(throwable -> {
+                    ExecutorSaturatedException.rethrowIfSaturated(throwable);
                     logger.error("Error in async document filling: {}", throwable.getMessage());
                     return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
                 });
@@ -109,23 +111,4 @@ public class DocumentController {
 
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
-
-    /**
-     * Exception handler for general errors
-     */
-    @ExceptionHandler(Exception.class)
-    public ResponseEntity<ErrorResponse> handleGeneralException(Exception ex) {
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
-                .error("Internal Server Error")
-                .message(ex.getMessage())
-                .timestamp(LocalDateTime.now())
-                .build();
-
-        logger.error("Document filling error: {}", ex.getMessage(), ex);
-
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(errorResponse);
-    }
 }
-
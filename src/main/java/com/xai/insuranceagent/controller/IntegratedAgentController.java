@@ -1,11 +1,15 @@
 package com.xai.insuranceagent.controller;
 
+import com.xai.insuranceagent.concurrent.ExecutorSaturatedException;
+import com.xai.insuranceagent.concurrent.WorkloadExecutors;
 import com.xai.insuranceagent.model.document.DocumentRequest;
 import com.xai.insuranceagent.model.document.DocumentResponse;
 import com.xai.insuranceagent.model.quote.QuoteRequest;
 import com.xai.insuranceagent.model.quote.QuoteResponse;
 import com.xai.insuranceagent.model.underwriting.CustomerRiskProfile;
 import com.xai.insuranceagent.model.underwriting.UnderwritingDecision;
+import com.xai.insuranceagent.rating.KeywordClassifier;
+import com.xai.insuranceagent.rating.Money;
 import com.xai.insuranceagent.service.EnhancedDocumentFillingService;
 import com.xai.insuranceagent.service.EnhancedQuotingService;
 import com.xai.insuranceagent.service.EnhancedUnderwritingService;
@@ -42,6 +46,12 @@ public class IntegratedAgentController {
     @Autowired
     private EnhancedDocumentFillingService documentService;
 
+    @Autowired
+    private KeywordClassifier keywordClassifier;
+
+    @Autowired
+    private WorkloadExecutors workloadExecutors;
+
     /**
      * Complete insurance processing workflow
      */
@@ -54,12 +64,12 @@ public class IntegratedAgentController {
         try {
             // Step 1: Generate Quote
             QuoteRequest quoteReq = buildQuoteRequest(request);
-            QuoteResponse quote = quotingService.generateQuote(quoteReq);
+            QuoteResponse quote = quotingService.generateDetailedQuote(quoteReq);
             logger.info("Quote generated - Premium: ${}", quote.getTotalPremium());
 
             // Step 2: Underwriting Assessment
             CustomerRiskProfile riskProfile = buildRiskProfile(request);
-            UnderwritingDecision decision = underwritingService.assessRisk(riskProfile);
+            UnderwritingDecision decision = underwritingService.performUnderwriting(riskProfile);
             logger.info("Underwriting completed - Decision: {}, Risk Score: {}", 
                     decision.getDecision(), decision.getRiskScore());
 
@@ -87,6 +97,7 @@ public class IntegratedAgentController {
             return ResponseEntity.ok(response);
 
         } catch (Exception e) {
+            ExecutorSaturatedException.rethrowIfSaturated(e);
             logger.error("Error in complete workflow: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to process complete workflow: " + e.getMessage());
         }
@@ -101,57 +112,60 @@ public class IntegratedAgentController {
         
         logger.info("Starting async complete workflow for customer: {}", request.getCustomerId());
 
-        return CompletableFuture.supplyAsync(() -> {
-            // Run quote, underwriting, and document generation in parallel
-            CompletableFuture<QuoteResponse> quoteFuture = CompletableFuture.supplyAsync(() -> {
-                QuoteRequest quoteReq = buildQuoteRequest(request);
-                return quotingService.generateQuote(quoteReq);
-            });
-
-            CompletableFuture<UnderwritingDecision> underwritingFuture = CompletableFuture.supplyAsync(() -> {
-                CustomerRiskProfile riskProfile = buildRiskProfile(request);
-                return underwritingService.assessRisk(riskProfile);
-            });
-
-            // Wait for both to complete
-            QuoteResponse quote = quoteFuture.join();
-            UnderwritingDecision decision = underwritingFuture.join();
-
-            // Generate document if approved
-            DocumentResponse document = null;
-            if ("APPROVED".equals(decision.getDecision()) || "CONDITIONAL_APPROVAL".equals(decision.getDecision())) {
-                DocumentRequest docReq = buildDocumentRequest(request, quote, decision);
-                document = documentService.fillDocument(docReq);
-            }
-
-            ComprehensiveResponse response = ComprehensiveResponse.builder()
-                    .customerId(request.getCustomerId())
-                    .quote(quote)
-                    .underwriting(decision)
-                    .document(document)
-                    .overallStatus(determineOverallStatus(decision))
-                    .processedAt(LocalDateTime.now())
-                    .message("Async workflow completed")
-                    .build();
-
-            return ResponseEntity.ok(response);
-        });
+        // Quote and underwriting run in parallel on the CPU pool (underwriting only
+        // once its external lookups are done); the document is generated on the
+        // blocking I/O pool once both are done. No stage blocks a pool thread
+        // waiting for another or for I/O.
+        CompletableFuture<QuoteResponse> quoteFuture = CompletableFuture.supplyAsync(() -> {
+            QuoteRequest quoteReq = buildQuoteRequest(request);
+            return quotingService.generateDetailedQuote(quoteReq);
+        }, workloadExecutors.cpu());
+
+        CompletableFuture<UnderwritingDecision> underwritingFuture =
+                underwritingService.performUnderwritingAsync(buildRiskProfile(request));
+
+        return quoteFuture.thenCombine(underwritingFuture, AsyncWorkflow::new)
+                .thenApplyAsync(workflow -> {
+                    QuoteResponse quote = workflow.quote();
+                    UnderwritingDecision decision = workflow.decision();
+
+                    // Generate document if approved
+                    DocumentResponse document = null;
+                    if ("APPROVED".equals(decision.getDecision()) || "CONDITIONAL_APPROVAL".equals(decision.getDecision())) {
+                        DocumentRequest docReq = buildDocumentRequest(request, quote, decision);
+                        document = documentService.fillDocument(docReq);
+                    }
+
+                    ComprehensiveResponse response = ComprehensiveResponse.builder()
+                            .customerId(request.getCustomerId())
+                            .quote(quote)
+                            .underwriting(decision)
+                            .document(document)
+                            .overallStatus(determineOverallStatus(decision))
+                            .processedAt(LocalDateTime.now())
+                            .message("Async workflow completed")
+                            .build();
+
+                    return ResponseEntity.ok(response);
+                }, workloadExecutors.blockingIo());
     }
 
     // Helper methods
 
     private QuoteRequest buildQuoteRequest(ComprehensiveRequest req) {
         return QuoteRequest.builder()
-                .customerId(req.getCustomerId())
                 .age(req.getAge())
                 .gender(req.getGender())
                 .address(req.getAddress())
                 .insuranceType(req.getInsuranceType())
                 .vehicleModel(req.getVehicleModel())
                 .propertyValue(req.getPropertyValue())
-                .isSmoker(req.getIsSmoker())
+                .smoker(req.getIsSmoker())
                 .occupation(req.getOccupation())
-                .isUrbanArea(isUrban(req.getAddress()))
+                .name(req.getCustomerName())
+                .email(req.getEmail())
+                .phone(req.getPhone())
+                .isUrbanArea(keywordClassifier.isUrban(req.getAddress()))
                 .build();
     }
 
@@ -161,9 +175,8 @@ public class IntegratedAgentController {
                 .age(req.getAge())
                 .insuranceType(req.getInsuranceType())
                 .creditScore(req.getCreditScore())
-                .claimsHistory(req.getClaimsHistory())
-                .drivingRecord(req.getDrivingRecord())
-                .isSmoker(req.getIsSmoker())
+                .claimsInLast3Years(req.getClaimsHistory() != null ? req.getClaimsHistory() : 0)
+                .smoker(req.getIsSmoker())
                 .occupation(req.getOccupation())
                 .address(req.getAddress())
                 .build();
@@ -188,11 +201,12 @@ public class IntegratedAgentController {
                 .policyData(DocumentRequest.PolicyData.builder()
                         .policyNumber(quote.getQuoteId())
                         .policyType(req.getInsuranceType() + " Insurance Policy")
-                        .premiumAmount(quote.getTotalPremium() + (decision.getAdditionalPremium() != null ? decision.getAdditionalPremium() : 0.0))
+                        .premiumAmount(Money.toDouble(Money.add(Money.toCents(quote.getTotalPremium()),
+                                decision.getExtraPremium() != null ? Money.toCents(decision.getExtraPremium()) : 0)))
                         .currency(quote.getCurrency())
                         .effectiveDate(LocalDateTime.now().toString())
                         .expiryDate(LocalDateTime.now().plusYears(1).toString())
-                        .coverageAmount(quote.getCoverageAmount())
+                        .coverageAmount(quote.getCoverage())
                         .deductible(String.valueOf(quote.getDeductible()))
                         .build())
                 .outputFormat(DocumentRequest.OutputFormat.BOTH)
@@ -203,14 +217,6 @@ public class IntegratedAgentController {
                 .build();
     }
 
-    private boolean isUrban(String address) {
-        if (address == null) return false;
-        String lower = address.toLowerCase();
-        return lower.contains("beijing") || lower.contains("shanghai") ||
-               lower.contains("guangzhou") || lower.contains("shenzhen") ||
-               lower.contains("city") || lower.contains("urban");
-    }
-
     private String determineOverallStatus(UnderwritingDecision decision) {
         return switch (decision.getDecision()) {
             case "APPROVED" -> "SUCCESS";
@@ -302,5 +308,11 @@ public class IntegratedAgentController {
         private String message;
         private LocalDateTime processedAt;
     }
+
+    /**
+     * Quote and underwriting results joined for the document stage
+     */
+    private record AsyncWorkflow(QuoteResponse quote, UnderwritingDecision decision) {
+    }
 }
 
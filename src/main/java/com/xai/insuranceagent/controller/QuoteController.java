@@ -1,22 +1,33 @@
 package com.xai.insuranceagent.controller;
 
+import com.xai.insuranceagent.concurrent.ExecutorSaturatedException;
 import com.xai.insuranceagent.model.ErrorResponse;
+import com.xai.insuranceagent.model.quote.BundleQuoteRequest;
+import com.xai.insuranceagent.model.quote.BundleQuoteResponse;
+import com.xai.insuranceagent.model.quote.QuoteDetail;
+import com.xai.insuranceagent.model.quote.QuoteGridRequest;
+import com.xai.insuranceagent.model.quote.QuoteGridResponse;
 import com.xai.insuranceagent.model.quote.QuoteRequest;
 import com.xai.insuranceagent.model.quote.QuoteResponse;
 import com.xai.insuranceagent.service.EnhancedQuotingService;
+import com.xai.insuranceagent.service.QuoteBatchService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -31,16 +42,23 @@ public class QuoteController {
     @Autowired
     private EnhancedQuotingService quotingService;
 
+    @Autowired
+    private QuoteBatchService quoteBatchService;
+
     /**
-     * Generate a detailed insurance quote synchronously
+     * Generate a detailed insurance quote synchronously. {@code fields}
+     * selects the explanatory parts to render (see QuoteDetail.parse);
+     * "lean" returns only the numeric core.
      */
     @PostMapping("/generate")
-    public ResponseEntity<QuoteResponse> generateQuote(@Valid @RequestBody QuoteRequest request) {
+    public ResponseEntity<QuoteResponse> generateQuote(@Valid @RequestBody QuoteRequest request,
+                                                       @RequestParam(required = false) String fields) {
         logger.info("Received quote request - Type: {}, Age: {}", 
                 request.getInsuranceType(), request.getAge());
+        Set<QuoteDetail> details = QuoteDetail.parse(fields);
 
         try {
-            QuoteResponse response = quotingService.generateDetailedQuote(request);
+            QuoteResponse response = quotingService.generateDetailedQuote(request, details);
             logger.info("Quote generated successfully - ID: {}, Premium: ${}", 
                     response.getQuoteId(), response.getTotalPremium());
             
@@ -69,11 +87,64 @@ public class QuoteController {
                     return ResponseEntity.ok(response);
                 })
                 .exceptionally(throwable -> {
+                    ExecutorSaturatedException.rethrowIfSaturated(throwable);
                     logger.error("Error in async quote generation: {}", throwable.getMessage());
                     return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
                 });
     }
 
+    /**
+     * Quote several products for one applicant in a single call, with the
+     * multi-policy discount applied to the combined premium. {@code fields}
+     * applies to every product quote, as for /generate.
+     */
+    @PostMapping("/bundle")
+    public ResponseEntity<BundleQuoteResponse> generateBundleQuote(@Valid @RequestBody BundleQuoteRequest request,
+                                                                   @RequestParam(required = false) String fields) {
+        logger.info("Received bundle quote request - Types: {}, Age: {}",
+                request.getInsuranceTypes(), request.getAge());
+        Set<QuoteDetail> details = QuoteDetail.parse(fields);
+
+        BundleQuoteResponse response = quotingService.generateBundleQuote(request, details);
+        logger.info("Bundle quote generated successfully - ID: {}, Premium: ${}",
+                response.getBundleId(), response.getTotalPremium());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * What-if pricing: premiums and deductibles for every combination of the
+     * requested dimension values around a base quote request
+     */
+    @PostMapping("/grid")
+    public ResponseEntity<QuoteGridResponse> generateQuoteGrid(@Valid @RequestBody QuoteGridRequest request) {
+        logger.info("Received quote grid request - Type: {}, Dimensions: {}",
+                request.getBase().getInsuranceType(), request.getDimensions().size());
+
+        return ResponseEntity.ok(quotingService.generateQuoteGrid(request));
+    }
+
+    /**
+     * Price a batch of quote requests sent as NDJSON (one QuoteRequest per
+     * line). Results are streamed back as NDJSON in request order, one
+     * QuoteResponse or QuoteBatchError per non-blank input line. {@code fields}
+     * applies to every response line, as for /generate.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> generateQuoteBatch(InputStream requestBody,
+                                                                    @RequestParam(required = false) String fields) {
+        logger.info("Received quote batch request");
+        Set<QuoteDetail> details = QuoteDetail.parse(fields);
+
+        StreamingResponseBody body = outputStream ->
+                quoteBatchService.generateQuoteBatch(requestBody, outputStream, details);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     /**
      * Exception handler for validation errors
      */
@@ -100,21 +171,19 @@ public class QuoteController {
     }
 
     /**
-     * Exception handler for general errors
+     * Exception handler for invalid request parameters
      */
-    @ExceptionHandler(Exception.class)
-    public ResponseEntity<ErrorResponse> handleGeneralException(Exception ex) {
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
         ErrorResponse errorResponse = ErrorResponse.builder()
-                .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
-                .error("Internal Server Error")
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error("Bad Request")
                 .message(ex.getMessage())
                 .timestamp(LocalDateTime.now())
                 .build();
 
-        logger.error("Quote generation error: {}", ex.getMessage(), ex);
+        logger.warn("Quote request rejected: {}", ex.getMessage());
 
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(errorResponse);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 }
-
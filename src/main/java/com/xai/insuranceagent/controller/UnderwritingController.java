@@ -1,22 +1,35 @@
 package com.xai.insuranceagent.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xai.insuranceagent.concurrent.ExecutorSaturatedException;
 import com.xai.insuranceagent.model.ErrorResponse;
 import com.xai.insuranceagent.model.underwriting.CustomerRiskProfile;
+import com.xai.insuranceagent.model.underwriting.ReviewOutcome;
+import com.xai.insuranceagent.model.underwriting.RuleStatistics;
 import com.xai.insuranceagent.model.underwriting.UnderwritingDecision;
+import com.xai.insuranceagent.rules.RuleSessionExecutor;
 import com.xai.insuranceagent.service.EnhancedUnderwritingService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -31,6 +44,15 @@ public class UnderwritingController {
     @Autowired
     private EnhancedUnderwritingService underwritingService;
 
+    @Autowired
+    private RuleSessionExecutor ruleSessionExecutor;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${insurance.underwriting.batch.max-size:10000}")
+    private int maxBatchSize;
+
     /**
      * Perform underwriting assessment synchronously
      */
@@ -50,6 +72,7 @@ public class UnderwritingController {
             return ResponseEntity.ok(decision);
 
         } catch (Exception e) {
+            ExecutorSaturatedException.rethrowIfSaturated(e);
             logger.error("Error in underwriting assessment: {}", e.getMessage(), e);
             throw new RuntimeException("Underwriting assessment failed: " + e.getMessage());
         }
@@ -71,11 +94,68 @@ public class UnderwritingController {
                     return ResponseEntity.ok(decision);
                 })
                 .exceptionally(throwable -> {
+                    ExecutorSaturatedException.rethrowIfSaturated(throwable);
                     logger.error("Error in async underwriting: {}", throwable.getMessage());
                     return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
                 });
     }
 
+    /**
+     * Underwrite a batch of risk profiles, streaming decisions back as NDJSON
+     * (one decision per line, in request order) while later partitions are still running
+     */
+    @PostMapping(value = "/assess-batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> assessRiskBatch(
+            @RequestBody List<CustomerRiskProfile> riskProfiles) {
+
+        logger.info("Received batch underwriting request - Profiles: {}", riskProfiles.size());
+
+        if (riskProfiles.size() > maxBatchSize) {
+            throw new IllegalArgumentException(
+                    "Batch size " + riskProfiles.size() + " exceeds maximum of " + maxBatchSize);
+        }
+
+        StreamingResponseBody body = outputStream -> underwritingService.performUnderwritingBatch(riskProfiles,
+                decisions -> writeNdjson(outputStream, decisions));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Record the outcome of a manual review of a referred decision
+     */
+    @PostMapping("/review-outcome")
+    public ResponseEntity<Map<String, Object>> recordReviewOutcome(@Valid @RequestBody ReviewOutcome outcome) {
+        boolean queued = underwritingService.recordReviewOutcome(outcome);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("decisionId", outcome.getDecisionId());
+        response.put("queuedForLearning", queued);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    /**
+     * Per-rule match counts, fire counts and action latency since startup
+     */
+    @GetMapping("/rules/metrics")
+    public ResponseEntity<List<RuleStatistics>> getRuleMetrics() {
+        return ResponseEntity.ok(ruleSessionExecutor.getRuleMetrics().snapshot());
+    }
+
+    private void writeNdjson(OutputStream outputStream, List<UnderwritingDecision> decisions) {
+        try {
+            for (UnderwritingDecision decision : decisions) {
+                outputStream.write(objectMapper.writeValueAsBytes(decision));
+                outputStream.write('\n');
+            }
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to stream underwriting decisions", e);
+        }
+    }
+
     /**
      * Exception handler for validation errors
      */
@@ -102,21 +182,19 @@ public class UnderwritingController {
     }
 
     /**
-     * Exception handler for general errors
+     * Exception handler for invalid batch requests
      */
-    @ExceptionHandler(Exception.class)
-    public ResponseEntity<ErrorResponse> handleGeneralException(Exception ex) {
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
         ErrorResponse errorResponse = ErrorResponse.builder()
-                .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
-                .error("Internal Server Error")
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error("Bad Request")
                 .message(ex.getMessage())
                 .timestamp(LocalDateTime.now())
                 .build();
 
-        logger.error("Underwriting error: {}", ex.getMessage(), ex);
+        logger.warn("Underwriting request rejected: {}", ex.getMessage());
 
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(errorResponse);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 }
-
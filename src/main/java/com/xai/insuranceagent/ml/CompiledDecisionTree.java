@@ -0,0 +1,252 @@
+package com.xai.insuranceagent.ml;
+
+import weka.classifiers.trees.J48;
+import weka.classifiers.trees.j48.C45Split;
+import weka.classifiers.trees.j48.ClassifierSplitModel;
+import weka.classifiers.trees.j48.ClassifierTree;
+import weka.classifiers.trees.j48.Distribution;
+import weka.core.Instances;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * A trained J48 tree flattened into primitive arrays.
+ *
+ * Evaluating a feature vector is a single root-to-leaf walk that yields both
+ * the predicted class and the class distribution, without allocating. The
+ * class probabilities stored at each leaf are taken from Weka's own
+ * Distribution objects and split tests use Weka's tolerance, so results are
+ * bit-for-bit identical to J48.classifyInstance / distributionForInstance
+ * for inputs without missing values (which this engine rejects).
+ *
+ * Instances are immutable and safe to share between threads.
+ */
+public final class CompiledDecisionTree implements FeatureClassifier {
+
+    /** Weka's Utils.SMALL, used by C45Split.whichSubset and classifyInstance */
+    private static final double SMALL = 1e-6;
+    private static final int LEAF = -1;
+
+    private final int numClasses;
+    private final int numFeatures;
+
+    // Per node: attribute tested (LEAF for leaves), numeric split point,
+    // whether the test is nominal and the offset of its first child
+    private final int[] attribute;
+    private final double[] splitPoint;
+    private final boolean[] nominal;
+    private final int[] firstChild;
+    private final int[] numChildren;
+    private final int[] children;
+
+    // Per leaf node: predicted class and offset into the distributions array
+    private final int[] leafClass;
+    private final int[] leafOffset;
+    private final double[] distributions;
+
+    private CompiledDecisionTree(Builder builder) {
+        this.numClasses = builder.numClasses;
+        this.numFeatures = builder.numFeatures;
+        this.attribute = Arrays.copyOf(builder.attribute, builder.nodes);
+        this.splitPoint = Arrays.copyOf(builder.splitPoint, builder.nodes);
+        this.nominal = Arrays.copyOf(builder.nominal, builder.nodes);
+        this.firstChild = Arrays.copyOf(builder.firstChild, builder.nodes);
+        this.numChildren = Arrays.copyOf(builder.numChildren, builder.nodes);
+        this.children = Arrays.copyOf(builder.children, builder.childCount);
+        this.leafClass = Arrays.copyOf(builder.leafClass, builder.nodes);
+        this.leafOffset = Arrays.copyOf(builder.leafOffset, builder.nodes);
+        this.distributions = Arrays.copyOf(builder.distributions, builder.distributionCount);
+    }
+
+    /**
+     * Flatten a trained J48 whose training header is {@code header}
+     */
+    public static CompiledDecisionTree compile(J48 j48, Instances header) {
+        ClassifierTree root = (ClassifierTree) readField(J48.class, "m_root", j48);
+        if (root == null) {
+            throw new IllegalArgumentException("J48 model has not been trained");
+        }
+        Builder builder = new Builder(header.numClasses(), header.numAttributes());
+        builder.addTree(root, header);
+        return new CompiledDecisionTree(builder);
+    }
+
+    /**
+     * Classify a feature vector laid out in header attribute order (nominal
+     * values as value indexes; the class slot is ignored). The class
+     * distribution is written to {@code distribution}, which must have
+     * {@link #numClasses()} elements, and the predicted class index returned.
+     */
+    public int classify(double[] features, double[] distribution) {
+        return classify(features, 0, distribution);
+    }
+
+    /**
+     * Classify the feature vector starting at {@code offset} of a row-major
+     * feature matrix
+     */
+    @Override
+    public int classify(double[] features, int offset, double[] distribution) {
+        int node = 0;
+        while (attribute[node] != LEAF) {
+            double value = features[offset + attribute[node]];
+            if (Double.isNaN(value)) {
+                throw new IllegalArgumentException("Missing value for attribute " + attribute[node]);
+            }
+            int subset;
+            if (nominal[node]) {
+                subset = (int) value;
+                if (subset < 0 || subset >= numChildren[node]) {
+                    throw new IllegalArgumentException("Nominal value " + subset
+                            + " out of range for attribute " + attribute[node]);
+                }
+            } else {
+                subset = value - splitPoint[node] < SMALL ? 0 : 1;
+            }
+            node = children[firstChild[node] + subset];
+        }
+        System.arraycopy(distributions, leafOffset[node], distribution, 0, numClasses);
+        return leafClass[node];
+    }
+
+    @Override
+    public int numClasses() {
+        return numClasses;
+    }
+
+    public int numFeatures() {
+        return numFeatures;
+    }
+
+    public int numNodes() {
+        return attribute.length;
+    }
+
+    private static Object readField(Class<?> owner, String name, Object target) {
+        try {
+            Field field = owner.getDeclaredField(name);
+            field.setAccessible(true);
+            return field.get(target);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unsupported Weka version: cannot read " + owner.getSimpleName()
+                    + "." + name, e);
+        }
+    }
+
+    /**
+     * Depth-first flattening of a ClassifierTree into growable arrays
+     */
+    private static final class Builder {
+
+        private final int numClasses;
+        private final int numFeatures;
+
+        private int nodes;
+        private int[] attribute = new int[16];
+        private double[] splitPoint = new double[16];
+        private boolean[] nominal = new boolean[16];
+        private int[] firstChild = new int[16];
+        private int[] numChildren = new int[16];
+        private int[] leafClass = new int[16];
+        private int[] leafOffset = new int[16];
+
+        private int childCount;
+        private int[] children = new int[16];
+
+        private int distributionCount;
+        private double[] distributions = new double[64];
+
+        Builder(int numClasses, int numFeatures) {
+            this.numClasses = numClasses;
+            this.numFeatures = numFeatures;
+        }
+
+        int addTree(ClassifierTree tree, Instances header) {
+            ClassifierSplitModel split = tree.getLocalModel();
+            if (tree.isLeaf()) {
+                // ClassifierTree.getProbs: leaf -> localModel.classProb(j, instance, -1)
+                Distribution distribution = split.distribution();
+                return addLeaf(j -> distribution.prob(j));
+            }
+            if (!(split instanceof C45Split)) {
+                throw new IllegalArgumentException("Unsupported split model " + split.getClass().getSimpleName());
+            }
+
+            C45Split c45Split = (C45Split) split;
+            ClassifierTree[] sons = tree.getSons();
+            int node = newNode();
+            attribute[node] = c45Split.attIndex();
+            nominal[node] = header.attribute(c45Split.attIndex()).isNominal();
+            splitPoint[node] = nominal[node] ? Double.NaN : c45Split.splitPoint();
+            numChildren[node] = sons.length;
+            firstChild[node] = reserveChildren(sons.length);
+
+            for (int i = 0; i < sons.length; i++) {
+                int child;
+                if ((Boolean) readField(ClassifierTree.class, "m_isEmpty", sons[i])) {
+                    // ClassifierTree.getProbs: empty son -> parent's classProb(j, instance, subset)
+                    int subset = i;
+                    Distribution distribution = split.distribution();
+                    child = addLeaf(j -> distribution.prob(j, subset));
+                } else {
+                    child = addTree(sons[i], header);
+                }
+                children[firstChild[node] + i] = child;
+            }
+            return node;
+        }
+
+        private int addLeaf(IntToDoubleFunction probability) {
+            int node = newNode();
+            attribute[node] = LEAF;
+            leafOffset[node] = distributionCount;
+            ensureDistributionCapacity(distributionCount + numClasses);
+
+            // ClassifierTree.classifyInstance: first class whose probability is greater by more than SMALL
+            int predicted = 0;
+            double maxProb = -1;
+            for (int j = 0; j < numClasses; j++) {
+                double prob = probability.applyAsDouble(j);
+                distributions[distributionCount + j] = prob;
+                if (prob - maxProb > SMALL) {
+                    predicted = j;
+                    maxProb = prob;
+                }
+            }
+            leafClass[node] = predicted;
+            distributionCount += numClasses;
+            return node;
+        }
+
+        private int newNode() {
+            if (nodes == attribute.length) {
+                int capacity = nodes * 2;
+                attribute = Arrays.copyOf(attribute, capacity);
+                splitPoint = Arrays.copyOf(splitPoint, capacity);
+                nominal = Arrays.copyOf(nominal, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                numChildren = Arrays.copyOf(numChildren, capacity);
+                leafClass = Arrays.copyOf(leafClass, capacity);
+                leafOffset = Arrays.copyOf(leafOffset, capacity);
+            }
+            return nodes++;
+        }
+
+        private int reserveChildren(int count) {
+            if (childCount + count > children.length) {
+                children = Arrays.copyOf(children, Math.max(children.length * 2, childCount + count));
+            }
+            int offset = childCount;
+            childCount += count;
+            return offset;
+        }
+
+        private void ensureDistributionCapacity(int capacity) {
+            if (capacity > distributions.length) {
+                distributions = Arrays.copyOf(distributions, Math.max(distributions.length * 2, capacity));
+            }
+        }
+    }
+}
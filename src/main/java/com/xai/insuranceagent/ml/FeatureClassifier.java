@@ -0,0 +1,17 @@
+package com.xai.insuranceagent.ml;
+
+/**
+ * Read-only classifier over primitive feature vectors laid out in
+ * UnderwritingModelSchema attribute order
+ */
+public interface FeatureClassifier {
+
+    /**
+     * Classify the feature vector starting at {@code offset}, writing the
+     * class distribution into {@code distribution} and returning the
+     * predicted class index
+     */
+    int classify(double[] features, int offset, double[] distribution);
+
+    int numClasses();
+}
@@ -0,0 +1,73 @@
+package com.xai.insuranceagent.ml;
+
+import com.xai.insuranceagent.model.underwriting.CustomerRiskProfile;
+
+import java.util.List;
+
+/**
+ * Row-major matrix of model features backed by a single contiguous double[].
+ *
+ * Row r occupies values[r * columns .. r * columns + columns - 1] in
+ * UnderwritingModelSchema attribute order. Rows whose profile cannot be
+ * encoded (e.g. unsupported insurance type) are flagged invalid.
+ */
+public final class FeatureMatrix {
+
+    private final int rows;
+    private final int columns;
+    private final double[] values;
+    private final boolean[] valid;
+
+    private FeatureMatrix(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.values = new double[Math.multiplyExact(rows, columns)];
+        this.valid = new boolean[rows];
+    }
+
+    /**
+     * Encode the given profiles, one row each, using the same features and
+     * defaults as single-profile scoring
+     */
+    public static FeatureMatrix encode(List<CustomerRiskProfile> riskProfiles) {
+        FeatureMatrix matrix = new FeatureMatrix(riskProfiles.size(), UnderwritingModelSchema.NUM_ATTRIBUTES);
+        double[] row = new double[matrix.columns];
+        for (int r = 0; r < matrix.rows; r++) {
+            CustomerRiskProfile riskProfile = riskProfiles.get(r);
+            if (riskProfile == null) {
+                continue;
+            }
+            try {
+                UnderwritingModelSchema.encode(riskProfile, row);
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            System.arraycopy(row, 0, matrix.values, r * matrix.columns, matrix.columns);
+            matrix.valid[r] = true;
+        }
+        return matrix;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int columns() {
+        return columns;
+    }
+
+    public boolean isValid(int row) {
+        return valid[row];
+    }
+
+    public int offset(int row) {
+        return row * columns;
+    }
+
+    /**
+     * Backing array; read-only by convention
+     */
+    double[] values() {
+        return values;
+    }
+}
@@ -0,0 +1,56 @@
+package com.xai.insuranceagent.ml;
+
+import java.util.Arrays;
+
+/**
+ * Result of scoring a feature matrix: predicted class and confidence per
+ * row, held in primitive arrays. Rows that could not be scored have no
+ * decision and a confidence of 0.
+ */
+public final class ModelScores {
+
+    private static final int NOT_SCORED = -1;
+
+    private final UnderwritingModel model;
+    private final int[] predictions;
+    private final double[] confidences;
+
+    ModelScores(UnderwritingModel model, int rows) {
+        this.model = model;
+        this.predictions = new int[rows];
+        this.confidences = new double[rows];
+        Arrays.fill(predictions, NOT_SCORED);
+    }
+
+    void set(int row, int prediction, double confidence) {
+        predictions[row] = prediction;
+        confidences[row] = confidence;
+    }
+
+    public int size() {
+        return predictions.length;
+    }
+
+    public boolean isScored(int row) {
+        return predictions[row] != NOT_SCORED;
+    }
+
+    /**
+     * Predicted decision (APPROVE, REJECT, REFER) or null if the row was not scored
+     */
+    public String decision(int row) {
+        return isScored(row) ? model.classLabel(predictions[row]) : null;
+    }
+
+    public int prediction(int row) {
+        return predictions[row];
+    }
+
+    public double confidence(int row) {
+        return confidences[row];
+    }
+
+    public String getModelVersion() {
+        return model.getVersion();
+    }
+}
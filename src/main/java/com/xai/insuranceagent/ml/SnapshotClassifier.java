@@ -0,0 +1,75 @@
+package com.xai.insuranceagent.ml;
+
+import weka.classifiers.Classifier;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.Utils;
+
+/**
+ * Adapts a frozen copy of a Weka classifier (e.g. a published snapshot of
+ * the incremental learner) to FeatureClassifier.
+ *
+ * The wrapped classifier must never be updated after construction; Weka's
+ * tree inference only reads model state, so concurrent scoring is safe.
+ * Each scoring thread reuses one Instance whose value array is overwritten
+ * in place, so classify does not allocate beyond Weka's own distribution.
+ */
+public final class SnapshotClassifier implements FeatureClassifier {
+
+    private final Classifier classifier;
+    private final Instances header;
+    private final int numAttributes;
+    private final int classIndex;
+
+    private final ThreadLocal<Scratch> scratch;
+
+    public SnapshotClassifier(Classifier classifier, Instances header) {
+        this.classifier = classifier;
+        this.header = new Instances(header, 0);
+        this.numAttributes = header.numAttributes();
+        this.classIndex = header.classIndex();
+        this.scratch = ThreadLocal.withInitial(this::newScratch);
+    }
+
+    @Override
+    public int classify(double[] features, int offset, double[] distribution) {
+        Scratch buffer = scratch.get();
+        // Write straight into the instance's backing array: DenseInstance.setValue copies it on every call
+        System.arraycopy(features, offset, buffer.values(), 0, numAttributes);
+        buffer.values()[classIndex] = Utils.missingValue();
+
+        double[] probabilities;
+        try {
+            probabilities = classifier.distributionForInstance(buffer.instance());
+        } catch (Exception e) {
+            throw new IllegalStateException("Scoring with " + classifier.getClass().getSimpleName() + " failed", e);
+        }
+
+        // Same tie-breaking as Utils.maxIndex: first class with the highest probability
+        int predicted = 0;
+        for (int c = 0; c < probabilities.length; c++) {
+            distribution[c] = probabilities[c];
+            if (probabilities[c] > probabilities[predicted]) {
+                predicted = c;
+            }
+        }
+        return predicted;
+    }
+
+    @Override
+    public int numClasses() {
+        return header.numClasses();
+    }
+
+    private Scratch newScratch() {
+        double[] values = new double[numAttributes];
+        // This constructor wraps the array without copying it
+        DenseInstance instance = new DenseInstance(1.0, values);
+        instance.setDataset(header);
+        return new Scratch(values, instance);
+    }
+
+    private record Scratch(double[] values, Instance instance) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.xai.insuranceagent.ml;
+
+import java.util.List;
+
+/**
+ * Immutable handle on a loaded underwriting model.
+ *
+ * Thread-safety: all state is final and never mutated after construction
+ * (the classifier is read-only and the caller supplies the scratch
+ * buffers), so a single instance may be used by any number of threads
+ * concurrently without synchronization. Replace the handle to change models.
+ */
+public final class UnderwritingModel {
+
+    private final FeatureClassifier tree;
+    private final String[] classLabels;
+    private final String version;
+
+    public UnderwritingModel(FeatureClassifier tree, List<String> classLabels, String version) {
+        if (tree.numClasses() != classLabels.size()) {
+            throw new IllegalArgumentException("Model has " + tree.numClasses() + " classes but "
+                    + classLabels.size() + " labels were given");
+        }
+        this.tree = tree;
+        this.classLabels = classLabels.toArray(new String[0]);
+        this.version = version;
+    }
+
+    /**
+     * Score one feature vector (see UnderwritingModelSchema.encode); fills
+     * {@code distribution} and returns the predicted class index
+     */
+    public int classify(double[] features, double[] distribution) {
+        return tree.classify(features, 0, distribution);
+    }
+
+    /**
+     * Score the row of a feature matrix starting at {@code offset}
+     */
+    public int classify(double[] matrix, int offset, double[] distribution) {
+        return tree.classify(matrix, offset, distribution);
+    }
+
+    /**
+     * Create an empty result holder for scoring {@code rows} rows with this model
+     */
+    public ModelScores newScores(int rows) {
+        return new ModelScores(this, rows);
+    }
+
+    /**
+     * Score rows [from, to) of a feature matrix into {@code scores}; the
+     * confidence of a row is its highest class probability. Disjoint row
+     * ranges may be scored concurrently into the same ModelScores.
+     */
+    public void score(FeatureMatrix features, int from, int to, ModelScores scores) {
+        double[] distribution = new double[classLabels.length];
+        double[] values = features.values();
+        for (int row = from; row < to; row++) {
+            if (features.isValid(row)) {
+                int prediction = tree.classify(values, features.offset(row), distribution);
+                double confidence = 0.0;
+                for (double probability : distribution) {
+                    if (probability > confidence) {
+                        confidence = probability;
+                    }
+                }
+                scores.set(row, prediction, confidence);
+            }
+        }
+    }
+
+    public String classLabel(int classIndex) {
+        return classLabels[classIndex];
+    }
+
+    public int numClasses() {
+        return classLabels.length;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+}
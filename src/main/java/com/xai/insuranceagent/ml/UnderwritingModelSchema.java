@@ -0,0 +1,119 @@
+package com.xai.insuranceagent.ml;
+
+import com.xai.insuranceagent.model.underwriting.CustomerRiskProfile;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Attribute schema of the underwriting ML model.
+ *
+ * Shared by the offline trainer and MLUnderwritingService so that a model
+ * artifact can be verified against the features the service produces.
+ */
+public final class UnderwritingModelSchema {
+
+    public static final String RELATION = "UnderwritingData";
+    public static final List<String> INSURANCE_TYPES = List.of("auto", "home", "life", "health");
+    public static final List<String> DECISIONS = List.of("APPROVE", "REJECT", "REFER");
+
+    public static final int CREDIT_SCORE = 0;
+    public static final int CLAIMS_COUNT = 1;
+    public static final int AGE = 2;
+    public static final int YEARS_LICENSED = 3;
+    public static final int INSURANCE_TYPE = 4;
+    public static final int DECISION = 5;
+    public static final int NUM_ATTRIBUTES = 6;
+
+    private UnderwritingModelSchema() {
+    }
+
+    /**
+     * Create an empty dataset with the model attributes; the class is "decision"
+     */
+    public static Instances header() {
+        ArrayList<Attribute> attributes = new ArrayList<>(NUM_ATTRIBUTES);
+        attributes.add(new Attribute("creditScore"));
+        attributes.add(new Attribute("claimsCount"));
+        attributes.add(new Attribute("age"));
+        attributes.add(new Attribute("yearsLicensed"));
+        attributes.add(new Attribute("insuranceType", new ArrayList<>(INSURANCE_TYPES)));
+        attributes.add(new Attribute("decision", new ArrayList<>(DECISIONS)));
+
+        Instances header = new Instances(RELATION, attributes, 0);
+        header.setClassIndex(DECISION);
+        return header;
+    }
+
+    /**
+     * Write the model features of a risk profile into {@code features} (header
+     * attribute order, nominal values as indexes), substituting the defaults
+     * the model was trained around for absent values
+     */
+    public static void encode(CustomerRiskProfile riskProfile, double[] features) {
+        int insuranceType = riskProfile.getInsuranceType() != null
+                ? INSURANCE_TYPES.indexOf(riskProfile.getInsuranceType()) : -1;
+        if (insuranceType < 0) {
+            throw new IllegalArgumentException("Insurance type not supported by ML model: "
+                    + riskProfile.getInsuranceType());
+        }
+        features[CREDIT_SCORE] = riskProfile.getCreditScore() != null ? riskProfile.getCreditScore() : 650;
+        features[CLAIMS_COUNT] = riskProfile.getClaimsInLast3Years() != null ? riskProfile.getClaimsInLast3Years() : 0;
+        features[AGE] = riskProfile.getAge() != null ? riskProfile.getAge() : 30;
+        features[YEARS_LICENSED] = riskProfile.getYearsLicensed() != null ? riskProfile.getYearsLicensed() : 5;
+        features[INSURANCE_TYPE] = insuranceType;
+        features[DECISION] = Double.NaN;
+    }
+
+    /**
+     * Throw if the given header does not match the schema, naming the difference
+     */
+    public static void verify(Instances header) {
+        String mismatch = header().equalHeadersMsg(header);
+        if (mismatch != null) {
+            throw new IllegalStateException("Underwriting model schema mismatch: " + mismatch);
+        }
+        if (header.classIndex() != DECISION) {
+            throw new IllegalStateException("Underwriting model schema mismatch: class index is "
+                    + header.classIndex() + ", expected " + DECISION);
+        }
+    }
+
+    /**
+     * Copy a loaded dataset (e.g. from CSV, whose nominal values follow file
+     * order) into the canonical schema, matching attributes by name
+     */
+    public static Instances conform(Instances data) {
+        Instances conformed = header();
+        int[] sourceIndex = new int[NUM_ATTRIBUTES];
+        for (int i = 0; i < NUM_ATTRIBUTES; i++) {
+            Attribute attribute = data.attribute(conformed.attribute(i).name());
+            if (attribute == null) {
+                throw new IllegalArgumentException("Training data is missing attribute '"
+                        + conformed.attribute(i).name() + "'");
+            }
+            sourceIndex[i] = attribute.index();
+        }
+
+        for (Instance row : data) {
+            Instance instance = new DenseInstance(NUM_ATTRIBUTES);
+            instance.setDataset(conformed);
+            for (int i = 0; i < NUM_ATTRIBUTES; i++) {
+                Attribute source = data.attribute(sourceIndex[i]);
+                if (row.isMissing(source)) {
+                    instance.setMissing(i);
+                } else if (conformed.attribute(i).isNominal()) {
+                    instance.setValue(i, row.stringValue(source));
+                } else {
+                    instance.setValue(i, row.value(source));
+                }
+            }
+            conformed.add(instance);
+        }
+        return conformed;
+    }
+}
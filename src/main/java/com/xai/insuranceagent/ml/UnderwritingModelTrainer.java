@@ -0,0 +1,72 @@
+package com.xai.insuranceagent.ml;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import weka.classifiers.trees.J48;
+import weka.core.Instances;
+import weka.core.SerializationHelper;
+import weka.core.converters.ConverterUtils.DataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Offline trainer for the underwriting J48 model.
+ *
+ * Reads an ARFF or CSV training file, trains the decision tree and writes
+ * the classifier together with its header (Weka SerializationHelper.writeAll)
+ * so that MLUnderwritingService only has to deserialize it at startup.
+ * Also run during {@code mvn package} to build the bundled default model.
+ *
+ * Usage: UnderwritingModelTrainer trainingFile outputModelFile
+ */
+public final class UnderwritingModelTrainer {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnderwritingModelTrainer.class);
+
+    public static final String[] J48_OPTIONS = {"-C", "0.25", "-M", "2"};
+
+    private UnderwritingModelTrainer() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: UnderwritingModelTrainer <training.arff|training.csv> <output.model>");
+        }
+        Path trainingFile = Paths.get(args[0]);
+        Path modelFile = Paths.get(args[1]);
+
+        long start = System.nanoTime();
+        Instances trainingData = load(trainingFile);
+        J48 decisionTree = train(trainingData);
+
+        if (modelFile.getParent() != null) {
+            Files.createDirectories(modelFile.getParent());
+        }
+        SerializationHelper.writeAll(modelFile.toString(),
+                new Object[]{decisionTree, new Instances(trainingData, 0)});
+
+        logger.info("Trained underwriting model on {} instances from {}; written to {} ({} bytes) in {} ms",
+                trainingData.numInstances(), trainingFile, modelFile, Files.size(modelFile),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Load an ARFF or CSV file (chosen by extension) into the model schema
+     */
+    public static Instances load(Path trainingFile) throws Exception {
+        Instances raw = new DataSource(trainingFile.toString()).getDataSet();
+        return UnderwritingModelSchema.conform(raw);
+    }
+
+    /**
+     * Train the decision tree on data in the model schema
+     */
+    public static J48 train(Instances trainingData) throws Exception {
+        J48 decisionTree = new J48();
+        decisionTree.setOptions(J48_OPTIONS.clone());
+        decisionTree.buildClassifier(trainingData);
+        return decisionTree;
+    }
+}
@@ -0,0 +1,86 @@
+package com.xai.insuranceagent.model.quote;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Multi-product quote request: one applicant, several insurance types.
+ * Product-specific fields are only read by the products that use them.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BundleQuoteRequest implements Serializable {
+
+    @NotEmpty(message = "At least one insurance type is required")
+    @Size(max = 4, message = "A bundle can contain at most 4 insurance types")
+    private List<@Pattern(regexp = "auto|home|life|health",
+            message = "Insurance type must be one of: auto, home, life, health") String> insuranceTypes;
+
+    @NotNull(message = "Customer age is required")
+    @Min(value = 18, message = "Age must be at least 18")
+    @Max(value = 100, message = "Age must be at most 100")
+    private Integer age;
+
+    @Pattern(regexp = "male|female|other", message = "Gender must be one of: male, female, other")
+    private String gender;
+
+    @NotBlank(message = "Address is required")
+    private String address;
+
+    // Auto insurance specific fields
+    private String vehicleModel;
+    private Integer vehicleYear;
+    private String vehicleMake;
+
+    // Health insurance specific fields
+    private Boolean smoker;
+    private String medicalHistory;
+
+    // Home insurance specific fields
+    private String propertyType;
+    private Double propertyValue;
+
+    // Life insurance specific fields
+    private String occupation;
+
+    // Additional fields
+    private String name;
+    private String email;
+    private String phone;
+
+    // City flag for location-based pricing
+    @Builder.Default
+    private Boolean isUrbanArea = false;
+
+    /**
+     * The single-product request for one insurance type of the bundle
+     */
+    public QuoteRequest forProduct(String insuranceType) {
+        return QuoteRequest.builder()
+                .age(age)
+                .gender(gender)
+                .address(address)
+                .insuranceType(insuranceType)
+                .vehicleModel(vehicleModel)
+                .vehicleYear(vehicleYear)
+                .vehicleMake(vehicleMake)
+                .smoker(smoker)
+                .medicalHistory(medicalHistory)
+                .propertyType(propertyType)
+                .propertyValue(propertyValue)
+                .occupation(occupation)
+                .name(name)
+                .email(email)
+                .phone(phone)
+                .isUrbanArea(isUrbanArea)
+                .build();
+    }
+}
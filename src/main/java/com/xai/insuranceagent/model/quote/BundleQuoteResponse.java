@@ -0,0 +1,51 @@
+package com.xai.insuranceagent.model.quote;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Combined quote for a multi-product bundle. Each product quote carries its
+ * own premium and breakdown; the multi-policy discount applies to their sum.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BundleQuoteResponse implements Serializable {
+
+    private String bundleId;
+
+    /**
+     * Per-product quotes, in request order
+     */
+    private List<QuoteResponse> quotes;
+
+    /**
+     * Sum of the product premiums before the bundle discount
+     */
+    private Double subtotalPremium;
+
+    /**
+     * Multi-policy discount as a fraction of the subtotal (0.10 = 10%)
+     */
+    private Double discountRate;
+
+    private Double discountAmount;
+
+    private Double totalPremium;
+
+    private String currency;
+
+    private String ratingPlanVersion;
+
+    @Builder.Default
+    private LocalDateTime quotedAt = LocalDateTime.now();
+}
@@ -0,0 +1,34 @@
+package com.xai.insuranceagent.model.quote;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Inline error record for a row of an NDJSON quote batch that could not be
+ * priced; written in place of the QuoteResponse for that row
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class QuoteBatchError {
+
+    /**
+     * 1-based line number of the request in the batch body
+     */
+    private long line;
+
+    private int status;
+
+    private String error;
+
+    private String message;
+
+    private List<String> details;
+}
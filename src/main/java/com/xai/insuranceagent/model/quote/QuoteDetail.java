@@ -0,0 +1,68 @@
+package com.xai.insuranceagent.model.quote;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Optional, explanatory parts of a QuoteResponse. Clients choose them with
+ * the {@code fields} request parameter; the numeric core (premium,
+ * deductible, coverage, policy term and identifiers) is always returned.
+ */
+public enum QuoteDetail {
+
+    /** Per-factor premium breakdown amounts */
+    BREAKDOWN("breakdown"),
+    /** Human-readable breakdown.calculationNotes (implies BREAKDOWN) */
+    NOTES("notes"),
+    /** Coverage description text */
+    COVERAGE_DETAILS("coverageDetails"),
+    /** Quote expiry date */
+    VALID_UNTIL("validUntil");
+
+    public static final Set<QuoteDetail> ALL = Collections.unmodifiableSet(EnumSet.allOf(QuoteDetail.class));
+    public static final Set<QuoteDetail> LEAN = Collections.unmodifiableSet(EnumSet.noneOf(QuoteDetail.class));
+
+    private final String field;
+
+    QuoteDetail(String field) {
+        this.field = field;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    /**
+     * Parse a {@code fields} parameter: absent or "all" for the full
+     * response, "lean" for the numeric core only, or a comma-separated list
+     * of field names (e.g. "breakdown,validUntil")
+     */
+    public static Set<QuoteDetail> parse(String fields) {
+        if (fields == null || fields.isBlank() || fields.trim().equalsIgnoreCase("all")) {
+            return ALL;
+        }
+        if (fields.trim().equalsIgnoreCase("lean")) {
+            return LEAN;
+        }
+
+        EnumSet<QuoteDetail> details = EnumSet.noneOf(QuoteDetail.class);
+        for (String name : fields.split(",")) {
+            details.add(fromField(name.trim()));
+        }
+        if (details.contains(NOTES)) {
+            details.add(BREAKDOWN);
+        }
+        return details;
+    }
+
+    private static QuoteDetail fromField(String name) {
+        for (QuoteDetail detail : values()) {
+            if (detail.field.equalsIgnoreCase(name)) {
+                return detail;
+            }
+        }
+        throw new IllegalArgumentException("Unknown quote field '" + name
+                + "'; expected all, lean or any of breakdown, notes, coverageDetails, validUntil");
+    }
+}
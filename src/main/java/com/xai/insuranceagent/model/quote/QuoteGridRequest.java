@@ -0,0 +1,50 @@
+package com.xai.insuranceagent.model.quote;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * What-if pricing request: a base quote request plus the rating inputs to
+ * vary. Every combination of dimension values is priced.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteGridRequest implements Serializable {
+
+    @NotNull(message = "Base quote request is required")
+    @Valid
+    private QuoteRequest base;
+
+    @NotEmpty(message = "At least one dimension is required")
+    private List<@Valid Dimension> dimensions;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Dimension implements Serializable {
+
+        /**
+         * QuoteRequest field to vary
+         */
+        @NotBlank(message = "Dimension field is required")
+        @Pattern(regexp = "age|gender|isUrbanArea|vehicleModel|occupation|smoker|propertyValue",
+                message = "Dimension field must be one of: age, gender, isUrbanArea, vehicleModel, occupation, smoker, propertyValue")
+        private String field;
+
+        @NotEmpty(message = "Dimension values are required")
+        private List<String> values;
+    }
+}
@@ -0,0 +1,44 @@
+package com.xai.insuranceagent.model.quote;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Premium sensitivity grid. {@code premiums} and {@code deductibles} hold
+ * one entry per combination of dimension values in row-major order: the
+ * last dimension varies fastest.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class QuoteGridResponse implements Serializable {
+
+    private String insuranceType;
+
+    private String currency;
+
+    private String ratingPlanVersion;
+
+    private Double basePremium;
+
+    /**
+     * The dimensions as requested, defining the grid axes
+     */
+    private List<QuoteGridRequest.Dimension> dimensions;
+
+    private double[] premiums;
+
+    private int[] deductibles;
+
+    @Builder.Default
+    private LocalDateTime quotedAt = LocalDateTime.now();
+}
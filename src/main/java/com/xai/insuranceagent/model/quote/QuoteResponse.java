@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
  * Quote response model containing premium and coverage details
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -55,6 +55,7 @@ public class QuoteResponse implements Serializable {
         private Double riskFactor;
         private Double totalAdjustment;
         private String calculationNotes;
+        private String ratingPlanVersion;
     }
 }
 
@@ -0,0 +1,35 @@
+package com.xai.insuranceagent.model.underwriting;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Final outcome of a manual underwriting review (for REFER decisions)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewOutcome implements Serializable {
+
+    private String decisionId; // Referred decision being resolved
+
+    @NotNull(message = "Risk profile is required")
+    @Valid
+    private CustomerRiskProfile riskProfile;
+
+    @NotNull(message = "Decision is required")
+    @Pattern(regexp = "APPROVE|REJECT", message = "Decision must be APPROVE or REJECT")
+    private String decision;
+
+    private String reviewer;
+
+    private String notes;
+}
@@ -0,0 +1,36 @@
+package com.xai.insuranceagent.model.underwriting;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Firing and latency statistics for a single underwriting rule
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RuleStatistics {
+
+    private String ruleName;
+
+    private Long matches; // Activations created
+
+    private Long cancellations; // Activations cancelled before firing
+
+    private Long fires;
+
+    private Double totalActionTimeMs;
+
+    private Double meanActionTimeMs;
+
+    private Double p50ActionTimeMs;
+
+    private Double p95ActionTimeMs;
+
+    private Double p99ActionTimeMs;
+
+    private Double maxActionTimeMs;
+}
@@ -14,7 +14,7 @@ import java.util.List;
  * Underwriting decision result
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -68,5 +68,7 @@ public class UnderwritingDecision implements Serializable {
     private String decisionMethod; // RULES_ENGINE, MACHINE_LEARNING, HYBRID
 
     private Double confidenceScore; // 0.0-1.0
+
+    private String rulesetVersion; // Ruleset the decision was made under
 }
 
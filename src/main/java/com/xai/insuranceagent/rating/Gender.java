@@ -0,0 +1,40 @@
+package com.xai.insuranceagent.rating;
+
+/**
+ * Gender as used for rating; UNSPECIFIED when the request has none
+ */
+public enum Gender {
+    MALE("male"),
+    FEMALE("female"),
+    OTHER("other"),
+    UNSPECIFIED("");
+
+    private final String code;
+
+    Gender(String code) {
+        this.code = code;
+    }
+
+    /**
+     * Case-insensitive lookup; null or unknown values are UNSPECIFIED
+     */
+    public static Gender fromCode(String code) {
+        if (code == null) {
+            return UNSPECIFIED;
+        }
+        if (MALE.code.equalsIgnoreCase(code)) {
+            return MALE;
+        }
+        if (FEMALE.code.equalsIgnoreCase(code)) {
+            return FEMALE;
+        }
+        if (OTHER.code.equalsIgnoreCase(code)) {
+            return OTHER;
+        }
+        return UNSPECIFIED;
+    }
+
+    public String getCode() {
+        return code;
+    }
+}
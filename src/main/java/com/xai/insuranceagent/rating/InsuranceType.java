@@ -0,0 +1,52 @@
+package com.xai.insuranceagent.rating;
+
+/**
+ * Insurance product lines known to the rating plan; OTHER covers any
+ * unrecognised type (priced with the plan defaults)
+ */
+public enum InsuranceType {
+    AUTO("auto", "AUT", "comprehensive"),
+    HOME("home", "HOM", "full-coverage"),
+    LIFE("life", "LIF", "term-life"),
+    HEALTH("health", "HLT", "comprehensive"),
+    OTHER("other", "INS", "standard");
+
+    private static final InsuranceType[] VALUES = values();
+
+    private final String code;
+    private final String quotePrefix;
+    private final String coverage;
+
+    InsuranceType(String code, String quotePrefix, String coverage) {
+        this.code = code;
+        this.quotePrefix = quotePrefix;
+        this.coverage = coverage;
+    }
+
+    /**
+     * Case-insensitive lookup by request code (auto, home, life, health)
+     */
+    public static InsuranceType fromCode(String code) {
+        if (code == null) {
+            throw new IllegalArgumentException("Insurance type is required");
+        }
+        for (InsuranceType type : VALUES) {
+            if (type != OTHER && type.code.equalsIgnoreCase(code)) {
+                return type;
+            }
+        }
+        return OTHER;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getQuotePrefix() {
+        return quotePrefix;
+    }
+
+    public String getCoverage() {
+        return coverage;
+    }
+}
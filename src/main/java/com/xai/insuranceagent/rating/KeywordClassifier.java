@@ -0,0 +1,271 @@
+package com.xai.insuranceagent.rating;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Case-insensitive multi-keyword classifier (Aho-Corasick).
+ *
+ * All keyword dictionaries are compiled into one deterministic automaton, so
+ * classifying a string is a single pass over its characters with no lowercase
+ * copy. The result is a bitmask of every keyword class that occurs in the
+ * text; callers test it against masks obtained from {@link #mask(String...)}
+ * and apply their own priority between classes. At most 64 classes are
+ * supported. Instances are immutable and safe to share between threads.
+ */
+public final class KeywordClassifier {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
+
+    /** Keyword classes shipped in rating/keywords.json */
+    public static final String HIGH_PERFORMANCE = "HIGH_PERFORMANCE";
+    public static final String ELECTRIC = "ELECTRIC";
+    public static final String LUXURY = "LUXURY";
+    public static final String LARGE = "LARGE";
+    public static final String HIGH_RISK_OCCUPATION = "HIGH_RISK_OCCUPATION";
+    public static final String MAJOR_CITY = "MAJOR_CITY";
+    public static final String URBAN_AREA = "URBAN_AREA";
+
+    private static final int ASCII = 128;
+
+    private final String version;
+    private final List<String> classNames;
+    private final Map<String, Integer> classIndex;
+
+    // Input alphabet: ASCII chars via a direct table, others via binary search
+    // (symbol 0 = any character that appears in no keyword)
+    private final int[] asciiSymbol;
+    private final char[] otherChars;
+    private final int[] otherSymbol;
+    private final int alphabetSize;
+
+    // DFA over the alphabet: next state is transitions[state * alphabetSize + symbol]
+    private final int[] transitions;
+    private final long[] output;
+
+    private KeywordClassifier(String version, Map<String, List<String>> classes) {
+        if (classes.size() > Long.SIZE) {
+            throw new IllegalArgumentException("At most " + Long.SIZE + " keyword classes are supported");
+        }
+        this.version = version;
+        this.classNames = List.copyOf(classes.keySet());
+        this.classIndex = new HashMap<>();
+        for (int i = 0; i < classNames.size(); i++) {
+            classIndex.put(classNames.get(i), i);
+        }
+
+        // Alphabet of folded keyword characters
+        this.asciiSymbol = new int[ASCII];
+        Map<Character, Integer> symbols = new HashMap<>();
+        for (List<String> keywords : classes.values()) {
+            for (String keyword : keywords) {
+                if (keyword == null || keyword.isEmpty()) {
+                    throw new IllegalArgumentException("Keywords must not be empty");
+                }
+                for (int i = 0; i < keyword.length(); i++) {
+                    symbols.computeIfAbsent(fold(keyword.charAt(i)), c -> symbols.size() + 1);
+                }
+            }
+        }
+        this.alphabetSize = symbols.size() + 1;
+        List<Character> others = new ArrayList<>();
+        for (Map.Entry<Character, Integer> symbol : symbols.entrySet()) {
+            if (symbol.getKey() < ASCII) {
+                asciiSymbol[symbol.getKey()] = symbol.getValue();
+            } else {
+                others.add(symbol.getKey());
+            }
+        }
+        others.sort(null);
+        this.otherChars = new char[others.size()];
+        this.otherSymbol = new int[others.size()];
+        for (int i = 0; i < others.size(); i++) {
+            otherChars[i] = others.get(i);
+            otherSymbol[i] = symbols.get(others.get(i));
+        }
+
+        // Trie (goto function); -1 = no edge
+        int capacity = 1 + classes.values().stream().flatMap(List::stream).mapToInt(String::length).sum();
+        int[] trie = new int[capacity * alphabetSize];
+        Arrays.fill(trie, -1);
+        long[] out = new long[capacity];
+        int states = 1;
+        int bit = 0;
+        for (List<String> keywords : classes.values()) {
+            for (String keyword : keywords) {
+                int state = 0;
+                for (int i = 0; i < keyword.length(); i++) {
+                    int edge = state * alphabetSize + symbol(fold(keyword.charAt(i)));
+                    if (trie[edge] == -1) {
+                        trie[edge] = states++;
+                    }
+                    state = trie[edge];
+                }
+                out[state] |= 1L << bit;
+            }
+            bit++;
+        }
+
+        // Breadth-first failure links, folded into a complete transition table
+        int[] fail = new int[states];
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        for (int symbol = 0; symbol < alphabetSize; symbol++) {
+            int next = trie[symbol];
+            if (next == -1) {
+                trie[symbol] = 0;
+            } else {
+                fail[next] = 0;
+                queue[tail++] = next;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            out[state] |= out[fail[state]];
+            for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                int edge = state * alphabetSize + symbol;
+                int next = trie[edge];
+                if (next == -1) {
+                    trie[edge] = trie[fail[state] * alphabetSize + symbol];
+                } else {
+                    fail[next] = trie[fail[state] * alphabetSize + symbol];
+                    queue[tail++] = next;
+                }
+            }
+        }
+
+        this.transitions = Arrays.copyOf(trie, states * alphabetSize);
+        this.output = Arrays.copyOf(out, states);
+    }
+
+    /**
+     * Compile keyword classes; iteration order of {@code classes} defines the
+     * class bits
+     */
+    public static KeywordClassifier compile(String version, Map<String, List<String>> classes) {
+        return new KeywordClassifier(version, classes);
+    }
+
+    /**
+     * Read and compile a JSON keyword dictionary file (see rating/keywords.json)
+     */
+    public static KeywordClassifier load(Resource resource) throws IOException {
+        Definition definition;
+        try (InputStream in = resource.getInputStream()) {
+            definition = MAPPER.readValue(in, Definition.class);
+        }
+        Map<String, List<String>> classes = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, List<String>>> dictionary : definition.getDictionaries().entrySet()) {
+            for (Map.Entry<String, List<String>> keywordClass : dictionary.getValue().entrySet()) {
+                if (classes.put(keywordClass.getKey(), keywordClass.getValue()) != null) {
+                    throw new IllegalArgumentException("Keyword class " + keywordClass.getKey()
+                            + " is defined more than once");
+                }
+            }
+        }
+        return compile(definition.getVersion(), classes);
+    }
+
+    /**
+     * Bitmask of every keyword class occurring in {@code text} (0 for null)
+     */
+    public long classify(CharSequence text) {
+        if (text == null) {
+            return 0L;
+        }
+        long classes = 0L;
+        int state = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = transitions[state * alphabetSize + symbol(fold(text.charAt(i)))];
+            classes |= output[state];
+        }
+        return classes;
+    }
+
+    /**
+     * Bitmask for the named classes
+     */
+    public long mask(String... names) {
+        long mask = 0L;
+        for (String name : names) {
+            Integer index = classIndex.get(name);
+            if (index == null) {
+                throw new IllegalArgumentException("Unknown keyword class " + name);
+            }
+            mask |= 1L << index;
+        }
+        return mask;
+    }
+
+    /**
+     * Whether a classify() result contains any of the classes in {@code mask}
+     */
+    public static boolean matches(long classes, long mask) {
+        return (classes & mask) != 0L;
+    }
+
+    /**
+     * Whether the text mentions a major city or an urban keyword
+     */
+    public boolean isUrban(CharSequence address) {
+        return matches(classify(address), mask(MAJOR_CITY, URBAN_AREA));
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public List<String> getClassNames() {
+        return classNames;
+    }
+
+    public int numStates() {
+        return output.length;
+    }
+
+    private int symbol(char c) {
+        if (c < ASCII) {
+            return asciiSymbol[c];
+        }
+        int index = Arrays.binarySearch(otherChars, c);
+        return index >= 0 ? otherSymbol[index] : 0;
+    }
+
+    private static char fold(char c) {
+        return c < ASCII
+                ? (c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c)
+                : Character.toLowerCase(c);
+    }
+
+    @Override
+    public String toString() {
+        return "KeywordClassifier[" + version + ", " + classNames.size() + " classes, "
+                + numStates() + " states]";
+    }
+
+    @Data
+    @NoArgsConstructor
+    static class Definition {
+        private String version;
+        private String description;
+
+        /**
+         * Dictionary name (vehicle, occupation, location) to class name to keywords
+         */
+        private Map<String, Map<String, List<String>>> dictionaries = new LinkedHashMap<>();
+    }
+}
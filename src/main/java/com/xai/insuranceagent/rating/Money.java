@@ -0,0 +1,124 @@
+package com.xai.insuranceagent.rating;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money arithmetic.
+ *
+ * Amounts are {@code long} minor units (cents) and rates are {@code long}
+ * parts per million (0.20 = 200000, a 1.15 multiplier = 1150000), so every
+ * premium calculation is exact integer arithmetic with a single, explicit
+ * rounding step back to cents. Doubles only appear at the edges: when
+ * configured or external amounts come in, and when API models are filled.
+ */
+public final class Money {
+
+    /** Rounding used for premium amounts unless a caller needs another mode */
+    public static final RoundingMode DEFAULT_ROUNDING = RoundingMode.HALF_UP;
+
+    public static final long CENTS_PER_UNIT = 100;
+    public static final long PPM = 1_000_000;
+
+    private Money() {
+    }
+
+    /**
+     * Cents for a decimal amount, e.g. 1234.565 -> 123457 (HALF_UP). The
+     * shortest decimal representation of the double is used, so 0.1 is
+     * treated as exactly one tenth.
+     */
+    public static long toCents(double amount) {
+        return toCents(amount, DEFAULT_ROUNDING);
+    }
+
+    public static long toCents(double amount, RoundingMode rounding) {
+        return BigDecimal.valueOf(amount).setScale(2, rounding).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Rate in parts per million for a decimal fraction, e.g. -0.05 -> -50000
+     */
+    public static long toPpm(double rate) {
+        return BigDecimal.valueOf(rate).movePointRight(6).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /**
+     * The double closest to {@code cents / 100}, for API models
+     */
+    public static double toDouble(long cents) {
+        return cents / (double) CENTS_PER_UNIT;
+    }
+
+    /**
+     * The double closest to {@code ppm / 1e6}
+     */
+    public static double ppmToDouble(long ppm) {
+        return ppm / (double) PPM;
+    }
+
+    /**
+     * {@code cents * ppm / 1e6} rounded to cents
+     */
+    public static long multiply(long cents, long ppm, RoundingMode rounding) {
+        return divide(product(cents, ppm), PPM, rounding);
+    }
+
+    public static long multiply(long cents, long ppm) {
+        return multiply(cents, ppm, DEFAULT_ROUNDING);
+    }
+
+    /**
+     * Exact {@code cents * ppm}, in units of 1e-6 cents; callers sum several
+     * of these and round once with {@link #micros(long, RoundingMode)}
+     */
+    public static long product(long cents, long ppm) {
+        return Math.multiplyExact(cents, ppm);
+    }
+
+    /**
+     * Round an amount in 1e-6 cents (see {@link #product}) to cents
+     */
+    public static long micros(long microCents, RoundingMode rounding) {
+        return divide(microCents, PPM, rounding);
+    }
+
+    /**
+     * {@code numerator / divisor} rounded with {@code rounding}, for a positive divisor
+     */
+    static long divide(long numerator, long divisor, RoundingMode rounding) {
+        long quotient = numerator / divisor;
+        long remainder = numerator % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+
+        int sign = numerator < 0 ? -1 : 1;
+        int half = Long.compare(Math.abs(remainder) * 2, divisor);  // Remainder vs half the divisor
+        boolean awayFromZero = switch (rounding) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> sign > 0;
+            case FLOOR -> sign < 0;
+            case HALF_UP -> half >= 0;
+            case HALF_DOWN -> half > 0;
+            case HALF_EVEN -> half > 0 || (half == 0 && (quotient & 1) != 0);
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary for " + numerator + "/" + divisor);
+        };
+        return awayFromZero ? quotient + sign : quotient;
+    }
+
+    /**
+     * Plain decimal rendering of cents, e.g. 150000 -> "1500.00"
+     */
+    public static String format(long cents) {
+        return BigDecimal.valueOf(cents, 2).toPlainString();
+    }
+
+    /**
+     * Sum of two amounts, failing rather than wrapping on overflow
+     */
+    public static long add(long cents, long otherCents) {
+        return Math.addExact(cents, otherCents);
+    }
+}
@@ -0,0 +1,173 @@
+package com.xai.insuranceagent.rating;
+
+import com.xai.insuranceagent.model.quote.QuoteResponse;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Premiums precomputed for every discrete rating cell of a plan:
+ * insurance type x age band x gender x urban flag x product risk class.
+ *
+ * Within a rating plan version (and set of base rates) the premium of a cell
+ * never changes, so the breakdown, total premium and deductible of each cell
+ * are computed once when the plan is loaded and stored in a single flat
+ * array of cents. Instances are immutable and safe to share between threads.
+ */
+public final class QuoteLattice {
+
+    /**
+     * Computes the premium breakdown of one cell; the same code path the
+     * quoting service uses for a full calculation
+     */
+    @FunctionalInterface
+    public interface CellPricer {
+        QuoteResponse.PremiumBreakdown price(InsuranceType type, int ageBand, Gender gender,
+                                             boolean urban, int riskClass, long basePremiumCents);
+    }
+
+    private static final int TYPES = InsuranceType.values().length;
+    private static final int GENDERS = Gender.values().length;
+    private static final InsuranceType[] TYPE_VALUES = InsuranceType.values();
+    private static final Gender[] GENDER_VALUES = Gender.values();
+
+    // Per-cell slots in the values array
+    private static final int BASE = 0;
+    private static final int AGE = 1;
+    private static final int GENDER = 2;
+    private static final int LOCATION = 3;
+    private static final int RISK = 4;
+    private static final int TOTAL_ADJUSTMENT = 5;
+    private static final int TOTAL_PREMIUM = 6;
+    private static final int DEDUCTIBLE = 7;
+    private static final int SLOTS = 8;
+
+    private final RatingPlan plan;
+    private final int ageBands;
+    private final int riskClasses;
+    private final long[] values;
+    private final String[] notes;
+    private final int populatedCells;
+    private final long footprintBytes;
+
+    private QuoteLattice(RatingPlan plan, long[] basePremiumCents, CellPricer pricer) {
+        this.plan = plan;
+        this.ageBands = plan.numAgeBands();
+        int maxRiskClasses = 0;
+        for (InsuranceType type : TYPE_VALUES) {
+            maxRiskClasses = Math.max(maxRiskClasses, plan.numRiskClasses(type));
+        }
+        this.riskClasses = maxRiskClasses;
+
+        int cells = TYPES * ageBands * GENDERS * 2 * riskClasses;
+        this.values = new long[cells * SLOTS];
+        this.notes = new String[cells];
+
+        // Cells share a small set of distinct notes; keep one copy of each
+        Map<String, String> distinctNotes = new HashMap<>();
+        int populated = 0;
+        for (InsuranceType type : TYPE_VALUES) {
+            long base = basePremiumCents[type.ordinal()];
+            for (int band = 0; band < ageBands; band++) {
+                for (Gender gender : GENDER_VALUES) {
+                    for (int urban = 0; urban < 2; urban++) {
+                        for (int riskClass = 0; riskClass < plan.numRiskClasses(type); riskClass++) {
+                            QuoteResponse.PremiumBreakdown breakdown =
+                                    pricer.price(type, band, gender, urban == 1, riskClass, base);
+                            long totalAdjustment = Money.toCents(breakdown.getTotalAdjustment());
+                            long totalPremium = Money.add(base, totalAdjustment);
+
+                            int cell = cell(type, band, gender, urban == 1, riskClass);
+                            int offset = cell * SLOTS;
+                            values[offset + BASE] = base;
+                            values[offset + AGE] = Money.toCents(breakdown.getAgeFactor());
+                            values[offset + GENDER] = Money.toCents(breakdown.getGenderFactor());
+                            values[offset + LOCATION] = Money.toCents(breakdown.getLocationFactor());
+                            values[offset + RISK] = Money.toCents(breakdown.getRiskFactor());
+                            values[offset + TOTAL_ADJUSTMENT] = totalAdjustment;
+                            values[offset + TOTAL_PREMIUM] = totalPremium;
+                            values[offset + DEDUCTIBLE] = plan.deductibleForCents(type, totalPremium);
+                            notes[cell] = distinctNotes.computeIfAbsent(breakdown.getCalculationNotes(), n -> n);
+                            populated++;
+                        }
+                    }
+                }
+            }
+        }
+        this.populatedCells = populated;
+
+        long bytes = 16L + 8L * values.length + 16L + 4L * notes.length;
+        for (String note : distinctNotes.values()) {
+            bytes += 24L + 16L + note.length();
+        }
+        this.footprintBytes = bytes;
+    }
+
+    /**
+     * Precompute every cell of {@code plan}; {@code basePremiumCents} is
+     * indexed by InsuranceType ordinal
+     */
+    public static QuoteLattice build(RatingPlan plan, long[] basePremiumCents, CellPricer pricer) {
+        return new QuoteLattice(plan, basePremiumCents, pricer);
+    }
+
+    public RatingPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * Index of the cell for the given rating coordinates
+     */
+    public int cell(InsuranceType type, int ageBand, Gender gender, boolean urban, int riskClass) {
+        return (((type.ordinal() * ageBands + ageBand) * GENDERS + gender.ordinal()) * 2 + (urban ? 1 : 0))
+                * riskClasses + riskClass;
+    }
+
+    /**
+     * A new PremiumBreakdown for the cell (callers may modify it)
+     */
+    public QuoteResponse.PremiumBreakdown breakdown(int cell) {
+        return breakdown(cell, true);
+    }
+
+    /**
+     * A new PremiumBreakdown for the cell, without calculationNotes unless
+     * {@code withNotes}
+     */
+    public QuoteResponse.PremiumBreakdown breakdown(int cell, boolean withNotes) {
+        int offset = cell * SLOTS;
+        return QuoteResponse.PremiumBreakdown.builder()
+                .basePremium(Money.toDouble(values[offset + BASE]))
+                .ageFactor(Money.toDouble(values[offset + AGE]))
+                .genderFactor(Money.toDouble(values[offset + GENDER]))
+                .locationFactor(Money.toDouble(values[offset + LOCATION]))
+                .riskFactor(Money.toDouble(values[offset + RISK]))
+                .totalAdjustment(Money.toDouble(values[offset + TOTAL_ADJUSTMENT]))
+                .calculationNotes(withNotes ? notes[cell] : null)
+                .ratingPlanVersion(plan.getVersion())
+                .build();
+    }
+
+    public long totalPremiumCents(int cell) {
+        return values[cell * SLOTS + TOTAL_PREMIUM];
+    }
+
+    public int deductible(int cell) {
+        return (int) values[cell * SLOTS + DEDUCTIBLE];
+    }
+
+    /**
+     * Cells holding a premium (types with fewer risk classes leave gaps)
+     */
+    public int getPopulatedCells() {
+        return populatedCells;
+    }
+
+    /**
+     * Approximate heap footprint in bytes: the value and notes arrays plus
+     * each distinct notes string
+     */
+    public long getFootprintBytes() {
+        return footprintBytes;
+    }
+}
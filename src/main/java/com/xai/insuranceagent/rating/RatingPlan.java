@@ -0,0 +1,335 @@
+package com.xai.insuranceagent.rating;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xai.insuranceagent.model.quote.QuoteRequest;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A rating plan compiled into immutable lookup tables.
+ *
+ * Factors are fractions of the base premium, held as parts-per-million
+ * rates and deductible thresholds as cents (see {@link Money}). Age is resolved to a band
+ * through a table indexed directly by (clamped) age, gender and product
+ * factors are indexed by enum ordinal, and each product's risk driver maps a
+ * request to a small risk class index (0 = no surcharge). Keyword-driven
+ * classes (vehicle model, occupation, address) are resolved through a shared
+ * {@link KeywordClassifier}. Instances are
+ * immutable and safe to share between threads; a new plan version is a new
+ * instance.
+ */
+public final class RatingPlan {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
+
+    private static final int TYPES = InsuranceType.values().length;
+    private static final int GENDERS = Gender.values().length;
+
+    private final String version;
+    private final long defaultBasePremiumCents;
+
+    private final int maxAge;
+    private final byte[] ageBandByAge;
+    private final long[] ageBandRate;
+    private final String[] ageBandNames;
+
+    // [type.ordinal * GENDERS + gender.ordinal]
+    private final long[] genderRate;
+
+    private final KeywordClassifier keywordClassifier;
+    private final long urbanRate;
+    private final long addressMask;
+
+    // Per type: risk driver, property threshold and class tables (class 0 = none)
+    private final RiskDriver[] riskDriver;
+    private final double[] propertyValueThreshold;
+    private final long[][] riskClassRate;
+    private final String[][] riskClassNames;
+    private final long[][] riskClassMask;
+
+    // Per type: premium > threshold ? above : atOrBelow
+    private final long[] deductibleThresholdCents;
+    private final int[] deductibleAbove;
+    private final int[] deductibleAtOrBelow;
+
+    // Multi-policy discount rate indexed by number of products in the bundle
+    private final long[] bundleDiscountRate;
+
+    private RatingPlan(RatingPlanDefinition definition, KeywordClassifier keywordClassifier) {
+        if (definition.getVersion() == null || definition.getVersion().isBlank()) {
+            throw new IllegalArgumentException("Rating plan version is required");
+        }
+        this.version = definition.getVersion();
+        this.defaultBasePremiumCents = Money.toCents(definition.getDefaultBasePremium());
+
+        this.maxAge = definition.getMaxAge();
+        List<RatingPlanDefinition.AgeBand> bands = definition.getAgeBands();
+        if (maxAge < 0 || bands.isEmpty() || bands.size() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Rating plan " + version + " needs 1.." + Byte.MAX_VALUE
+                    + " age bands and a non-negative maxAge");
+        }
+        this.ageBandByAge = new byte[maxAge + 1];
+        this.ageBandRate = new long[bands.size()];
+        this.ageBandNames = new String[bands.size()];
+        Arrays.fill(ageBandByAge, (byte) -1);
+        for (int band = 0; band < bands.size(); band++) {
+            RatingPlanDefinition.AgeBand ageBand = bands.get(band);
+            ageBandRate[band] = Money.toPpm(ageBand.getFactor());
+            ageBandNames[band] = ageBand.getName();
+            for (int age = Math.max(0, ageBand.getFromAge()); age <= Math.min(maxAge, ageBand.getToAge()); age++) {
+                if (ageBandByAge[age] != -1) {
+                    throw new IllegalArgumentException("Age " + age + " is in more than one band");
+                }
+                ageBandByAge[age] = (byte) band;
+            }
+        }
+        for (int age = 0; age <= maxAge; age++) {
+            if (ageBandByAge[age] == -1) {
+                throw new IllegalArgumentException("Age " + age + " is not covered by any age band");
+            }
+        }
+
+        this.keywordClassifier = keywordClassifier;
+        RatingPlanDefinition.Location location = definition.getLocation();
+        this.urbanRate = Money.toPpm(location.getUrbanFactor());
+        this.addressMask = keywordClassifier.mask(location.getAddressClasses().toArray(new String[0]));
+
+        this.genderRate = new long[TYPES * GENDERS];
+        this.riskDriver = new RiskDriver[TYPES];
+        this.propertyValueThreshold = new double[TYPES];
+        this.riskClassRate = new long[TYPES][];
+        this.riskClassNames = new String[TYPES][];
+        this.riskClassMask = new long[TYPES][];
+        this.deductibleThresholdCents = new long[TYPES];
+        this.deductibleAbove = new int[TYPES];
+        this.deductibleAtOrBelow = new int[TYPES];
+
+        Arrays.fill(riskDriver, RiskDriver.NONE);
+        Arrays.fill(deductibleThresholdCents, Long.MAX_VALUE);
+        Arrays.fill(deductibleAtOrBelow, definition.getDefaultDeductible());
+        Arrays.fill(deductibleAbove, definition.getDefaultDeductible());
+        for (int type = 0; type < TYPES; type++) {
+            riskClassRate[type] = new long[1];
+            riskClassNames[type] = new String[] {"NONE"};
+            riskClassMask[type] = new long[1];
+        }
+
+        for (Map.Entry<String, RatingPlanDefinition.Product> entry : definition.getProducts().entrySet()) {
+            compileProduct(productType(entry.getKey()), entry.getValue());
+        }
+
+        this.bundleDiscountRate = new long[TYPES + 1];
+        for (RatingPlanDefinition.BundleDiscount tier : definition.getBundleDiscounts()) {
+            if (tier.getMinProducts() < 2 || tier.getDiscount() < 0 || tier.getDiscount() >= 1) {
+                throw new IllegalArgumentException("Invalid bundle discount " + tier + " in rating plan " + version);
+            }
+            long rate = Money.toPpm(tier.getDiscount());
+            for (int products = Math.min(tier.getMinProducts(), TYPES + 1); products <= TYPES; products++) {
+                bundleDiscountRate[products] = Math.max(bundleDiscountRate[products], rate);
+            }
+        }
+    }
+
+    /**
+     * Read and compile a JSON rating plan
+     */
+    public static RatingPlan load(Resource resource, KeywordClassifier keywordClassifier) throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            return compile(MAPPER.readValue(in, RatingPlanDefinition.class), keywordClassifier);
+        }
+    }
+
+    /**
+     * Compile a rating plan definition, validating that its age bands cover
+     * every age from 0 to maxAge exactly once and that every keyword class it
+     * references exists
+     */
+    public static RatingPlan compile(RatingPlanDefinition definition, KeywordClassifier keywordClassifier) {
+        return new RatingPlan(definition, keywordClassifier);
+    }
+
+    private void compileProduct(InsuranceType type, RatingPlanDefinition.Product product) {
+        int t = type.ordinal();
+        for (Map.Entry<String, Double> gender : product.getGenderFactors().entrySet()) {
+            Gender g = Gender.fromCode(gender.getKey());
+            if (g == Gender.UNSPECIFIED) {
+                throw new IllegalArgumentException("Unknown gender '" + gender.getKey() + "' for " + type);
+            }
+            genderRate[t * GENDERS + g.ordinal()] = Money.toPpm(gender.getValue());
+        }
+
+        riskDriver[t] = product.getRiskDriver();
+        propertyValueThreshold[t] = product.getPropertyValueThreshold();
+        List<RatingPlanDefinition.RiskClass> classes = product.getRiskClasses();
+        riskClassRate[t] = new long[classes.size() + 1];
+        riskClassNames[t] = new String[classes.size() + 1];
+        riskClassMask[t] = new long[classes.size() + 1];
+        riskClassNames[t][0] = "NONE";
+        boolean keywordDriven = riskDriver[t] == RiskDriver.VEHICLE_MODEL || riskDriver[t] == RiskDriver.OCCUPATION;
+        for (int c = 0; c < classes.size(); c++) {
+            RatingPlanDefinition.RiskClass riskClass = classes.get(c);
+            riskClassRate[t][c + 1] = Money.toPpm(riskClass.getFactor());
+            riskClassNames[t][c + 1] = riskClass.getName();
+            if (keywordDriven) {
+                riskClassMask[t][c + 1] = keywordClassifier.mask(riskClass.getName());
+            }
+        }
+        if (!keywordDriven && classes.size() > 1) {
+            throw new IllegalArgumentException(riskDriver[t] + " risk driver for " + type
+                    + " supports a single risk class");
+        }
+
+        RatingPlanDefinition.Deductible deductible = product.getDeductible();
+        if (deductible != null) {
+            deductibleThresholdCents[t] = Money.toCents(deductible.getThreshold());
+            deductibleAbove[t] = deductible.getAbove();
+            deductibleAtOrBelow[t] = deductible.getAtOrBelow();
+        }
+    }
+
+    private static InsuranceType productType(String code) {
+        InsuranceType type = InsuranceType.fromCode(code);
+        if (type == InsuranceType.OTHER && !InsuranceType.OTHER.getCode().equalsIgnoreCase(code)) {
+            throw new IllegalArgumentException("Unknown insurance type '" + code + "' in rating plan");
+        }
+        return type;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Base premium for types without a configured base rate
+     */
+    public double getDefaultBasePremium() {
+        return Money.toDouble(defaultBasePremiumCents);
+    }
+
+    public long getDefaultBasePremiumCents() {
+        return defaultBasePremiumCents;
+    }
+
+    /**
+     * Age band index; ages outside 0..maxAge fall into the first/last band
+     */
+    public int ageBand(int age) {
+        return ageBandByAge[age < 0 ? 0 : Math.min(age, maxAge)];
+    }
+
+    public double ageFactor(int band) {
+        return Money.ppmToDouble(ageBandRate[band]);
+    }
+
+    /**
+     * Age band factor in parts per million
+     */
+    public long ageRate(int band) {
+        return ageBandRate[band];
+    }
+
+    public int numAgeBands() {
+        return ageBandRate.length;
+    }
+
+    public String ageBandName(int band) {
+        return ageBandNames[band];
+    }
+
+    public double genderFactor(InsuranceType type, Gender gender) {
+        return Money.ppmToDouble(genderRate(type, gender));
+    }
+
+    public long genderRate(InsuranceType type, Gender gender) {
+        return genderRate[type.ordinal() * GENDERS + gender.ordinal()];
+    }
+
+    public double locationFactor(boolean urban) {
+        return Money.ppmToDouble(locationRate(urban));
+    }
+
+    public long locationRate(boolean urban) {
+        return urban ? urbanRate : 0L;
+    }
+
+    /**
+     * Whether the address mentions one of the plan's urban keyword classes
+     * (major cities in the shipped plan)
+     */
+    public boolean isUrbanAddress(String address) {
+        return KeywordClassifier.matches(keywordClassifier.classify(address), addressMask);
+    }
+
+    /**
+     * Resolve the request's risk class for its product (0 = no surcharge)
+     */
+    public int riskClass(InsuranceType type, QuoteRequest request) {
+        int t = type.ordinal();
+        return switch (riskDriver[t]) {
+            case VEHICLE_MODEL -> keywordClass(t, request.getVehicleModel());
+            case OCCUPATION -> keywordClass(t, request.getOccupation());
+            case SMOKER -> Boolean.TRUE.equals(request.getSmoker()) ? 1 : 0;
+            case PROPERTY_VALUE -> request.getPropertyValue() != null
+                    && request.getPropertyValue() > propertyValueThreshold[t] ? 1 : 0;
+            case NONE -> 0;
+        };
+    }
+
+    private int keywordClass(int t, String text) {
+        long classes = keywordClassifier.classify(text);
+        if (classes == 0L) {
+            return 0;
+        }
+        long[] masks = riskClassMask[t];
+        for (int c = 1; c < masks.length; c++) {
+            if (KeywordClassifier.matches(classes, masks[c])) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    public double riskFactor(InsuranceType type, int riskClass) {
+        return Money.ppmToDouble(riskRate(type, riskClass));
+    }
+
+    public long riskRate(InsuranceType type, int riskClass) {
+        return riskClassRate[type.ordinal()][riskClass];
+    }
+
+    public int numRiskClasses(InsuranceType type) {
+        return riskClassRate[type.ordinal()].length;
+    }
+
+    public String riskClassName(InsuranceType type, int riskClass) {
+        return riskClassNames[type.ordinal()][riskClass];
+    }
+
+    public RiskDriver riskDriver(InsuranceType type) {
+        return riskDriver[type.ordinal()];
+    }
+
+    public int deductible(InsuranceType type, double premium) {
+        return deductibleForCents(type, Money.toCents(premium));
+    }
+
+    public int deductibleForCents(InsuranceType type, long premiumCents) {
+        int t = type.ordinal();
+        return premiumCents > deductibleThresholdCents[t] ? deductibleAbove[t] : deductibleAtOrBelow[t];
+    }
+
+    /**
+     * Multi-policy discount for a bundle of {@code products} distinct
+     * products, as a ppm rate of the bundle subtotal
+     */
+    public long bundleDiscountRate(int products) {
+        return bundleDiscountRate[Math.max(0, Math.min(products, TYPES))];
+    }
+}
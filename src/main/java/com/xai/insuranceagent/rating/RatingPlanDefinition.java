@@ -0,0 +1,106 @@
+package com.xai.insuranceagent.rating;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versioned rating plan as authored in JSON (see rating/rating-plan.json).
+ * Compiled into lookup tables by {@link RatingPlan#compile}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingPlanDefinition {
+
+    private String version;
+    private String description;
+    private double defaultBasePremium = 1000.0;
+    private int defaultDeductible = 500;
+    private int maxAge = 120;
+    private List<AgeBand> ageBands = new ArrayList<>();
+    private Location location = new Location();
+
+    /**
+     * Product definitions keyed by insurance type code (auto, home, life, health)
+     */
+    private Map<String, Product> products = new LinkedHashMap<>();
+
+    /**
+     * Multi-policy discounts; a bundle gets the tier with the highest
+     * minProducts it reaches
+     */
+    private List<BundleDiscount> bundleDiscounts = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AgeBand {
+        private String name;
+        private int fromAge;
+        private int toAge;
+        private double factor;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Location {
+        private double urbanFactor;
+
+        /**
+         * Keyword classes that make an address urban for rating (e.g. MAJOR_CITY)
+         */
+        private List<String> addressClasses = new ArrayList<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Product {
+
+        /**
+         * Gender code to factor; genders not listed get 0
+         */
+        private Map<String, Double> genderFactors = new LinkedHashMap<>();
+        private RiskDriver riskDriver = RiskDriver.NONE;
+        private double propertyValueThreshold;
+
+        /**
+         * Surcharged risk classes in priority order; the first match wins.
+         * For keyword drivers each name is a KeywordClassifier class.
+         */
+        private List<RiskClass> riskClasses = new ArrayList<>();
+        private Deductible deductible;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RiskClass {
+        private String name;
+        private double factor;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Deductible {
+        private double threshold;
+        private int above;
+        private int atOrBelow;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BundleDiscount {
+        private int minProducts;
+        private double discount;
+    }
+}
@@ -0,0 +1,12 @@
+package com.xai.insuranceagent.rating;
+
+/**
+ * Request attribute that selects a product's risk class
+ */
+public enum RiskDriver {
+    NONE,
+    VEHICLE_MODEL,  // Keyword classes over QuoteRequest.vehicleModel
+    OCCUPATION,     // Keyword classes over QuoteRequest.occupation
+    SMOKER,         // Class 1 when QuoteRequest.smoker is true
+    PROPERTY_VALUE  // Class 1 when QuoteRequest.propertyValue exceeds the threshold
+}
@@ -0,0 +1,147 @@
+package com.xai.insuranceagent.rules;
+
+import com.xai.insuranceagent.model.underwriting.RuleStatistics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.kie.api.KieBase;
+import org.kie.api.definition.KiePackage;
+import org.kie.api.definition.rule.Rule;
+import org.kie.api.event.rule.AfterMatchFiredEvent;
+import org.kie.api.event.rule.BeforeMatchFiredEvent;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
+import org.kie.api.event.rule.MatchCancelledEvent;
+import org.kie.api.event.rule.MatchCreatedEvent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Agenda listener recording per-rule match counts, fire counts and action
+ * latency. One instance is shared by every session of every ruleset, so all
+ * counters are striped (LongAdder) to stay cheap under contention.
+ *
+ * Exported as underwriting.rules.rule.matches / .cancelled / .fired and the
+ * underwriting.rules.rule.action timer (tag "rule"), with p50/p95/p99.
+ */
+public class RuleMetricsListener extends DefaultAgendaEventListener {
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, RuleStats> stats = new ConcurrentHashMap<>();
+    private final ThreadLocal<long[]> fireStart = ThreadLocal.withInitial(() -> new long[1]);
+
+    public RuleMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Pre-register every rule of a KieBase so rules that never match still
+     * show up (with zero counts) and can be identified as dead
+     */
+    public void registerRules(KieBase kieBase) {
+        for (KiePackage kiePackage : kieBase.getKiePackages()) {
+            for (Rule rule : kiePackage.getRules()) {
+                statsFor(rule.getName());
+            }
+        }
+    }
+
+    @Override
+    public void matchCreated(MatchCreatedEvent event) {
+        statsFor(event.getMatch().getRule().getName()).matches.increment();
+    }
+
+    @Override
+    public void matchCancelled(MatchCancelledEvent event) {
+        statsFor(event.getMatch().getRule().getName()).cancellations.increment();
+    }
+
+    @Override
+    public void beforeMatchFired(BeforeMatchFiredEvent event) {
+        fireStart.get()[0] = System.nanoTime();
+    }
+
+    @Override
+    public void afterMatchFired(AfterMatchFiredEvent event) {
+        long elapsed = System.nanoTime() - fireStart.get()[0];
+        RuleStats ruleStats = statsFor(event.getMatch().getRule().getName());
+        ruleStats.fires.increment();
+        ruleStats.actionTimer.record(elapsed, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Current statistics for every known rule, hottest first
+     */
+    public List<RuleStatistics> snapshot() {
+        List<RuleStatistics> snapshot = new ArrayList<>(stats.size());
+        stats.forEach((ruleName, ruleStats) -> snapshot.add(ruleStats.toStatistics(ruleName)));
+        snapshot.sort(Comparator.comparing(RuleStatistics::getFires).reversed()
+                .thenComparing(RuleStatistics::getRuleName));
+        return snapshot;
+    }
+
+    private RuleStats statsFor(String ruleName) {
+        RuleStats ruleStats = stats.get(ruleName);
+        return ruleStats != null ? ruleStats : stats.computeIfAbsent(ruleName, RuleStats::new);
+    }
+
+    private final class RuleStats {
+
+        private final LongAdder matches = new LongAdder();
+        private final LongAdder cancellations = new LongAdder();
+        private final LongAdder fires = new LongAdder();
+        private final Timer actionTimer;
+
+        RuleStats(String ruleName) {
+            FunctionCounter.builder("underwriting.rules.rule.matches", matches, LongAdder::doubleValue)
+                    .description("Activations created per rule")
+                    .tag("rule", ruleName)
+                    .register(meterRegistry);
+            FunctionCounter.builder("underwriting.rules.rule.cancelled", cancellations, LongAdder::doubleValue)
+                    .description("Activations cancelled before firing per rule")
+                    .tag("rule", ruleName)
+                    .register(meterRegistry);
+            FunctionCounter.builder("underwriting.rules.rule.fired", fires, LongAdder::doubleValue)
+                    .description("Activations fired per rule")
+                    .tag("rule", ruleName)
+                    .register(meterRegistry);
+            this.actionTimer = Timer.builder("underwriting.rules.rule.action")
+                    .description("Time spent in the consequence of each rule")
+                    .tag("rule", ruleName)
+                    .publishPercentiles(PERCENTILES)
+                    .register(meterRegistry);
+        }
+
+        RuleStatistics toStatistics(String ruleName) {
+            HistogramSnapshot histogram = actionTimer.takeSnapshot();
+            RuleStatistics.RuleStatisticsBuilder builder = RuleStatistics.builder()
+                    .ruleName(ruleName)
+                    .matches(matches.sum())
+                    .cancellations(cancellations.sum())
+                    .fires(fires.sum())
+                    .totalActionTimeMs(histogram.total(TimeUnit.MILLISECONDS))
+                    .meanActionTimeMs(histogram.mean(TimeUnit.MILLISECONDS))
+                    .maxActionTimeMs(histogram.max(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile percentile : histogram.percentileValues()) {
+                double valueMs = percentile.value(TimeUnit.MILLISECONDS);
+                if (percentile.percentile() == 0.5) {
+                    builder.p50ActionTimeMs(valueMs);
+                } else if (percentile.percentile() == 0.95) {
+                    builder.p95ActionTimeMs(valueMs);
+                } else if (percentile.percentile() == 0.99) {
+                    builder.p99ActionTimeMs(valueMs);
+                }
+            }
+            return builder.build();
+        }
+    }
+}
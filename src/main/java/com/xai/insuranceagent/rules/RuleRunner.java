@@ -0,0 +1,20 @@
+package com.xai.insuranceagent.rules;
+
+/**
+ * Inserts facts into a rule session and fires all rules
+ */
+@FunctionalInterface
+public interface RuleRunner {
+
+    /**
+     * Insert the given facts, fire all rules and return the number of rules fired
+     */
+    int execute(Object... facts);
+
+    /**
+     * Version of the ruleset the facts are fired against, if known
+     */
+    default String getRulesetVersion() {
+        return null;
+    }
+}
@@ -0,0 +1,387 @@
+package com.xai.insuranceagent.rules;
+
+import com.xai.insuranceagent.concurrent.ExecutorSaturatedException;
+import com.xai.insuranceagent.config.DroolsConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.kie.api.KieBase;
+import org.kie.api.KieServices;
+import org.kie.api.command.Command;
+import org.kie.api.command.KieCommands;
+import org.kie.api.runtime.ExecutionResults;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.StatelessKieSession;
+import org.kie.api.runtime.rule.FactHandle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Executes the underwriting ruleset against a shared KieBase.
+ *
+ * Two modes are supported (insurance.underwriting.rules.session-mode):
+ * - POOLED: a bounded pool of stateful sessions that are reset and reused
+ * - STATELESS: a single StatelessKieSession executing a batch command per call
+ *
+ * The active ruleset can be replaced at runtime with {@link #swap}; executions
+ * always finish on the ruleset they started with.
+ */
+@Component
+public class RuleSessionExecutor implements RuleRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuleSessionExecutor.class);
+    private static final Logger rulesLogger = LoggerFactory.getLogger("com.xai.insuranceagent.rules");
+    private static final String RULES_FIRED = "rulesFired";
+
+    public enum SessionMode {
+        POOLED,
+        STATELESS
+    }
+
+    private final SessionMode sessionMode;
+    private final int maxPoolSize;
+    private final long maxWaitMillis;
+    private final long retryAfterSeconds;
+
+    private final AtomicReference<Ruleset> activeRuleset;
+    private final Semaphore permits;
+    private final AtomicInteger createdSessions = new AtomicInteger();
+    private final KieCommands commands;
+    private final RuleMetricsListener ruleMetrics;
+
+    private final Timer waitTimer;
+    private final Timer executionTimer;
+    private final DistributionSummary rulesFiredSummary;
+    private final Counter exhaustedCounter;
+
+    @Autowired
+    public RuleSessionExecutor(KieBase kieBase,
+                               MeterRegistry meterRegistry,
+                               @Value("${insurance.underwriting.rules.session-mode:POOLED}") SessionMode sessionMode,
+                               @Value("${insurance.underwriting.rules.pool.max-size:0}") int maxPoolSize,
+                               @Value("${insurance.underwriting.rules.pool.max-wait-ms:500}") long maxWaitMillis,
+                               @Value("${insurance.executors.retry-after-seconds:2}") long retryAfterSeconds) {
+        this.sessionMode = sessionMode;
+        this.maxPoolSize = maxPoolSize > 0 ? maxPoolSize : Runtime.getRuntime().availableProcessors() * 2;
+        this.maxWaitMillis = maxWaitMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.permits = new Semaphore(this.maxPoolSize, true);
+        this.commands = KieServices.Factory.get().getCommands();
+        this.ruleMetrics = new RuleMetricsListener(meterRegistry);
+        this.activeRuleset = new AtomicReference<>(new Ruleset(kieBase, DroolsConfig.classpathRulesetVersion()));
+
+        this.waitTimer = Timer.builder("underwriting.rules.session.wait")
+                .description("Time spent waiting for a pooled rule session")
+                .register(meterRegistry);
+        this.executionTimer = Timer.builder("underwriting.rules.execution")
+                .description("Time spent inserting facts and firing rules")
+                .tag("mode", sessionMode.name())
+                .register(meterRegistry);
+        this.rulesFiredSummary = DistributionSummary.builder("underwriting.rules.fired")
+                .description("Rules fired per execution")
+                .register(meterRegistry);
+        this.exhaustedCounter = Counter.builder("underwriting.rules.session.exhausted")
+                .description("Executions rejected because no pooled session became available")
+                .register(meterRegistry);
+        Gauge.builder("underwriting.rules.session.pool.size", createdSessions, AtomicInteger::get)
+                .description("Stateful sessions created by the pool")
+                .register(meterRegistry);
+        Gauge.builder("underwriting.rules.session.pool.idle", activeRuleset, r -> r.get().idleSessions.size())
+                .description("Stateful sessions currently idle in the pool")
+                .register(meterRegistry);
+        Gauge.builder("underwriting.rules.session.pool.active", permits,
+                        p -> this.maxPoolSize - p.availablePermits())
+                .description("Stateful sessions currently borrowed")
+                .register(meterRegistry);
+
+        Gauge.builder("underwriting.rules.ruleset.loaded", activeRuleset, r -> r.get().loadedAt.toEpochMilli())
+                .description("Epoch millis at which the active ruleset was installed")
+                .register(meterRegistry);
+
+        logger.info("Rule session executor initialized - Mode: {}, Max pool size: {}, Ruleset: {}",
+                sessionMode, this.maxPoolSize, activeRuleset.get().version);
+    }
+
+    /**
+     * Insert the given facts into the active ruleset, fire all rules and
+     * return the number of rules fired
+     */
+    @Override
+    public int execute(Object... facts) {
+        return activeRuleset.get().execute(facts);
+    }
+
+    /**
+     * Run a unit of work against a single session of the active ruleset; in
+     * POOLED mode the same stateful session is reused (and reset) for every
+     * execute() call made by the work, and returned to the pool afterwards.
+     */
+    public <T> T withSession(Function<RuleRunner, T> work) {
+        return activeRuleset.get().withSession(work);
+    }
+
+    /**
+     * Returns a runner pinned to the currently active ruleset, so that all
+     * executions made through it see the same version even if a new ruleset
+     * is swapped in meanwhile
+     */
+    public RuleRunner forCurrentRuleset() {
+        return activeRuleset.get();
+    }
+
+    /**
+     * Version of the ruleset new executions are started against
+     */
+    @Override
+    public String getRulesetVersion() {
+        return activeRuleset.get().version;
+    }
+
+    /**
+     * Atomically install a new ruleset. Executions already running keep their
+     * session of the previous ruleset; its idle sessions are disposed and
+     * in-flight ones are disposed when released.
+     */
+    public void swap(KieBase kieBase, String version) {
+        Ruleset previous = activeRuleset.getAndSet(new Ruleset(kieBase, version));
+        previous.retire();
+        logger.info("Underwriting ruleset swapped: {} -> {}", previous.version, version);
+    }
+
+    public SessionMode getSessionMode() {
+        return sessionMode;
+    }
+
+    /**
+     * Per-rule match/fire/latency statistics across all sessions
+     */
+    public RuleMetricsListener getRuleMetrics() {
+        return ruleMetrics;
+    }
+
+    private int record(long start, int rulesFired) {
+        executionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        rulesFiredSummary.record(rulesFired);
+        return rulesFired;
+    }
+
+    /**
+     * A compiled KieBase together with its own pool of idle stateful sessions
+     */
+    private final class Ruleset implements RuleRunner {
+
+        private final KieBase kieBase;
+        private final String version;
+        private final Instant loadedAt = Instant.now();
+        private final BlockingQueue<KieSession> idleSessions = new ArrayBlockingQueue<>(maxPoolSize);
+        private final StatelessKieSession statelessSession;
+        private volatile boolean retired;
+
+        Ruleset(KieBase kieBase, String version) {
+            this.kieBase = kieBase;
+            this.version = version;
+            ruleMetrics.registerRules(kieBase);
+            if (sessionMode == SessionMode.STATELESS) {
+                this.statelessSession = kieBase.newStatelessKieSession();
+                this.statelessSession.setGlobal("logger", rulesLogger);
+                this.statelessSession.addEventListener(ruleMetrics);
+            } else {
+                this.statelessSession = null;
+            }
+        }
+
+        @Override
+        public int execute(Object... facts) {
+            return withSession(session -> session.execute(facts));
+        }
+
+        @Override
+        public String getRulesetVersion() {
+            return version;
+        }
+
+        <T> T withSession(Function<RuleRunner, T> work) {
+            if (statelessSession != null) {
+                return work.apply(new StatelessRunner(this));
+            }
+
+            PooledRunner runner = new PooledRunner(this, borrowSession(this));
+            try {
+                return work.apply(runner);
+            } finally {
+                releaseSession(this, runner.session, !runner.broken);
+            }
+        }
+
+        void retire() {
+            retired = true;
+            disposeIdle();
+        }
+
+        void disposeIdle() {
+            KieSession session;
+            while ((session = idleSessions.poll()) != null) {
+                session.dispose();
+                createdSessions.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Fires rules through the ruleset's shared StatelessKieSession
+     */
+    private final class StatelessRunner implements RuleRunner {
+
+        private final Ruleset ruleset;
+
+        StatelessRunner(Ruleset ruleset) {
+            this.ruleset = ruleset;
+        }
+
+        @Override
+        public int execute(Object... facts) {
+            long start = System.nanoTime();
+            List<Command<?>> batch = new ArrayList<>(2);
+            batch.add(commands.newInsertElements(Arrays.asList(facts)));
+            batch.add(commands.newFireAllRules(RULES_FIRED));
+
+            ExecutionResults results = ruleset.statelessSession.execute(commands.newBatchExecution(batch));
+            Object fired = results.getValue(RULES_FIRED);
+            return record(start, fired instanceof Integer ? (Integer) fired : 0);
+        }
+
+        @Override
+        public String getRulesetVersion() {
+            return ruleset.version;
+        }
+    }
+
+    /**
+     * Fires rules on a borrowed stateful session, retracting the facts after
+     * each call so the session is clean for the next one
+     */
+    private final class PooledRunner implements RuleRunner {
+
+        private final Ruleset ruleset;
+        private final KieSession session;
+        private boolean broken;
+
+        PooledRunner(Ruleset ruleset, KieSession session) {
+            this.ruleset = ruleset;
+            this.session = session;
+        }
+
+        @Override
+        public int execute(Object... facts) {
+            long start = System.nanoTime();
+            List<FactHandle> handles = new ArrayList<>(facts.length);
+            try {
+                for (Object fact : facts) {
+                    handles.add(session.insert(fact));
+                }
+                return record(start, session.fireAllRules());
+            } finally {
+                reset(handles);
+            }
+        }
+
+        @Override
+        public String getRulesetVersion() {
+            return ruleset.version;
+        }
+
+        private void reset(List<FactHandle> handles) {
+            try {
+                for (FactHandle handle : handles) {
+                    session.delete(handle);
+                }
+                broken = session.getFactCount() != 0;
+            } catch (RuntimeException e) {
+                logger.warn("Rule session reset failed: {}", e.getMessage());
+                broken = true;
+            }
+        }
+    }
+
+    private KieSession borrowSession(Ruleset ruleset) {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a rule session", e);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        if (!acquired) {
+            exhaustedCounter.increment();
+            throw new ExecutorSaturatedException("rule-session", retryAfterSeconds,
+                    "No rule session available within " + maxWaitMillis + " ms (pool size " + maxPoolSize + ")");
+        }
+
+        KieSession session = ruleset.idleSessions.poll();
+        if (session == null) {
+            try {
+                session = createSession(ruleset);
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+        return session;
+    }
+
+    private KieSession createSession(Ruleset ruleset) {
+        KieSession session = ruleset.kieBase.newKieSession();
+        session.setGlobal("logger", rulesLogger);
+        session.addEventListener(ruleMetrics);
+        int created = createdSessions.incrementAndGet();
+        logger.debug("Created pooled rule session #{} for ruleset {}", created, ruleset.version);
+        return session;
+    }
+
+    /**
+     * Return a clean session to its ruleset's pool; a session that could not
+     * be reset, or that belongs to a retired ruleset, is discarded instead.
+     */
+    private void releaseSession(Ruleset ruleset, KieSession session, boolean reusable) {
+        try {
+            if (reusable && !ruleset.retired && ruleset.idleSessions.offer(session)) {
+                if (ruleset.retired) {
+                    // Swapped out while we were returning the session
+                    ruleset.disposeIdle();
+                }
+                return;
+            }
+            session.dispose();
+            createdSessions.decrementAndGet();
+        } finally {
+            permits.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        activeRuleset.get().retire();
+    }
+}
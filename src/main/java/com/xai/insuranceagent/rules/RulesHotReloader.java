@@ -0,0 +1,157 @@
+package com.xai.insuranceagent.rules;
+
+import com.xai.insuranceagent.config.DroolsConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.kie.api.KieBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Watches a rules directory and hot-swaps the underwriting ruleset.
+ *
+ * A single background thread polls the *.drl files in
+ * insurance.underwriting.rules.hot-reload.directory; when their content
+ * changes it compiles them and, on success, swaps the new KieBase into
+ * RuleSessionExecutor. Compilation never happens on a request thread and a
+ * broken ruleset leaves the current one in place.
+ */
+@Component
+public class RulesHotReloader {
+
+    private static final Logger logger = LoggerFactory.getLogger(RulesHotReloader.class);
+
+    private final RuleSessionExecutor ruleSessionExecutor;
+    private final DroolsConfig droolsConfig;
+    private final boolean enabled;
+    private final String directory;
+    private final long pollIntervalMillis;
+
+    private final Counter successCounter;
+    private final Counter failureCounter;
+    private final Timer compileTimer;
+
+    private ScheduledExecutorService watcher;
+    private String lastSeenVersion;
+
+    @Autowired
+    public RulesHotReloader(RuleSessionExecutor ruleSessionExecutor,
+                            DroolsConfig droolsConfig,
+                            MeterRegistry meterRegistry,
+                            @Value("${insurance.underwriting.rules.hot-reload.enabled:false}") boolean enabled,
+                            @Value("${insurance.underwriting.rules.hot-reload.directory:}") String directory,
+                            @Value("${insurance.underwriting.rules.hot-reload.poll-interval-ms:5000}") long pollIntervalMillis) {
+        this.ruleSessionExecutor = ruleSessionExecutor;
+        this.droolsConfig = droolsConfig;
+        this.enabled = enabled;
+        this.directory = directory;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.lastSeenVersion = ruleSessionExecutor.getRulesetVersion();
+
+        this.successCounter = Counter.builder("underwriting.rules.reload")
+                .description("Ruleset hot-reload attempts")
+                .tag("result", "success")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("underwriting.rules.reload")
+                .description("Ruleset hot-reload attempts")
+                .tag("result", "failure")
+                .register(meterRegistry);
+        this.compileTimer = Timer.builder("underwriting.rules.reload.compile")
+                .description("Time spent compiling a reloaded ruleset")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (directory == null || directory.isBlank()) {
+            logger.warn("Rules hot-reload enabled but no directory configured; hot-reload disabled");
+            return;
+        }
+
+        watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rules-hot-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watcher.scheduleWithFixedDelay(this::checkForChanges, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        logger.info("Rules hot-reload watching {} every {} ms", directory, pollIntervalMillis);
+    }
+
+    /**
+     * Compile and install the rules directory if its content changed since
+     * the last attempt. Returns true if a new ruleset was installed.
+     */
+    public synchronized boolean checkForChanges() {
+        try {
+            Map<String, byte[]> drlSources = readRules(Paths.get(directory));
+            if (drlSources.isEmpty()) {
+                return false;
+            }
+
+            String version = DroolsConfig.rulesetVersion(drlSources);
+            if (version.equals(lastSeenVersion)) {
+                return false;
+            }
+            lastSeenVersion = version;
+
+            logger.info("Rules change detected in {} - compiling ruleset {}", directory, version);
+            long start = System.nanoTime();
+            KieBase kieBase = droolsConfig.compileDrl(drlSources, version).getKieBase();
+            compileTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            ruleSessionExecutor.swap(kieBase, version);
+            successCounter.increment();
+            return true;
+
+        } catch (Exception e) {
+            // Keep serving the current ruleset; the same content is not retried until it changes
+            failureCounter.increment();
+            logger.error("Rules hot-reload failed, keeping ruleset {}: {}",
+                    ruleSessionExecutor.getRulesetVersion(), e.getMessage());
+            return false;
+        }
+    }
+
+    private Map<String, byte[]> readRules(Path rulesDirectory) throws IOException {
+        Map<String, byte[]> drlSources = new TreeMap<>();
+        if (!Files.isDirectory(rulesDirectory)) {
+            return drlSources;
+        }
+        try (Stream<Path> files = Files.list(rulesDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".drl") && Files.isRegularFile(file)) {
+                    drlSources.put(name, Files.readAllBytes(file));
+                }
+            }
+        }
+        return drlSources;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+        }
+    }
+}
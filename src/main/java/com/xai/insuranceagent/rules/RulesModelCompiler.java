@@ -0,0 +1,85 @@
+package com.xai.insuranceagent.rules;
+
+import com.xai.insuranceagent.config.DroolsConfig;
+import org.drools.compiler.kie.builder.impl.InternalKieModule;
+import org.drools.model.codegen.ExecutableModelProject;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieBuilder;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.Message;
+import org.kie.api.builder.ReleaseId;
+import org.kie.api.builder.model.KieModuleModel;
+import org.kie.internal.io.ResourceFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Build-time compiler for the underwriting rules.
+ *
+ * Run during {@code mvn package} (process-classes phase) to translate
+ * underwriting-rules.drl into the Drools executable model and write it as a
+ * kjar onto the application classpath, so pods never parse DRL at startup.
+ *
+ * Usage: RulesModelCompiler [outputDirectory]
+ */
+public final class RulesModelCompiler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RulesModelCompiler.class);
+
+    public static final String KJAR_RESOURCE = "rules/underwriting-rules.kjar";
+    public static final String GROUP_ID = "com.xai";
+    public static final String ARTIFACT_ID = "insurance-agent-rules";
+    public static final String VERSION = "1.0.0";
+    public static final String KIE_BASE_NAME = "underwritingKBase";
+    public static final String KIE_SESSION_NAME = "underwritingSession";
+
+    private RulesModelCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path outputDirectory = Paths.get(args.length > 0 ? args[0] : "target/classes");
+        Path kjar = outputDirectory.resolve(KJAR_RESOURCE);
+
+        long start = System.nanoTime();
+        byte[] bytes = compile();
+        Files.createDirectories(kjar.getParent());
+        Files.write(kjar, bytes);
+
+        logger.info("Executable rules model written to {} ({} bytes) in {} ms",
+                kjar, bytes.length, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Compile the DRL into an executable-model kjar and return its bytes
+     */
+    public static byte[] compile() {
+        KieServices kieServices = KieServices.Factory.get();
+        ReleaseId releaseId = kieServices.newReleaseId(GROUP_ID, ARTIFACT_ID, VERSION);
+
+        KieModuleModel kieModuleModel = kieServices.newKieModuleModel();
+        kieModuleModel.newKieBaseModel(KIE_BASE_NAME)
+                .setDefault(true)
+                .newKieSessionModel(KIE_SESSION_NAME)
+                .setDefault(true);
+
+        KieFileSystem kieFileSystem = kieServices.newKieFileSystem();
+        kieFileSystem.generateAndWritePomXML(releaseId);
+        kieFileSystem.writeKModuleXML(kieModuleModel.toXML());
+        kieFileSystem.write(ResourceFactory.newClassPathResource(DroolsConfig.RULES_PATH));
+
+        KieBuilder kieBuilder = kieServices.newKieBuilder(kieFileSystem);
+        kieBuilder.buildAll(ExecutableModelProject.class);
+
+        if (kieBuilder.getResults().hasMessages(Message.Level.ERROR)) {
+            kieBuilder.getResults().getMessages().forEach(message -> logger.error(message.toString()));
+            throw new IllegalStateException("Executable model compilation of " + DroolsConfig.RULES_PATH + " failed");
+        }
+
+        return ((InternalKieModule) kieBuilder.getKieModule()).getBytes();
+    }
+}
@@ -0,0 +1,204 @@
+package com.xai.insuranceagent.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.xai.insuranceagent.client.CreditScoreClient;
+import com.xai.insuranceagent.client.CreditScoreClient.CreditScoreResponse;
+import com.xai.insuranceagent.concurrent.WorkloadExecutors;
+import com.xai.insuranceagent.util.EncryptionUtil;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of bureau credit scores in front of CreditScoreClient.
+ *
+ * Entries are keyed by a salted SHA-256 of the customer ID and hold the
+ * score encrypted with EncryptionUtil. An entry older than refresh-after is
+ * still served while a background call on the external-api pool replaces
+ * it, so a recently seen customer never waits on the bureau; entries are
+ * never served past ttl.
+ * Mock and fallback responses are not cached.
+ */
+@Component
+public class CreditScoreCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CreditScoreCache.class);
+
+    private final CreditScoreClient creditScoreClient;
+    private final EncryptionUtil encryptionUtil;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Cache<String, CachedScore> cache;
+    private final Ticker ticker;
+    private final Executor refreshExecutor;
+    private final boolean enabled;
+    private final long refreshAfterNanos;
+    private final byte[] salt = new byte[32];
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final LongAdder refreshes = new LongAdder();
+
+    @Autowired
+    public CreditScoreCache(CreditScoreClient creditScoreClient,
+                            EncryptionUtil encryptionUtil,
+                            MeterRegistry meterRegistry,
+                            WorkloadExecutors workloadExecutors,
+                            @Value("${insurance.underwriting.credit-cache.enabled:true}") boolean enabled,
+                            @Value("${insurance.underwriting.credit-cache.max-size:100000}") long maxSize,
+                            @Value("${insurance.underwriting.credit-cache.refresh-after:7d}") Duration refreshAfter,
+                            @Value("${insurance.underwriting.credit-cache.ttl:30d}") Duration ttl) {
+        this(creditScoreClient, encryptionUtil, meterRegistry, enabled, maxSize, refreshAfter, ttl,
+                Ticker.systemTicker(), workloadExecutors.externalApi());
+    }
+
+    CreditScoreCache(CreditScoreClient creditScoreClient, EncryptionUtil encryptionUtil, MeterRegistry meterRegistry,
+                     boolean enabled, long maxSize, Duration refreshAfter, Duration ttl,
+                     Ticker ticker, Executor refreshExecutor) {
+        if (refreshAfter.compareTo(ttl) > 0) {
+            throw new IllegalArgumentException("Credit cache refresh-after (" + refreshAfter
+                    + ") must not exceed ttl (" + ttl + ")");
+        }
+        this.creditScoreClient = creditScoreClient;
+        this.encryptionUtil = encryptionUtil;
+        this.enabled = enabled;
+        this.refreshAfterNanos = refreshAfter.toNanos();
+        this.ticker = ticker;
+        this.refreshExecutor = refreshExecutor;
+        new SecureRandom().nextBytes(salt);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "credit.scores");
+        FunctionCounter.builder("credit.score.cache.refreshes", refreshes, LongAdder::sum)
+                .description("Background bureau calls replacing stale cached credit scores")
+                .register(meterRegistry);
+
+        logger.info("Credit score cache - Enabled: {}, Max size: {}, Refresh after: {}, TTL: {}",
+                enabled, maxSize, refreshAfter, ttl);
+    }
+
+    /**
+     * Credit score for a customer, from the cache when one was fetched
+     * within the ttl. Each call returns its own copy.
+     */
+    public CreditScoreResponse getCreditScore(String customerId, String ssn) throws IOException {
+        if (!enabled) {
+            return creditScoreClient.getCreditScore(customerId, ssn);
+        }
+
+        String key = key(customerId);
+        CachedScore entry = cache.getIfPresent(key);
+        if (entry != null) {
+            CreditScoreResponse score = decrypt(key, entry);
+            if (score != null) {
+                if (ticker.read() - entry.writtenAt() >= refreshAfterNanos) {
+                    refreshAsync(key, customerId, ssn);
+                }
+                return score;
+            }
+        }
+
+        CreditScoreResponse score = creditScoreClient.getCreditScore(customerId, ssn);
+        store(key, score);
+        return score;
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * At most one background refresh per key; a failed refresh keeps the
+     * stale entry until the next read after it or until it expires
+     */
+    private void refreshAsync(String key, String customerId, String ssn) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refreshes.increment();
+                    store(key, creditScoreClient.getCreditScore(customerId, ssn));
+                } catch (Exception e) {
+                    logger.warn("Background credit score refresh failed: {}", e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+        }
+    }
+
+    private void store(String key, CreditScoreResponse score) {
+        if (score == null || CreditScoreClient.MOCK_BUREAU.equals(score.getBureau())) {
+            return;
+        }
+        try {
+            String ciphertext = encryptionUtil.encrypt(objectMapper.writeValueAsString(score));
+            cache.put(key, new CachedScore(ciphertext, ticker.read()));
+        } catch (Exception e) {
+            logger.warn("Credit score not cached: {}", e.getMessage());
+        }
+    }
+
+    private CreditScoreResponse decrypt(String key, CachedScore entry) {
+        try {
+            return objectMapper.readValue(encryptionUtil.decrypt(entry.ciphertext()), CreditScoreResponse.class);
+        } catch (Exception e) {
+            // e.g. the encryption key was rotated; fetch afresh
+            logger.warn("Discarding unreadable cached credit score: {}", e.getMessage());
+            cache.invalidate(key);
+            return null;
+        }
+    }
+
+    /**
+     * Salted SHA-256 of the customer ID. The salt is random per instance, so
+     * keys are meaningless outside this process.
+     */
+    String key(String customerId) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(salt);
+            byte[] hash = digest.digest(String.valueOf(customerId).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Encrypted score and the ticker time it was written
+     */
+    record CachedScore(String ciphertext, long writtenAt) {
+    }
+}
@@ -3,6 +3,7 @@ package com.xai.insuranceagent.service;
 import com.xai.insuranceagent.model.Customer;
 import com.xai.insuranceagent.model.ProcessResponse;
 import com.xai.insuranceagent.util.EncryptionUtil;
+import com.xai.insuranceagent.util.IdGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,7 +11,6 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.UUID;
 
 /**
  * Service for document generation and filling
@@ -23,6 +23,9 @@ public class DocumentFillingService {
     @Autowired
     private EncryptionUtil encryptionUtil;
 
+    @Autowired
+    private IdGenerator idGenerator;
+
     /**
      * Generates insurance documents
      */
@@ -65,11 +68,8 @@ public class DocumentFillingService {
     }
 
     private String generateDocumentId(Customer customer) {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        String uniqueId = UUID.randomUUID().toString().substring(0, 8);
         String type = customer.getInsuranceType().toUpperCase().substring(0, 3);
-        
-        return String.format("%s-%s-%s", type, timestamp, uniqueId);
+        return idGenerator.nextId(type);
     }
 
     private void encryptSensitiveData(Customer customer) {
@@ -1,9 +1,12 @@
 package com.xai.insuranceagent.service;
 
 import com.xai.insuranceagent.client.DocuSignClient;
+import com.xai.insuranceagent.concurrent.WorkloadExecutors;
 import com.xai.insuranceagent.model.document.DocumentRequest;
 import com.xai.insuranceagent.model.document.DocumentResponse;
+import com.xai.insuranceagent.rating.Money;
 import com.xai.insuranceagent.util.EncryptionUtil;
+import com.xai.insuranceagent.util.IdGenerator;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
@@ -40,6 +43,12 @@ public class EnhancedDocumentFillingService {
     @Autowired
     private DocuSignClient docuSignClient;
 
+    @Autowired
+    private IdGenerator idGenerator;
+
+    @Autowired
+    private WorkloadExecutors workloadExecutors;
+
     @Value("${insurance.document.output-directory}")
     private String outputDirectory;
 
@@ -141,7 +150,7 @@ public class EnhancedDocumentFillingService {
     public CompletableFuture<DocumentResponse> fillDocumentAsync(DocumentRequest request) {
         logger.info("Starting async document filling for customer: {}", request.getCustomerId());
         
-        return CompletableFuture.supplyAsync(() -> fillDocument(request))
+        return CompletableFuture.supplyAsync(() -> fillDocument(request), workloadExecutors.blockingIo())
                 .exceptionally(throwable -> {
                     logger.error("Async document filling failed: {}", throwable.getMessage());
                     return DocumentResponse.builder()
@@ -255,7 +264,7 @@ public class EnhancedDocumentFillingService {
                 }
                 
                 if (policy.getPremiumAmount() != null) {
-                    contentStream.showText("Premium: $" + policy.getPremiumAmount());
+                    contentStream.showText("Premium: $" + Money.format(Money.toCents(policy.getPremiumAmount())));
                     fieldsAdded++;
                 }
             }
@@ -321,8 +330,9 @@ public class EnhancedDocumentFillingService {
             }
             
             if (policy.getPremiumAmount() != null) {
-                mappings.put("premium", String.valueOf(policy.getPremiumAmount()));
-                mappings.put("premiumamount", String.valueOf(policy.getPremiumAmount()));
+                String premium = Money.format(Money.toCents(policy.getPremiumAmount()));
+                mappings.put("premium", premium);
+                mappings.put("premiumamount", premium);
             }
             
             if (policy.getEffectiveDate() != null) {
@@ -460,11 +470,8 @@ public class EnhancedDocumentFillingService {
      * Generate document ID
      */
     private String generateDocumentId(DocumentRequest request) {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        String uniqueId = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
         String prefix = request.getDocumentType().substring(0, 3).toUpperCase();
-        
-        return String.format("%s-%s-%s", prefix, timestamp, uniqueId);
+        return idGenerator.nextId(prefix);
     }
 
     /**
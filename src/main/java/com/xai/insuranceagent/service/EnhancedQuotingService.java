@@ -1,20 +1,44 @@
 package com.xai.insuranceagent.service;
 
 import com.xai.insuranceagent.client.GuideWireClient;
+import com.xai.insuranceagent.concurrent.ExecutorSaturatedException;
+import com.xai.insuranceagent.concurrent.WorkloadExecutors;
 import com.xai.insuranceagent.model.Customer;
+import com.xai.insuranceagent.model.quote.BundleQuoteRequest;
+import com.xai.insuranceagent.model.quote.BundleQuoteResponse;
+import com.xai.insuranceagent.model.quote.QuoteDetail;
+import com.xai.insuranceagent.model.quote.QuoteGridRequest;
+import com.xai.insuranceagent.model.quote.QuoteGridResponse;
 import com.xai.insuranceagent.model.quote.QuoteRequest;
 import com.xai.insuranceagent.model.quote.QuoteResponse;
+import com.xai.insuranceagent.rating.Gender;
+import com.xai.insuranceagent.rating.InsuranceType;
+import com.xai.insuranceagent.rating.KeywordClassifier;
+import com.xai.insuranceagent.rating.Money;
+import com.xai.insuranceagent.rating.QuoteLattice;
+import com.xai.insuranceagent.rating.RatingPlan;
+import com.xai.insuranceagent.rating.RiskDriver;
+import com.xai.insuranceagent.util.IdGenerator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Enhanced Quoting Service with detailed rule-based calculations
@@ -25,9 +49,28 @@ public class EnhancedQuotingService {
 
     private static final Logger logger = LoggerFactory.getLogger(EnhancedQuotingService.class);
 
+    private static final String DEFAULT_RATING_PLAN = "classpath:rating/rating-plan.json";
+    private static final String BUNDLE_ID_PREFIX = "BND";
+
+    // Rating factors a what-if grid dimension can vary
+    private static final int GRID_AGE = 0;
+    private static final int GRID_GENDER = 1;
+    private static final int GRID_LOCATION = 2;
+    private static final int GRID_RISK = 3;
+    private static final int GRID_FACTORS = 4;
+
     @Autowired
     private GuideWireClient guideWireClient;
 
+    @Autowired
+    private KeywordClassifier keywordClassifier;
+
+    @Autowired
+    private IdGenerator idGenerator;
+
+    @Autowired
+    private WorkloadExecutors workloadExecutors;
+
     @Value("${insurance.quoting.base-rate.auto}")
     private double autoBaseRate;
 
@@ -43,53 +86,197 @@ public class EnhancedQuotingService {
     @Value("${insurance.quoting.use-external-api}")
     private boolean useExternalApi;
 
+    @Value("${insurance.quoting.rating-plan:" + DEFAULT_RATING_PLAN + "}")
+    private String ratingPlanLocation;
+
+    @Value("${insurance.quoting.lattice.enabled:true}")
+    private boolean latticeEnabled;
+
+    @Value("${insurance.quoting.grid.max-cells:1000}")
+    private int maxGridCells;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private volatile QuoteLattice quoteLattice;
+
+    private final LongAdder latticeHits = new LongAdder();
+    private final LongAdder latticeMisses = new LongAdder();
+
+    /**
+     * Load the rating plan and precompute its premium lattice at startup so a
+     * broken plan fails fast
+     */
+    @PostConstruct
+    public void loadRatingPlan() {
+        QuoteLattice lattice = getQuoteLattice();
+        logger.info("Rating plan {} loaded from {} - Lattice cells: {}, Footprint: {} bytes, Enabled: {}",
+                lattice.getPlan().getVersion(), ratingPlanLocation, lattice.getPopulatedCells(),
+                lattice.getFootprintBytes(), latticeEnabled);
+
+        if (meterRegistry != null) {
+            Gauge.builder("quoting.lattice.cells", this, service -> service.getQuoteLattice().getPopulatedCells())
+                    .description("Rating cells with a precomputed premium")
+                    .register(meterRegistry);
+            Gauge.builder("quoting.lattice.memory", this, service -> service.getQuoteLattice().getFootprintBytes())
+                    .description("Approximate heap footprint of the premium lattice")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            Gauge.builder("quoting.lattice.hit.ratio", this, EnhancedQuotingService::getLatticeHitRatio)
+                    .description("Fraction of quotes priced from the premium lattice; the rest were "
+                            + "calculated in full around an external premium or with the lattice disabled")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * The compiled rating plan, loaded on first use
+     */
+    public RatingPlan getRatingPlan() {
+        return getQuoteLattice().getPlan();
+    }
+
+    /**
+     * The rating plan's precomputed premium lattice, built with the plan on
+     * first use
+     */
+    public QuoteLattice getQuoteLattice() {
+        QuoteLattice lattice = quoteLattice;
+        if (lattice == null) {
+            synchronized (this) {
+                lattice = quoteLattice;
+                if (lattice == null) {
+                    RatingPlan plan;
+                    try {
+                        plan = RatingPlan.load(new DefaultResourceLoader().getResource(ratingPlanLocation),
+                                keywordClassifier);
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Cannot load rating plan from " + ratingPlanLocation, e);
+                    }
+                    long[] basePremiumCents = new long[InsuranceType.values().length];
+                    for (InsuranceType type : InsuranceType.values()) {
+                        basePremiumCents[type.ordinal()] = getBasePremiumCents(plan, type);
+                    }
+                    lattice = QuoteLattice.build(plan, basePremiumCents, (type, ageBand, gender, urban, riskClass, base) ->
+                            calculatePremiumBreakdown(plan, type, ageBand, gender, urban, riskClass, base, true));
+                    quoteLattice = lattice;
+                }
+            }
+        }
+        return lattice;
+    }
+
+    /**
+     * Fraction of quotes served from the lattice since startup. Every rating
+     * cell is precomputed, so misses are the quotes that had to be calculated
+     * in full: external premiums enhanced with our breakdown, or any quote
+     * while the lattice is disabled.
+     */
+    public double getLatticeHitRatio() {
+        long hits = latticeHits.sum();
+        long total = hits + latticeMisses.sum();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
     /**
      * Generate quote with detailed rule-based calculation
      */
     public QuoteResponse generateDetailedQuote(QuoteRequest request) {
+        return generateDetailedQuote(request, QuoteDetail.ALL);
+    }
+
+    /**
+     * Generate quote with detailed rule-based calculation, rendering only
+     * the explanatory parts listed in {@code details}; QuoteDetail.LEAN
+     * returns the numeric core without any text formatting
+     */
+    public QuoteResponse generateDetailedQuote(QuoteRequest request, Set<QuoteDetail> details) {
         logger.info("Generating detailed quote - Type: {}, Age: {}, Gender: {}", 
                 request.getInsuranceType(), request.getAge(), request.getGender());
 
         try {
+            QuoteLattice lattice = getQuoteLattice();
+            RatingPlan plan = lattice.getPlan();
+
+            // Resolve the rating cell
+            int ageBand = plan.ageBand(request.getAge());
+            Gender gender = Gender.fromCode(request.getGender());
+            boolean urban = isUrban(plan, request);
+
+            return priceQuote(lattice, InsuranceType.fromCode(request.getInsuranceType()),
+                    ageBand, gender, urban, request, details);
+
+        } catch (Exception e) {
+            logger.error("Error generating detailed quote: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to generate quote", e);
+        }
+    }
+
+    /**
+     * Price one product for an already resolved age band, gender and
+     * location; only the product's risk class is derived here
+     */
+    private QuoteResponse priceQuote(QuoteLattice lattice, InsuranceType type, int ageBand, Gender gender,
+                                     boolean urban, QuoteRequest request, Set<QuoteDetail> details) {
+        RatingPlan plan = lattice.getPlan();
+        int riskClass = plan.riskClass(type, request);
+
+        QuoteResponse.PremiumBreakdown breakdown;
+        long totalPremiumCents;
+        int deductible;
+        if (latticeEnabled) {
+            // Precomputed premium, breakdown and deductible for the cell
+            int cell = lattice.cell(type, ageBand, gender, urban, riskClass);
+            breakdown = details.contains(QuoteDetail.BREAKDOWN)
+                    ? lattice.breakdown(cell, details.contains(QuoteDetail.NOTES)) : null;
+            totalPremiumCents = lattice.totalPremiumCents(cell);
+            deductible = lattice.deductible(cell);
+            latticeHits.increment();
+        } else {
             // Get base premium
-            double basePremium = getBasePremium(request.getInsuranceType());
+            long basePremiumCents = getBasePremiumCents(plan, type);
 
             // Calculate adjustments
-            QuoteResponse.PremiumBreakdown breakdown = calculatePremiumBreakdown(request, basePremium);
+            breakdown = calculatePremiumBreakdown(plan, type, ageBand, gender, urban, riskClass, basePremiumCents,
+                    details.contains(QuoteDetail.NOTES));
 
             // Calculate total premium
-            double totalPremium = basePremium + breakdown.getTotalAdjustment();
-            totalPremium = Math.round(totalPremium * 100.0) / 100.0;
+            totalPremiumCents = Money.add(basePremiumCents, Money.toCents(breakdown.getTotalAdjustment()));
+            if (!details.contains(QuoteDetail.BREAKDOWN)) {
+                breakdown = null;
+            }
 
             // Determine deductible
-            int deductible = calculateDeductible(request.getInsuranceType(), totalPremium);
-
-            // Generate coverage details
-            String coverageDetails = generateCoverageDetails(request);
-
-            // Build response
-            QuoteResponse response = QuoteResponse.builder()
-                    .premium(totalPremium)
-                    .totalPremium(totalPremium)
-                    .currency("USD")
-                    .coverage(getCoverageType(request.getInsuranceType()))
-                    .coverageDetails(coverageDetails)
-                    .deductible(deductible)
-                    .policyTerm("12 months")
-                    .quotedAt(LocalDateTime.now())
-                    .validUntil(LocalDate.now().plusDays(30).format(DateTimeFormatter.ISO_DATE))
-                    .quoteId(generateQuoteId(request.getInsuranceType()))
-                    .breakdown(breakdown)
-                    .build();
+            deductible = plan.deductibleForCents(type, totalPremiumCents);
+            latticeMisses.increment();
+        }
 
-            logger.info("Quote generated - ID: {}, Premium: ${}", response.getQuoteId(), totalPremium);
+        double totalPremium = Money.toDouble(totalPremiumCents);
+
+        // Generate coverage details
+        String coverageDetails = details.contains(QuoteDetail.COVERAGE_DETAILS)
+                ? generateCoverageDetails(type, request) : null;
+        String validUntil = details.contains(QuoteDetail.VALID_UNTIL)
+                ? LocalDate.now().plusDays(30).format(DateTimeFormatter.ISO_DATE) : null;
+
+        // Build response
+        QuoteResponse response = QuoteResponse.builder()
+                .premium(totalPremium)
+                .totalPremium(totalPremium)
+                .currency("USD")
+                .coverage(type.getCoverage())
+                .coverageDetails(coverageDetails)
+                .deductible(deductible)
+                .policyTerm("12 months")
+                .quotedAt(LocalDateTime.now())
+                .validUntil(validUntil)
+                .quoteId(generateQuoteId(type))
+                .breakdown(breakdown)
+                .build();
 
-            return response;
+        logger.info("Quote generated - ID: {}, Premium: ${}", response.getQuoteId(), totalPremium);
 
-        } catch (Exception e) {
-            logger.error("Error generating detailed quote: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to generate quote", e);
-        }
+        return response;
     }
 
     /**
@@ -100,225 +287,350 @@ public class EnhancedQuotingService {
 
         if (useExternalApi) {
             return guideWireClient.getQuoteAsync(request)
-                    .thenApply(externalQuote -> enhanceExternalQuote(request, externalQuote))
-                    .exceptionally(throwable -> {
+                    .thenApplyAsync(externalQuote -> enhanceExternalQuote(request, externalQuote),
+                            workloadExecutors.cpu())
+                    .exceptionallyAsync(throwable -> {
+                        // A full CPU pool is shed as 503, not priced here instead
+                        ExecutorSaturatedException.rethrowIfSaturated(throwable);
                         logger.error("External API failed, falling back to local calculation", throwable);
                         return generateDetailedQuote(request);
-                    });
+                    }, workloadExecutors.cpu());
         } else {
-            return CompletableFuture.supplyAsync(() -> generateDetailedQuote(request));
+            return CompletableFuture.supplyAsync(() -> generateDetailedQuote(request), workloadExecutors.cpu());
         }
     }
 
     /**
-     * Calculate premium breakdown with all factors
+     * Quote several products for one applicant in a single pass. The shared
+     * age band, gender and location are resolved once and each product only
+     * adds its risk class; with the external API enabled the product quotes
+     * are requested in parallel. The plan's multi-policy discount is applied
+     * to the combined premium.
      */
-    private QuoteResponse.PremiumBreakdown calculatePremiumBreakdown(QuoteRequest request, double basePremium) {
-        double ageFactor = calculateAgeFactor(request.getAge(), basePremium);
-        double genderFactor = calculateGenderFactor(request.getGender(), request.getInsuranceType(), basePremium);
-        double locationFactor = calculateLocationFactor(request.getAddress(), request.getIsUrbanArea(), basePremium);
-        double riskFactor = calculateRiskFactor(request, basePremium);
+    public BundleQuoteResponse generateBundleQuote(BundleQuoteRequest request, Set<QuoteDetail> details) {
+        List<InsuranceType> types = bundleTypes(request.getInsuranceTypes());
+        logger.info("Generating bundle quote - Types: {}, Age: {}", types, request.getAge());
 
-        double totalAdjustment = ageFactor + genderFactor + locationFactor + riskFactor;
-        
-        String notes = buildCalculationNotes(request, ageFactor, genderFactor, locationFactor, riskFactor);
+        try {
+            QuoteLattice lattice = getQuoteLattice();
+            RatingPlan plan = lattice.getPlan();
+            List<QuoteResponse> quotes = new ArrayList<>(types.size());
+
+            QuoteRequest applicant = request.forProduct(null);
+            int ageBand = plan.ageBand(request.getAge());
+            Gender gender = Gender.fromCode(request.getGender());
+            boolean urban = isUrban(plan, applicant);
+
+            if (useExternalApi) {
+                // One external round trip per product, all in flight at once; the
+                // breakdown is added on the CPU pool, not the HTTP client's thread
+                List<CompletableFuture<QuoteResponse>> futures = new ArrayList<>(types.size());
+                for (InsuranceType type : types) {
+                    QuoteRequest product = request.forProduct(type.getCode());
+                    futures.add(guideWireClient.getQuoteAsync(product)
+                            .thenApplyAsync(externalQuote -> enhanceExternalQuote(plan, type, ageBand, gender, urban,
+                                    product, externalQuote), workloadExecutors.cpu())
+                            .exceptionallyAsync(throwable -> {
+                                ExecutorSaturatedException.rethrowIfSaturated(throwable);
+                                logger.error("External API failed, falling back to local calculation", throwable);
+                                return priceQuote(lattice, type, ageBand, gender, urban, product, details);
+                            }, workloadExecutors.cpu()));
+                }
+                for (CompletableFuture<QuoteResponse> future : futures) {
+                    quotes.add(withDetails(future.join(), details));
+                }
+            } else {
+                for (InsuranceType type : types) {
+                    applicant.setInsuranceType(type.getCode());
+                    quotes.add(priceQuote(lattice, type, ageBand, gender, urban, applicant, details));
+                }
+            }
 
-        return QuoteResponse.PremiumBreakdown.builder()
-                .basePremium(basePremium)
-                .ageFactor(Math.round(ageFactor * 100.0) / 100.0)
-                .genderFactor(Math.round(genderFactor * 100.0) / 100.0)
-                .locationFactor(Math.round(locationFactor * 100.0) / 100.0)
-                .riskFactor(Math.round(riskFactor * 100.0) / 100.0)
-                .totalAdjustment(Math.round(totalAdjustment * 100.0) / 100.0)
-                .calculationNotes(notes)
-                .build();
+            long subtotalCents = 0;
+            for (QuoteResponse quote : quotes) {
+                subtotalCents = Money.add(subtotalCents, Money.toCents(quote.getTotalPremium()));
+            }
+            long discountRate = plan.bundleDiscountRate(types.size());
+            long discountCents = Money.multiply(subtotalCents, discountRate);
+            long totalCents = subtotalCents - discountCents;
+
+            BundleQuoteResponse response = BundleQuoteResponse.builder()
+                    .bundleId(idGenerator.nextId(BUNDLE_ID_PREFIX))
+                    .quotes(quotes)
+                    .subtotalPremium(Money.toDouble(subtotalCents))
+                    .discountRate(Money.ppmToDouble(discountRate))
+                    .discountAmount(Money.toDouble(discountCents))
+                    .totalPremium(Money.toDouble(totalCents))
+                    .currency("USD")
+                    .ratingPlanVersion(plan.getVersion())
+                    .quotedAt(LocalDateTime.now())
+                    .build();
+
+            logger.info("Bundle quote generated - ID: {}, Products: {}, Premium: ${}",
+                    response.getBundleId(), types.size(), response.getTotalPremium());
+
+            return response;
+
+        } catch (Exception e) {
+            ExecutorSaturatedException.rethrowIfSaturated(e);
+            logger.error("Error generating bundle quote: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to generate bundle quote", e);
+        }
     }
 
-    /**
-     * Calculate age-based premium adjustment
-     * Auto insurance: age < 25 +20%, age > 65 +15%
-     */
-    private double calculateAgeFactor(Integer age, double basePremium) {
-        if (age < 25) {
-            logger.debug("Age factor: Young driver surcharge (+20%)");
-            return basePremium * 0.20;
-        } else if (age > 65) {
-            logger.debug("Age factor: Senior driver surcharge (+15%)");
-            return basePremium * 0.15;
-        } else if (age >= 25 && age <= 35) {
-            logger.debug("Age factor: Discount for optimal age group (-5%)");
-            return basePremium * -0.05;
+    private static List<InsuranceType> bundleTypes(List<String> codes) {
+        if (codes == null || codes.isEmpty()) {
+            throw new IllegalArgumentException("At least one insurance type is required");
+        }
+        List<InsuranceType> types = new ArrayList<>(codes.size());
+        for (String code : codes) {
+            InsuranceType type = InsuranceType.fromCode(code);
+            if (types.contains(type)) {
+                throw new IllegalArgumentException("Insurance type '" + code + "' appears more than once in the bundle");
+            }
+            types.add(type);
         }
-        return 0.0;
+        return types;
     }
 
     /**
-     * Calculate gender-based premium adjustment
+     * Drop the explanatory parts of an already built quote that were not asked for
      */
-    private double calculateGenderFactor(String gender, String insuranceType, double basePremium) {
-        if (gender == null) {
-            return 0.0;
+    private static QuoteResponse withDetails(QuoteResponse quote, Set<QuoteDetail> details) {
+        if (!details.contains(QuoteDetail.COVERAGE_DETAILS)) {
+            quote.setCoverageDetails(null);
         }
-
-        // Auto insurance: male drivers typically pay more
-        if ("auto".equals(insuranceType) && "male".equals(gender.toLowerCase())) {
-            logger.debug("Gender factor: Male driver surcharge (+8%)");
-            return basePremium * 0.08;
+        if (!details.contains(QuoteDetail.VALID_UNTIL)) {
+            quote.setValidUntil(null);
         }
-
-        return 0.0;
+        if (!details.contains(QuoteDetail.BREAKDOWN)) {
+            quote.setBreakdown(null);
+        } else if (!details.contains(QuoteDetail.NOTES) && quote.getBreakdown() != null) {
+            quote.getBreakdown().setCalculationNotes(null);
+        }
+        return quote;
     }
 
     /**
-     * Calculate location-based premium adjustment
-     * City address +10%
+     * Price every combination of the requested dimension values in one pass.
+     * The base request's factor rates are resolved once; each dimension value
+     * is resolved once to the one factor rate it changes, so a cell costs a
+     * few additions and a single multiply-and-round.
      */
-    private double calculateLocationFactor(String address, Boolean isUrbanArea, double basePremium) {
-        if (isUrbanArea != null && isUrbanArea) {
-            logger.debug("Location factor: Urban area surcharge (+10%)");
-            return basePremium * 0.10;
+    public QuoteGridResponse generateQuoteGrid(QuoteGridRequest request) {
+        QuoteRequest base = request.getBase();
+        List<QuoteGridRequest.Dimension> dimensions = request.getDimensions();
+        RatingPlan plan = getRatingPlan();
+        InsuranceType type = InsuranceType.fromCode(base.getInsuranceType());
+        long basePremiumCents = getBasePremiumCents(plan, type);
+
+        // Invariant part: the base request's rate for each factor
+        long[] baseRates = new long[GRID_FACTORS];
+        baseRates[GRID_AGE] = plan.ageRate(plan.ageBand(base.getAge()));
+        baseRates[GRID_GENDER] = plan.genderRate(type, Gender.fromCode(base.getGender()));
+        baseRates[GRID_LOCATION] = plan.locationRate(isUrban(plan, base));
+        baseRates[GRID_RISK] = plan.riskRate(type, plan.riskClass(type, base));
+
+        // Per dimension: the factor it overrides (-1 if it does not affect this product) and its rates
+        int[] factor = new int[dimensions.size()];
+        long[][] rates = new long[dimensions.size()][];
+        Set<String> fields = new HashSet<>();
+        int cells = 1;
+        for (int d = 0; d < dimensions.size(); d++) {
+            QuoteGridRequest.Dimension dimension = dimensions.get(d);
+            if (!fields.add(dimension.getField())) {
+                throw new IllegalArgumentException("Dimension '" + dimension.getField() + "' appears more than once");
+            }
+            cells *= dimension.getValues().size();
+            if (cells > maxGridCells) {
+                throw new IllegalArgumentException("Grid exceeds the maximum of " + maxGridCells + " cells");
+            }
+            factor[d] = gridFactor(plan, type, dimension.getField());
+            rates[d] = new long[dimension.getValues().size()];
+            for (int v = 0; v < rates[d].length; v++) {
+                rates[d][v] = gridRate(plan, type, base, dimension.getField(), dimension.getValues().get(v));
+            }
         }
 
-        // Check address for major cities
-        if (address != null) {
-            String lowerAddress = address.toLowerCase();
-            if (lowerAddress.contains("beijing") || lowerAddress.contains("shanghai") ||
-                lowerAddress.contains("guangzhou") || lowerAddress.contains("shenzhen") ||
-                lowerAddress.contains("new york") || lowerAddress.contains("los angeles")) {
-                logger.debug("Location factor: Major city surcharge (+10%)");
-                return basePremium * 0.10;
+        double[] premiums = new double[cells];
+        int[] deductibles = new int[cells];
+        long[] cellRates = baseRates.clone();
+        int[] index = new int[dimensions.size()];
+        for (int cell = 0; cell < cells; cell++) {
+            for (int d = 0; d < factor.length; d++) {
+                if (factor[d] >= 0) {
+                    cellRates[factor[d]] = rates[d][index[d]];
+                }
+            }
+            long rate = cellRates[GRID_AGE] + cellRates[GRID_GENDER] + cellRates[GRID_LOCATION] + cellRates[GRID_RISK];
+            long totalPremiumCents = Money.add(basePremiumCents,
+                    Money.micros(Money.product(basePremiumCents, rate), Money.DEFAULT_ROUNDING));
+            premiums[cell] = Money.toDouble(totalPremiumCents);
+            deductibles[cell] = plan.deductibleForCents(type, totalPremiumCents);
+
+            // Advance the row-major index, last dimension fastest
+            for (int d = index.length - 1; d >= 0 && ++index[d] == rates[d].length; d--) {
+                index[d] = 0;
             }
         }
 
-        return 0.0;
+        logger.info("Quote grid generated - Type: {}, Dimensions: {}, Cells: {}", type.getCode(), fields, cells);
+
+        return QuoteGridResponse.builder()
+                .insuranceType(type.getCode())
+                .currency("USD")
+                .ratingPlanVersion(plan.getVersion())
+                .basePremium(Money.toDouble(basePremiumCents))
+                .dimensions(dimensions)
+                .premiums(premiums)
+                .deductibles(deductibles)
+                .quotedAt(LocalDateTime.now())
+                .build();
     }
 
     /**
-     * Calculate risk-based premium adjustment
-     * Health insurance: smoker=true +15%
-     * Auto insurance: vehicle model factors
+     * The rating factor a grid field drives for this product, or -1 if it
+     * is a risk input the product's risk driver does not read
      */
-    private double calculateRiskFactor(QuoteRequest request, double basePremium) {
-        double riskAdjustment = 0.0;
-
-        switch (request.getInsuranceType().toLowerCase()) {
-            case "health":
-                if (request.getSmoker() != null && request.getSmoker()) {
-                    logger.debug("Risk factor: Smoker surcharge (+15%)");
-                    riskAdjustment += basePremium * 0.15;
-                }
-                break;
-
-            case "auto":
-                if (request.getVehicleModel() != null) {
-                    String vehicle = request.getVehicleModel().toLowerCase();
-                    if (vehicle.contains("sports") || vehicle.contains("ferrari") || 
-                        vehicle.contains("lamborghini") || vehicle.contains("porsche")) {
-                        logger.debug("Risk factor: High-performance vehicle (+25%)");
-                        riskAdjustment += basePremium * 0.25;
-                    } else if (vehicle.contains("tesla") || vehicle.contains("bmw") || 
-                               vehicle.contains("mercedes")) {
-                        logger.debug("Risk factor: Luxury vehicle (+12%)");
-                        riskAdjustment += basePremium * 0.12;
-                    } else if (vehicle.contains("suv") || vehicle.contains("truck")) {
-                        logger.debug("Risk factor: Large vehicle (+8%)");
-                        riskAdjustment += basePremium * 0.08;
-                    }
-                }
-                break;
+    private static int gridFactor(RatingPlan plan, InsuranceType type, String field) {
+        return switch (field) {
+            case "age" -> GRID_AGE;
+            case "gender" -> GRID_GENDER;
+            case "isUrbanArea" -> GRID_LOCATION;
+            case "vehicleModel" -> plan.riskDriver(type) == RiskDriver.VEHICLE_MODEL ? GRID_RISK : -1;
+            case "occupation" -> plan.riskDriver(type) == RiskDriver.OCCUPATION ? GRID_RISK : -1;
+            case "smoker" -> plan.riskDriver(type) == RiskDriver.SMOKER ? GRID_RISK : -1;
+            case "propertyValue" -> plan.riskDriver(type) == RiskDriver.PROPERTY_VALUE ? GRID_RISK : -1;
+            default -> throw new IllegalArgumentException("Unsupported grid dimension '" + field + "'");
+        };
+    }
 
-            case "home":
-                if (request.getPropertyValue() != null && request.getPropertyValue() > 1000000) {
-                    logger.debug("Risk factor: High-value property (+18%)");
-                    riskAdjustment += basePremium * 0.18;
+    private long gridRate(RatingPlan plan, InsuranceType type, QuoteRequest base, String field, String value) {
+        try {
+            return switch (field) {
+                case "age" -> {
+                    int age = Integer.parseInt(value.trim());
+                    if (age < 18 || age > 100) {
+                        throw new IllegalArgumentException("Grid age " + age + " is outside 18..100");
+                    }
+                    yield plan.ageRate(plan.ageBand(age));
                 }
-                break;
-
-            case "life":
-                if (request.getOccupation() != null) {
-                    String occupation = request.getOccupation().toLowerCase();
-                    if (occupation.contains("pilot") || occupation.contains("miner") || 
-                        occupation.contains("construction")) {
-                        logger.debug("Risk factor: High-risk occupation (+20%)");
-                        riskAdjustment += basePremium * 0.20;
+                case "gender" -> {
+                    Gender gender = Gender.fromCode(value);
+                    if (gender == Gender.UNSPECIFIED) {
+                        throw new IllegalArgumentException("Grid gender must be one of: male, female, other");
                     }
+                    yield plan.genderRate(type, gender);
                 }
-                break;
+                case "isUrbanArea" -> plan.locationRate(parseBoolean(value) || plan.isUrbanAddress(base.getAddress()));
+                case "vehicleModel" -> plan.riskRate(type,
+                        plan.riskClass(type, QuoteRequest.builder().vehicleModel(value).build()));
+                case "occupation" -> plan.riskRate(type,
+                        plan.riskClass(type, QuoteRequest.builder().occupation(value).build()));
+                case "smoker" -> plan.riskRate(type,
+                        plan.riskClass(type, QuoteRequest.builder().smoker(parseBoolean(value)).build()));
+                case "propertyValue" -> plan.riskRate(type,
+                        plan.riskClass(type, QuoteRequest.builder().propertyValue(Double.parseDouble(value)).build()));
+                default -> throw new IllegalArgumentException("Unsupported grid dimension '" + field + "'");
+            };
+        } catch (NumberFormatException | NullPointerException e) {
+            throw new IllegalArgumentException("Invalid value '" + value + "' for grid dimension " + field);
         }
+    }
 
-        return riskAdjustment;
+    private static boolean parseBoolean(String value) {
+        if ("true".equalsIgnoreCase(value)) {
+            return true;
+        }
+        if ("false".equalsIgnoreCase(value)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Expected true or false but was '" + value + "'");
     }
 
-    private double getBasePremium(String insuranceType) {
-        return switch (insuranceType.toLowerCase()) {
-            case "auto" -> autoBaseRate;
-            case "home" -> homeBaseRate;
-            case "life" -> lifeBaseRate;
-            case "health" -> healthBaseRate;
-            default -> 1000.0;
-        };
+    private boolean isUrban(RatingPlan plan, QuoteRequest request) {
+        return Boolean.TRUE.equals(request.getIsUrbanArea()) || plan.isUrbanAddress(request.getAddress());
     }
 
-    private int calculateDeductible(String insuranceType, double premium) {
-        return switch (insuranceType.toLowerCase()) {
-            case "auto" -> premium > 2000 ? 1000 : 500;
-            case "home" -> premium > 1500 ? 750 : 500;
-            case "health" -> premium > 1000 ? 500 : 250;
-            default -> 500;
-        };
+    /**
+     * Calculate premium breakdown with all factors by walking the rating
+     * plan tables: age band, gender, location and product risk class.
+     *
+     * Amounts are exact products of cents and ppm rates; each factor is
+     * rounded to cents for display and the total adjustment is rounded once
+     * from the exact sum, so it never drifts from the factors' true total.
+     * Calculation notes are only rendered when {@code withNotes} is set.
+     */
+    private QuoteResponse.PremiumBreakdown calculatePremiumBreakdown(RatingPlan plan, InsuranceType type,
+                                                                     int ageBand, Gender gender, boolean urban,
+                                                                     int riskClass, long basePremiumCents,
+                                                                     boolean withNotes) {
+        long ageFactor = Money.product(basePremiumCents, plan.ageRate(ageBand));
+        long genderFactor = Money.product(basePremiumCents, plan.genderRate(type, gender));
+        long locationFactor = Money.product(basePremiumCents, plan.locationRate(urban));
+        long riskFactor = Money.product(basePremiumCents, plan.riskRate(type, riskClass));
+
+        long totalAdjustment = Money.add(Money.add(ageFactor, genderFactor), Money.add(locationFactor, riskFactor));
+
+        long ageCents = Money.micros(ageFactor, Money.DEFAULT_ROUNDING);
+        long genderCents = Money.micros(genderFactor, Money.DEFAULT_ROUNDING);
+        long locationCents = Money.micros(locationFactor, Money.DEFAULT_ROUNDING);
+        long riskCents = Money.micros(riskFactor, Money.DEFAULT_ROUNDING);
+
+        String notes = withNotes ? buildCalculationNotes(ageCents, genderCents, locationCents, riskCents) : null;
+
+        return QuoteResponse.PremiumBreakdown.builder()
+                .basePremium(Money.toDouble(basePremiumCents))
+                .ageFactor(Money.toDouble(ageCents))
+                .genderFactor(Money.toDouble(genderCents))
+                .locationFactor(Money.toDouble(locationCents))
+                .riskFactor(Money.toDouble(riskCents))
+                .totalAdjustment(Money.toDouble(Money.micros(totalAdjustment, Money.DEFAULT_ROUNDING)))
+                .calculationNotes(notes)
+                .ratingPlanVersion(plan.getVersion())
+                .build();
     }
 
-    private String getCoverageType(String insuranceType) {
-        return switch (insuranceType.toLowerCase()) {
-            case "auto" -> "comprehensive";
-            case "home" -> "full-coverage";
-            case "life" -> "term-life";
-            case "health" -> "comprehensive";
-            default -> "standard";
+    private long getBasePremiumCents(RatingPlan plan, InsuranceType type) {
+        return switch (type) {
+            case AUTO -> Money.toCents(autoBaseRate);
+            case HOME -> Money.toCents(homeBaseRate);
+            case LIFE -> Money.toCents(lifeBaseRate);
+            case HEALTH -> Money.toCents(healthBaseRate);
+            case OTHER -> plan.getDefaultBasePremiumCents();
         };
     }
 
-    private String generateCoverageDetails(QuoteRequest request) {
-        return switch (request.getInsuranceType().toLowerCase()) {
-            case "auto" -> String.format("Comprehensive auto coverage including liability, collision, and theft protection for %s. Roadside assistance included.",
+    private String generateCoverageDetails(InsuranceType type, QuoteRequest request) {
+        return switch (type) {
+            case AUTO -> String.format("Comprehensive auto coverage including liability, collision, and theft protection for %s. Roadside assistance included.",
                     request.getVehicleModel() != null ? request.getVehicleModel() : "your vehicle");
-            case "home" -> "Full home protection covering structure, contents, liability, and natural disasters.";
-            case "life" -> "Term life insurance with flexible coverage options and beneficiary protection.";
-            case "health" -> "Comprehensive health coverage including hospitalization, outpatient care, and preventive services.";
-            default -> "Standard insurance coverage with comprehensive protection.";
+            case HOME -> "Full home protection covering structure, contents, liability, and natural disasters.";
+            case LIFE -> "Term life insurance with flexible coverage options and beneficiary protection.";
+            case HEALTH -> "Comprehensive health coverage including hospitalization, outpatient care, and preventive services.";
+            case OTHER -> "Standard insurance coverage with comprehensive protection.";
         };
     }
 
-    private String generateQuoteId(String insuranceType) {
-        String prefix = switch (insuranceType.toLowerCase()) {
-            case "auto" -> "AUT";
-            case "home" -> "HOM";
-            case "life" -> "LIF";
-            case "health" -> "HLT";
-            default -> "INS";
-        };
-        
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        String uniqueId = UUID.randomUUID().toString().substring(0, 6).toUpperCase();
-        
-        return String.format("%s-%s-%s", prefix, timestamp, uniqueId);
+    private String generateQuoteId(InsuranceType type) {
+        return idGenerator.nextId(type.getQuotePrefix());
     }
 
-    private String buildCalculationNotes(QuoteRequest request, double ageFactor, 
-                                         double genderFactor, double locationFactor, double riskFactor) {
+    private String buildCalculationNotes(long ageFactor, long genderFactor,
+                                         long locationFactor, long riskFactor) {
         StringBuilder notes = new StringBuilder("Premium calculated based on: ");
         
         if (ageFactor != 0) {
-            notes.append("age adjustment ($").append(String.format("%.2f", ageFactor)).append("), ");
+            notes.append("age adjustment ($").append(Money.format(ageFactor)).append("), ");
         }
         if (genderFactor != 0) {
-            notes.append("gender factor ($").append(String.format("%.2f", genderFactor)).append("), ");
+            notes.append("gender factor ($").append(Money.format(genderFactor)).append("), ");
         }
         if (locationFactor != 0) {
-            notes.append("location surcharge ($").append(String.format("%.2f", locationFactor)).append("), ");
+            notes.append("location surcharge ($").append(Money.format(locationFactor)).append("), ");
         }
         if (riskFactor != 0) {
-            notes.append("risk factors ($").append(String.format("%.2f", riskFactor)).append("), ");
+            notes.append("risk factors ($").append(Money.format(riskFactor)).append("), ");
         }
         
         if (notes.toString().endsWith(", ")) {
@@ -329,10 +641,20 @@ public class EnhancedQuotingService {
     }
 
     private QuoteResponse enhanceExternalQuote(QuoteRequest request, QuoteResponse externalQuote) {
-        // Enhance external quote with our breakdown
-        QuoteResponse.PremiumBreakdown breakdown = calculatePremiumBreakdown(
-                request, externalQuote.getPremium());
-        
+        RatingPlan plan = getRatingPlan();
+        return enhanceExternalQuote(plan, InsuranceType.fromCode(request.getInsuranceType()),
+                plan.ageBand(request.getAge()), Gender.fromCode(request.getGender()), isUrban(plan, request),
+                request, externalQuote);
+    }
+
+    private QuoteResponse enhanceExternalQuote(RatingPlan plan, InsuranceType type, int ageBand, Gender gender,
+                                               boolean urban, QuoteRequest request, QuoteResponse externalQuote) {
+        // Enhance external quote with our breakdown (always calculated in full:
+        // the external premium is not one of the lattice's base rates)
+        QuoteResponse.PremiumBreakdown breakdown = calculatePremiumBreakdown(plan, type, ageBand, gender, urban,
+                plan.riskClass(type, request), Money.toCents(externalQuote.getPremium()), true);
+        latticeMisses.increment();
+
         externalQuote.setBreakdown(breakdown);
         return externalQuote;
     }
@@ -355,17 +677,8 @@ public class EnhancedQuotingService {
                 .name(customer.getName())
                 .email(customer.getEmail())
                 .phone(customer.getPhone())
-                .isUrbanArea(isUrbanArea(customer.getAddress()))
+                .isUrbanArea(keywordClassifier.isUrban(customer.getAddress()))
                 .build();
     }
-
-    private boolean isUrbanArea(String address) {
-        if (address == null) return false;
-        String lower = address.toLowerCase();
-        return lower.contains("beijing") || lower.contains("shanghai") ||
-               lower.contains("guangzhou") || lower.contains("shenzhen") ||
-               lower.contains("new york") || lower.contains("los angeles") ||
-               lower.contains("city");
-    }
 }
 
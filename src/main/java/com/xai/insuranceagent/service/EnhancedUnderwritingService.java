@@ -1,21 +1,37 @@
 package com.xai.insuranceagent.service;
 
 import com.xai.insuranceagent.client.CreditScoreClient;
+import com.xai.insuranceagent.concurrent.ExecutorSaturatedException;
+import com.xai.insuranceagent.concurrent.WorkloadExecutors;
 import com.xai.insuranceagent.model.underwriting.CustomerRiskProfile;
+import com.xai.insuranceagent.model.underwriting.ReviewOutcome;
 import com.xai.insuranceagent.model.underwriting.UnderwritingDecision;
+import com.xai.insuranceagent.rating.Money;
+import com.xai.insuranceagent.rules.RuleRunner;
+import com.xai.insuranceagent.rules.RuleSessionExecutor;
 import com.xai.insuranceagent.util.EncryptionUtil;
-import org.kie.api.runtime.KieContainer;
-import org.kie.api.runtime.KieSession;
+import com.xai.insuranceagent.util.IdGenerator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.UUID;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Enhanced Underwriting Service with Drools Rules Engine
@@ -25,9 +41,12 @@ import java.util.concurrent.CompletableFuture;
 public class EnhancedUnderwritingService {
 
     private static final Logger logger = LoggerFactory.getLogger(EnhancedUnderwritingService.class);
+    private static final int DEFAULT_BATCH_PARTITION_SIZE = 250;
+    static final String DECISION_ID_PREFIX = "DEC";
+    private static final long PPM_PER_RISK_POINT = 10_000;
 
     @Autowired
-    private KieContainer kieContainer;
+    private RuleSessionExecutor ruleSessionExecutor;
 
     @Autowired
     private CreditScoreClient creditScoreClient;
@@ -35,19 +54,60 @@ public class EnhancedUnderwritingService {
     @Autowired
     private EncryptionUtil encryptionUtil;
 
+    @Autowired
+    private IdGenerator idGenerator;
+
+    @Autowired
+    private WorkloadExecutors workloadExecutors;
+
     @Autowired(required = false)
     private MLUnderwritingService mlUnderwritingService;
 
+    @Autowired(required = false)
+    private UnderwritingDecisionCache decisionCache;
+
+    @Autowired(required = false)
+    private CreditScoreCache creditScoreCache;
+
+    @Autowired(required = false)
+    private IncrementalLearningService incrementalLearner;
+
     @Value("${insurance.underwriting.use-ml}")
     private boolean useML;
 
     @Value("${insurance.underwriting.use-external-credit-check}")
     private boolean useExternalCreditCheck;
 
+    @Autowired(required = false)
+    private Validator validator;
+
+    @Value("${insurance.underwriting.batch.partition-size:250}")
+    private int batchPartitionSize;
+
+    @Value("${insurance.underwriting.enrichment.deadline-ms:2000}")
+    private long enrichmentDeadlineMs;
+
     /**
      * Perform underwriting assessment synchronously
      */
     public UnderwritingDecision performUnderwriting(CustomerRiskProfile riskProfile) {
+        return performUnderwriting(riskProfile, ruleSessionExecutor.forCurrentRuleset());
+    }
+
+    /**
+     * Perform underwriting assessment, firing rules through the given runner
+     */
+    private UnderwritingDecision performUnderwriting(CustomerRiskProfile riskProfile, RuleRunner rules) {
+        // Start external lookups, then prepare everything that does not depend on them
+        return performUnderwriting(riskProfile, rules, startEnrichment(riskProfile));
+    }
+
+    /**
+     * Perform underwriting assessment once the given lookups complete; each
+     * lookup is bounded by the enrichment deadline
+     */
+    private UnderwritingDecision performUnderwriting(CustomerRiskProfile riskProfile, RuleRunner rules,
+                                                     List<CompletableFuture<Consumer<CustomerRiskProfile>>> enrichment) {
         logger.info("Starting underwriting for customer: {}, Type: {}", 
                 riskProfile.getCustomerId(), riskProfile.getInsuranceType());
 
@@ -55,16 +115,25 @@ public class EnhancedUnderwritingService {
             // Log sensitive data access for compliance
             logComplianceEvent(riskProfile);
 
-            // Enrich profile with external data if needed
-            if (useExternalCreditCheck && !riskProfile.getExternalCreditCheckCompleted()) {
-                enrichWithCreditScore(riskProfile);
-            }
-
-            // Initialize decision object
+            String generation = modelGeneration(rules);
             UnderwritingDecision decision = initializeDecision(riskProfile);
+            decision.setRulesetVersion(rules.getRulesetVersion());
+            int typeSpecificRisk = calculateTypeSpecificRisk(riskProfile);
+
+            joinEnrichment(riskProfile, enrichment);
+
+            // Serve equivalent profiles decided under the current ruleset/model from cache
+            if (decisionCache != null) {
+                Optional<UnderwritingDecision> cached = decisionCache.get(riskProfile, generation);
+                if (cached.isPresent()) {
+                    logger.info("Underwriting served from decision cache - Decision: {}",
+                            cached.get().getDecision());
+                    return cached.get();
+                }
+            }
 
             // Apply rules engine
-            applyRulesEngine(riskProfile, decision);
+            applyRulesEngine(riskProfile, decision, rules);
 
             // If rules didn't make a decision, use ML or standard assessment
             if (decision.getDecision() == null) {
@@ -72,7 +141,7 @@ public class EnhancedUnderwritingService {
                     decision = mlUnderwritingService.assessRiskWithML(riskProfile, decision);
                     decision.setDecisionMethod("MACHINE_LEARNING");
                 } else {
-                    performStandardAssessment(riskProfile, decision);
+                    performStandardAssessment(riskProfile, decision, typeSpecificRisk);
                     decision.setDecisionMethod("STANDARD_ASSESSMENT");
                 }
             } else {
@@ -81,7 +150,7 @@ public class EnhancedUnderwritingService {
 
             // Calculate final risk score if not set
             if (decision.getRiskScore() == null) {
-                decision.setRiskScore(calculateRiskScore(riskProfile));
+                decision.setRiskScore(calculateRiskScore(riskProfile, typeSpecificRisk));
             }
 
             // Compliance check
@@ -93,83 +162,247 @@ public class EnhancedUnderwritingService {
             logger.info("Underwriting completed - Decision: {}, Risk Level: {}, Score: {}", 
                     decision.getDecision(), decision.getRiskLevel(), decision.getRiskScore());
 
+            if (decisionCache != null) {
+                decisionCache.put(riskProfile, generation, decision);
+            }
+
+            // Feed final (non-ML) decisions to the online learner; REFERs are learned from review outcomes
+            if (incrementalLearner != null && isFinalDecision(decision)
+                    && !"MACHINE_LEARNING".equals(decision.getDecisionMethod())) {
+                incrementalLearner.submit(riskProfile, decision.getDecision());
+            }
+
             return decision;
 
         } catch (Exception e) {
+            ExecutorSaturatedException.rethrowIfSaturated(e);
             logger.error("Error in underwriting process: {}", e.getMessage(), e);
             throw new RuntimeException("Underwriting failed", e);
         }
     }
 
     /**
-     * Perform underwriting assessment asynchronously
+     * Record the outcome of a manual review of a referred decision so the
+     * online learner can learn from it. Returns false if it was not queued.
+     */
+    public boolean recordReviewOutcome(ReviewOutcome outcome) {
+        logger.info("Manual review outcome - Decision ID: {}, Outcome: {}",
+                outcome.getDecisionId(), outcome.getDecision());
+        if (incrementalLearner == null) {
+            return false;
+        }
+        return incrementalLearner.submit(outcome.getRiskProfile(), outcome.getDecision());
+    }
+
+    private boolean isFinalDecision(UnderwritingDecision decision) {
+        return "APPROVE".equals(decision.getDecision()) || "REJECT".equals(decision.getDecision());
+    }
+
+    /**
+     * Identifies the ruleset and ML model a decision is produced by
+     */
+    private String modelGeneration(RuleRunner rules) {
+        String generation = rules.getRulesetVersion();
+        if (useML && mlUnderwritingService != null) {
+            generation += "/" + mlUnderwritingService.getModelVersion();
+        }
+        return String.valueOf(generation);
+    }
+
+    /**
+     * Perform underwriting assessment asynchronously. The external lookups
+     * run on the external-api pool; rules and scoring continue on the cpu
+     * pool only once every lookup has completed or hit the enrichment
+     * deadline, so no cpu thread waits on I/O. A saturated pool fails the
+     * future with ExecutorSaturatedException instead of an error decision.
      */
     public CompletableFuture<UnderwritingDecision> performUnderwritingAsync(CustomerRiskProfile riskProfile) {
         logger.info("Starting async underwriting for customer: {}", riskProfile.getCustomerId());
-        
-        return CompletableFuture.supplyAsync(() -> performUnderwriting(riskProfile))
+
+        List<CompletableFuture<Consumer<CustomerRiskProfile>>> enrichment = startEnrichment(riskProfile);
+        return CompletableFuture.allOf(enrichment.toArray(new CompletableFuture[0]))
+                .thenApplyAsync(ignored -> performUnderwriting(riskProfile, ruleSessionExecutor.forCurrentRuleset(),
+                        enrichment), workloadExecutors.cpu())
                 .exceptionally(throwable -> {
-                    logger.error("Async underwriting failed: {}", throwable.getMessage());
-                    return createErrorDecision(riskProfile, throwable.getMessage());
+                    ExecutorSaturatedException.rethrowIfSaturated(throwable);
+                    Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                            ? throwable.getCause() : throwable;
+                    logger.error("Async underwriting failed: {}", cause.getMessage());
+                    return createErrorDecision(riskProfile, cause.getMessage());
                 });
     }
 
+    /**
+     * Underwrite a batch of profiles, partitioned across the batch pool. Each
+     * partition runs in its own reused rule session; partition results are
+     * handed to the sink in submission order as soon as they (and all earlier
+     * ones) complete. Per-item failures become REFER error decisions instead
+     * of failing the batch; a saturated batch pool fails the whole batch with
+     * ExecutorSaturatedException before anything reaches the sink.
+     */
+    public void performUnderwritingBatch(List<CustomerRiskProfile> riskProfiles,
+                                         Consumer<List<UnderwritingDecision>> partitionSink) {
+        int size = riskProfiles.size();
+        int parallelism = workloadExecutors.batchParallelism();
+        int partitionSize = Math.max(1, Math.min(batchPartitionSize > 0 ? batchPartitionSize : DEFAULT_BATCH_PARTITION_SIZE,
+                (size + parallelism - 1) / parallelism));
+
+        logger.info("Starting batch underwriting - Profiles: {}, Partition size: {}", size, partitionSize);
+
+        List<CompletableFuture<List<UnderwritingDecision>>> submitted = new ArrayList<>();
+        List<CompletableFuture<List<UnderwritingDecision>>> partitions = new ArrayList<>();
+        for (int from = 0; from < size; from += partitionSize) {
+            List<CustomerRiskProfile> partition = riskProfiles.subList(from, Math.min(from + partitionSize, size));
+            CompletableFuture<List<UnderwritingDecision>> task;
+            try {
+                task = CompletableFuture.supplyAsync(
+                        () -> ruleSessionExecutor.withSession(rules -> underwritePartition(partition, rules)),
+                        workloadExecutors.batch());
+            } catch (ExecutorSaturatedException e) {
+                // Queued partitions that have not started yet will not run
+                submitted.forEach(queued -> queued.cancel(false));
+                throw e;
+            }
+            submitted.add(task);
+            partitions.add(task
+                    .exceptionally(throwable -> {
+                        Throwable cause = throwable.getCause() != null ? throwable.getCause() : throwable;
+                        logger.warn("Batch partition failed: {}", cause.getMessage());
+                        return partition.stream()
+                                .map(profile -> createErrorDecision(profile, cause.getMessage()))
+                                .collect(Collectors.toList());
+                    }));
+        }
+
+        for (CompletableFuture<List<UnderwritingDecision>> partition : partitions) {
+            partitionSink.accept(partition.join());
+        }
+
+        logger.info("Batch underwriting completed - Profiles: {}, Partitions: {}", size, partitions.size());
+    }
+
+    private List<UnderwritingDecision> underwritePartition(List<CustomerRiskProfile> partition, RuleRunner rules) {
+        List<UnderwritingDecision> decisions = new ArrayList<>(partition.size());
+        for (CustomerRiskProfile riskProfile : partition) {
+            decisions.add(underwriteBatchItem(riskProfile, rules));
+        }
+        return decisions;
+    }
+
+    private UnderwritingDecision underwriteBatchItem(CustomerRiskProfile riskProfile, RuleRunner rules) {
+        if (riskProfile == null) {
+            return createErrorDecision(new CustomerRiskProfile(), "Empty risk profile");
+        }
+
+        if (validator != null) {
+            Set<ConstraintViolation<CustomerRiskProfile>> violations = validator.validate(riskProfile);
+            if (!violations.isEmpty()) {
+                String details = violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+                return createErrorDecision(riskProfile, "Invalid risk profile - " + details);
+            }
+        }
+
+        try {
+            return performUnderwriting(riskProfile, rules);
+        } catch (Exception e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            logger.warn("Batch item failed for customer {}: {}", riskProfile.getCustomerId(), cause.getMessage());
+            return createErrorDecision(riskProfile, cause.getMessage());
+        }
+    }
+
     /**
      * Apply Drools rules engine
      */
-    private void applyRulesEngine(CustomerRiskProfile riskProfile, UnderwritingDecision decision) {
+    private void applyRulesEngine(CustomerRiskProfile riskProfile, UnderwritingDecision decision,
+                                  RuleRunner rules) {
         logger.debug("Applying Drools rules engine");
         
-        KieSession kieSession = kieContainer.newKieSession();
-        
-        try {
-            // Set global logger for rules
-            kieSession.setGlobal("logger", logger);
-            
-            // Insert facts
-            kieSession.insert(riskProfile);
-            kieSession.insert(decision);
-            
-            // Fire all rules
-            int rulesFired = kieSession.fireAllRules();
-            logger.info("Drools rules fired: {}", rulesFired);
-            
-        } finally {
-            kieSession.dispose();
+        int rulesFired = rules.execute(riskProfile, decision);
+        logger.info("Drools rules fired: {}", rulesFired);
+    }
+
+    /**
+     * Fire the external lookups a profile needs. Each completes with an
+     * update that is applied to the profile once joined, or with a no-op if
+     * the lookup fails or misses the enrichment deadline; the deadline is
+     * enforced by the future itself, so joining never waits longer.
+     */
+    private List<CompletableFuture<Consumer<CustomerRiskProfile>>> startEnrichment(CustomerRiskProfile riskProfile) {
+        List<CompletableFuture<Consumer<CustomerRiskProfile>>> lookups = new ArrayList<>(1);
+        if (useExternalCreditCheck && !Boolean.TRUE.equals(riskProfile.getExternalCreditCheckCompleted())) {
+            try {
+                lookups.add(withDeadline(startCreditLookup(riskProfile.getCustomerId())));
+            } catch (RejectedExecutionException e) {
+                logger.warn("Skipping external credit check: {}", e.getMessage());
+            }
         }
+        return lookups;
     }
 
     /**
-     * Enrich profile with external credit score
+     * A lookup that fails or misses the enrichment deadline leaves the
+     * supplied values in place
      */
-    private void enrichWithCreditScore(CustomerRiskProfile riskProfile) {
-        try {
+    private CompletableFuture<Consumer<CustomerRiskProfile>> withDeadline(
+            CompletableFuture<Consumer<CustomerRiskProfile>> lookup) {
+        return lookup
+                .exceptionally(throwable -> {
+                    Throwable cause = throwable.getCause() != null ? throwable.getCause() : throwable;
+                    logger.warn("External enrichment failed: {}", cause.getMessage());
+                    return profile -> { };
+                })
+                .completeOnTimeout(profile -> logger.warn(
+                        "External enrichment missed the {} ms deadline, using supplied values", enrichmentDeadlineMs),
+                        enrichmentDeadlineMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Apply the lookups' updates; blocks at most until the enrichment deadline
+     */
+    private void joinEnrichment(CustomerRiskProfile riskProfile,
+                                List<CompletableFuture<Consumer<CustomerRiskProfile>>> lookups) {
+        for (CompletableFuture<Consumer<CustomerRiskProfile>> lookup : lookups) {
+            lookup.join().accept(riskProfile);
+        }
+    }
+
+    /**
+     * Look up the external credit score
+     */
+    private CompletableFuture<Consumer<CustomerRiskProfile>> startCreditLookup(String customerId) {
+        return CompletableFuture.supplyAsync(() -> {
             logger.debug("Fetching external credit score");
-            
+
             // In production, SSN would come from secure storage
-            String mockSsn = "XXX-XX-" + riskProfile.getCustomerId().substring(0, 4);
-            
-            CreditScoreClient.CreditScoreResponse creditScore = 
-                    creditScoreClient.getCreditScore(riskProfile.getCustomerId(), mockSsn);
-            
-            riskProfile.setCreditScore(creditScore.getCreditScore());
-            riskProfile.setExternalCreditCheckCompleted(true);
-            
-            logger.info("Credit score enriched: {}", creditScore.getCreditScore());
-            
-        } catch (Exception e) {
-            logger.warn("Failed to fetch external credit score: {}", e.getMessage());
-            // Continue with provided credit score
-        }
+            String mockSsn = "XXX-XX-" + customerId.substring(0, 4);
+
+            try {
+                CreditScoreClient.CreditScoreResponse creditScore = creditScoreCache != null
+                        ? creditScoreCache.getCreditScore(customerId, mockSsn)
+                        : creditScoreClient.getCreditScore(customerId, mockSsn);
+                return profile -> {
+                    profile.setCreditScore(creditScore.getCreditScore());
+                    profile.setExternalCreditCheckCompleted(true);
+                    logger.info("Credit score enriched: {}", creditScore.getCreditScore());
+                };
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, workloadExecutors.externalApi());
     }
 
     /**
      * Standard risk assessment (fallback)
      */
-    private void performStandardAssessment(CustomerRiskProfile riskProfile, UnderwritingDecision decision) {
+    private void performStandardAssessment(CustomerRiskProfile riskProfile, UnderwritingDecision decision,
+                                           int typeSpecificRisk) {
         logger.debug("Performing standard risk assessment");
         
-        int riskScore = calculateRiskScore(riskProfile);
+        int riskScore = calculateRiskScore(riskProfile, typeSpecificRisk);
         
         if (riskScore >= 80) {
             decision.setDecision("REJECT");
@@ -184,7 +417,7 @@ public class EnhancedUnderwritingService {
             decision.setDecision("APPROVE");
             decision.setDecisionReason("Standard approval based on risk assessment");
             decision.setRiskLevel(riskScore >= 40 ? "MEDIUM" : "LOW");
-            decision.setPremiumMultiplier(1.0 + (riskScore * 0.01)); // 1% per risk point
+            decision.setPremiumMultiplier(Money.ppmToDouble(Money.PPM + riskScore * PPM_PER_RISK_POINT)); // 1% per risk point
         }
         
         decision.setRiskScore(riskScore);
@@ -193,7 +426,7 @@ public class EnhancedUnderwritingService {
     /**
      * Calculate numerical risk score (0-100)
      */
-    private int calculateRiskScore(CustomerRiskProfile riskProfile) {
+    private int calculateRiskScore(CustomerRiskProfile riskProfile, int typeSpecificRisk) {
         int score = 0;
         
         // Credit score factor (0-40 points)
@@ -216,7 +449,7 @@ public class EnhancedUnderwritingService {
         }
         
         // Insurance type specific factors (0-20 points)
-        score += calculateTypeSpecificRisk(riskProfile);
+        score += typeSpecificRisk;
         
         // Previous issues (0-15 points)
         if (Boolean.TRUE.equals(riskProfile.getPreviousCancellation())) {
@@ -279,7 +512,7 @@ public class EnhancedUnderwritingService {
      */
     private UnderwritingDecision initializeDecision(CustomerRiskProfile riskProfile) {
         return UnderwritingDecision.builder()
-                .decisionId(UUID.randomUUID().toString())
+                .decisionId(idGenerator.nextId(DECISION_ID_PREFIX))
                 .customerId(riskProfile.getCustomerId())
                 .decisionDate(LocalDateTime.now())
                 .riskFactors(new ArrayList<>())
@@ -365,7 +598,7 @@ public class EnhancedUnderwritingService {
      */
     private UnderwritingDecision createErrorDecision(CustomerRiskProfile riskProfile, String errorMessage) {
         return UnderwritingDecision.builder()
-                .decisionId(UUID.randomUUID().toString())
+                .decisionId(idGenerator.nextId(DECISION_ID_PREFIX))
                 .customerId(riskProfile.getCustomerId())
                 .decisionDate(LocalDateTime.now())
                 .decision("REFER")
@@ -387,4 +620,3 @@ public class EnhancedUnderwritingService {
                 riskProfile.getCreditScore());
     }
 }
-
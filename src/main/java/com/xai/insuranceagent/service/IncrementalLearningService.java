@@ -0,0 +1,260 @@
+package com.xai.insuranceagent.service;
+
+import com.xai.insuranceagent.ml.SnapshotClassifier;
+import com.xai.insuranceagent.ml.UnderwritingModel;
+import com.xai.insuranceagent.ml.UnderwritingModelSchema;
+import com.xai.insuranceagent.model.underwriting.CustomerRiskProfile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import weka.classifiers.AbstractClassifier;
+import weka.classifiers.Classifier;
+import weka.classifiers.trees.HoeffdingTree;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+import weka.core.Utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Incremental (online) learning for the underwriting ML model.
+ *
+ * Final decisions and manual-review outcomes are offered to a bounded
+ * queue (never blocking the caller; overflow is dropped and counted). A
+ * single background thread drains the queue into a shadow HoeffdingTree
+ * and periodically publishes a frozen copy of it to MLUnderwritingService,
+ * so scoring threads only ever read immutable snapshots.
+ *
+ * The shadow tree starts empty, so the offline J48 keeps serving until a
+ * snapshot matches or beats it on a holdout: every example is scored by
+ * both models before the shadow tree learns from it (test-then-train), and
+ * a due snapshot is only published if its accuracy over the examples since
+ * the last check is at least the J48's. After the first publish the
+ * learner owns the model and later snapshots replace each other directly.
+ */
+@Service
+@ConditionalOnProperty(name = {"insurance.underwriting.use-ml", "insurance.underwriting.ml.online-learning.enabled"},
+        havingValue = "true")
+public class IncrementalLearningService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IncrementalLearningService.class);
+    private static final int DRAIN_BATCH = 1024;
+
+    @Autowired
+    private MLUnderwritingService mlUnderwritingService;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Value("${insurance.underwriting.ml.online-learning.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${insurance.underwriting.ml.online-learning.min-examples:200}")
+    private long minExamples;
+
+    @Value("${insurance.underwriting.ml.online-learning.publish-every:500}")
+    private long publishEvery;
+
+    @Value("${insurance.underwriting.ml.online-learning.publish-interval-ms:60000}")
+    private long publishIntervalMillis;
+
+    private final Instances header = UnderwritingModelSchema.header();
+
+    // Touched only by the learner thread (or by learnPending() callers in tests)
+    private HoeffdingTree shadowModel;
+    private long learnedSincePublish;
+    private long lastPublishMillis;
+
+    // Offline model the shadow tree has to match on the holdout before it is first published
+    private UnderwritingModel baseline;
+    private final double[] baselineDistribution = new double[UnderwritingModelSchema.DECISIONS.size()];
+    private long shadowCorrect;
+    private long baselineCorrect;
+
+    private BlockingQueue<LabeledExample> queue;
+    private volatile long learnedTotal;
+    private Counter droppedCounter;
+    private Counter publishedCounter;
+    private Counter withheldCounter;
+    private Thread learnerThread;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() throws Exception {
+        initialize();
+
+        running = true;
+        learnerThread = new Thread(this::runLearner, "ml-incremental-learner");
+        learnerThread.setDaemon(true);
+        learnerThread.start();
+
+        logger.info("Incremental learning started - Queue capacity: {}, Min examples: {}, Publish every: {}",
+                queueCapacity, minExamples, publishEvery);
+    }
+
+    void initialize() throws Exception {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        shadowModel = new HoeffdingTree();
+        shadowModel.buildClassifier(new Instances(header, 0));
+        lastPublishMillis = System.currentTimeMillis();
+        baseline = mlUnderwritingService.getModel();
+
+        if (meterRegistry != null) {
+            Gauge.builder("underwriting.ml.learning.queue.size", queue, BlockingQueue::size)
+                    .description("Labelled examples waiting to be learned")
+                    .register(meterRegistry);
+            Gauge.builder("underwriting.ml.learning.examples", this, s -> s.learnedTotal)
+                    .description("Examples learned by the incremental model")
+                    .register(meterRegistry);
+            droppedCounter = Counter.builder("underwriting.ml.learning.dropped")
+                    .description("Examples dropped because the learning queue was full")
+                    .register(meterRegistry);
+            publishedCounter = Counter.builder("underwriting.ml.learning.published")
+                    .description("Model snapshots published by the incremental learner")
+                    .register(meterRegistry);
+            withheldCounter = Counter.builder("underwriting.ml.learning.withheld")
+                    .description("Snapshots not published because the offline model was more accurate on the holdout")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Offer a labelled example without blocking; returns false if it was
+     * dropped (queue full or unsupported profile)
+     */
+    public boolean submit(CustomerRiskProfile riskProfile, String decision) {
+        int label = UnderwritingModelSchema.DECISIONS.indexOf(decision);
+        if (label < 0) {
+            return false;
+        }
+        double[] features = new double[UnderwritingModelSchema.NUM_ATTRIBUTES];
+        try {
+            UnderwritingModelSchema.encode(riskProfile, features);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        features[UnderwritingModelSchema.DECISION] = label;
+
+        if (queue.offer(new LabeledExample(features))) {
+            return true;
+        }
+        if (droppedCounter != null) {
+            droppedCounter.increment();
+        }
+        return false;
+    }
+
+    private void runLearner() {
+        while (running) {
+            try {
+                LabeledExample first = queue.poll(Math.min(publishIntervalMillis, 1000), TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    learn(first);
+                }
+                learnPending();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Incremental learning step failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Learn everything currently queued and publish a snapshot if due.
+     * Must only be called from one thread at a time.
+     */
+    void learnPending() throws Exception {
+        List<LabeledExample> batch = new ArrayList<>(DRAIN_BATCH);
+        while (queue.drainTo(batch, DRAIN_BATCH) > 0) {
+            for (LabeledExample example : batch) {
+                learn(example);
+            }
+            batch.clear();
+        }
+
+        boolean due = learnedSincePublish >= publishEvery
+                || (learnedSincePublish > 0 && System.currentTimeMillis() - lastPublishMillis >= publishIntervalMillis);
+        if (learnedTotal >= minExamples && due) {
+            if (baseline == null || shadowCorrect >= baselineCorrect) {
+                publish();
+            } else {
+                logger.info("Keeping ML model {} - Holdout accuracy: {}/{} vs shadow {}/{}",
+                        baseline.getVersion(), baselineCorrect, learnedSincePublish, shadowCorrect, learnedSincePublish);
+                if (withheldCounter != null) {
+                    withheldCounter.increment();
+                }
+                resetWindow();
+            }
+        }
+    }
+
+    private void learn(LabeledExample example) throws Exception {
+        DenseInstance instance = new DenseInstance(1.0, example.features());
+        instance.setDataset(header);
+        if (baseline != null) {
+            // Score before training so that both models see the example as unseen data
+            int label = (int) example.features()[UnderwritingModelSchema.DECISION];
+            if (Utils.maxIndex(shadowModel.distributionForInstance(instance)) == label) {
+                shadowCorrect++;
+            }
+            if (baseline.classify(example.features(), baselineDistribution) == label) {
+                baselineCorrect++;
+            }
+        }
+        shadowModel.updateClassifier(instance);
+        learnedSincePublish++;
+        learnedTotal++;
+    }
+
+    private void publish() throws Exception {
+        // Deep copy so the published snapshot is never touched by further training
+        Classifier snapshot = AbstractClassifier.makeCopy(shadowModel);
+        mlUnderwritingService.publishModel(new UnderwritingModel(new SnapshotClassifier(snapshot, header),
+                UnderwritingModelSchema.DECISIONS, "hoeffding-" + learnedTotal));
+        baseline = null;
+        resetWindow();
+        if (publishedCounter != null) {
+            publishedCounter.increment();
+        }
+    }
+
+    private void resetWindow() {
+        learnedSincePublish = 0;
+        shadowCorrect = 0;
+        baselineCorrect = 0;
+        lastPublishMillis = System.currentTimeMillis();
+    }
+
+    public long getLearnedCount() {
+        return learnedTotal;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (learnerThread != null) {
+            learnerThread.interrupt();
+        }
+    }
+
+    private record LabeledExample(double[] features) {
+    }
+}
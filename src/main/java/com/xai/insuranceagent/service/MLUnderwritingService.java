@@ -1,23 +1,49 @@
 package com.xai.insuranceagent.service;
 
+import com.xai.insuranceagent.concurrent.ExecutorSaturatedException;
+import com.xai.insuranceagent.concurrent.WorkloadExecutors;
+import com.xai.insuranceagent.ml.CompiledDecisionTree;
+import com.xai.insuranceagent.ml.FeatureMatrix;
+import com.xai.insuranceagent.ml.ModelScores;
+import com.xai.insuranceagent.ml.UnderwritingModel;
+import com.xai.insuranceagent.ml.UnderwritingModelSchema;
 import com.xai.insuranceagent.model.underwriting.CustomerRiskProfile;
 import com.xai.insuranceagent.model.underwriting.UnderwritingDecision;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Service;
 import weka.classifiers.trees.J48;
-import weka.core.Attribute;
-import weka.core.DenseInstance;
-import weka.core.Instance;
 import weka.core.Instances;
+import weka.core.SerializationHelper;
 
 import jakarta.annotation.PostConstruct;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Machine Learning based underwriting using Weka Decision Tree
  * Optional service - only loaded if ML is enabled
+ *
+ * The model is trained offline by UnderwritingModelTrainer and loaded from
+ * insurance.underwriting.ml.model-path at startup.
+ *
+ * Thread-safe: scoring reads an immutable UnderwritingModel snapshot and
+ * per-thread buffers, so concurrent requests and batch jobs share one model.
  */
 @Service
 @ConditionalOnProperty(name = "insurance.underwriting.use-ml", havingValue = "true")
@@ -25,24 +51,154 @@ public class MLUnderwritingService {
 
     private static final Logger logger = LoggerFactory.getLogger(MLUnderwritingService.class);
 
-    private J48 decisionTree;
-    private Instances trainingDataStructure;
+    @Autowired
+    private ResourceLoader resourceLoader;
 
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private WorkloadExecutors workloadExecutors;
+
+    @Value("${insurance.underwriting.ml.model-path:classpath:ml/underwriting-j48.model}")
+    private String modelPath;
+
+    @Value("${insurance.underwriting.ml.batch.chunk-size:4096}")
+    private int batchChunkSize;
+
+    // Thread-safe, immutable model handle; replaced as a whole when the model changes
+    private volatile UnderwritingModel model;
+
+    // Per-thread feature and distribution buffers so that scoring does not allocate
+    private final ThreadLocal<double[][]> scratch = ThreadLocal.withInitial(() -> new double[][]{
+            new double[UnderwritingModelSchema.NUM_ATTRIBUTES],
+            new double[UnderwritingModelSchema.DECISIONS.size()]});
+
+    /**
+     * Load the pre-trained model artifact written by UnderwritingModelTrainer.
+     * No training happens at startup; a missing or incompatible model fails fast.
+     */
     @PostConstruct
     public void initializeMLModel() {
-        logger.info("Initializing ML model (Weka Decision Tree)...");
-        
+        logger.info("Loading ML model (Weka Decision Tree) from {}...", modelPath);
+
+        long start = System.nanoTime();
+        loadModel(resourceLoader.getResource(modelPath));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        if (meterRegistry != null) {
+            TimeGauge.builder("underwriting.ml.model.load.time", () -> elapsedMillis, TimeUnit.MILLISECONDS)
+                    .description("Time taken to load the underwriting ML model at startup")
+                    .strongReference(true)
+                    .register(meterRegistry);
+        }
+
+        logger.info("ML model {} loaded and compiled in {} ms", model.getVersion(), elapsedMillis);
+    }
+
+    /**
+     * Deserialize the classifier and header and verify the attribute schema
+     */
+    void loadModel(Resource resource) {
+        byte[] bytes;
+        try (InputStream in = resource.getInputStream()) {
+            bytes = in.readAllBytes();
+        } catch (IOException e) {
+            throw new IllegalStateException("Underwriting ML model not found at " + modelPath
+                    + "; train one with UnderwritingModelTrainer", e);
+        }
+
+        Object[] artifact;
         try {
-            // Create dataset structure
-            createDatasetStructure();
-            
-            // Train the model with sample data
-            trainModel();
-            
-            logger.info("ML model initialized successfully");
-            
+            artifact = SerializationHelper.readAll(new ByteArrayInputStream(bytes));
         } catch (Exception e) {
-            logger.error("Failed to initialize ML model: {}", e.getMessage(), e);
+            throw new IllegalStateException("Failed to deserialize underwriting ML model " + modelPath, e);
+        }
+        if (artifact.length < 2 || !(artifact[0] instanceof J48) || !(artifact[1] instanceof Instances)) {
+            throw new IllegalStateException("Underwriting ML model " + modelPath
+                    + " must contain a J48 classifier followed by its header");
+        }
+
+        Instances loadedHeader = (Instances) artifact[1];
+        UnderwritingModelSchema.verify(loadedHeader);
+
+        CompiledDecisionTree tree = CompiledDecisionTree.compile((J48) artifact[0], loadedHeader);
+        logger.debug("Compiled J48 into {} nodes", tree.numNodes());
+        this.model = new UnderwritingModel(tree, UnderwritingModelSchema.DECISIONS, "j48-" + sha256Prefix(bytes));
+    }
+
+    /**
+     * Identifies the currently loaded model
+     */
+    public String getModelVersion() {
+        UnderwritingModel current = model;
+        return current != null ? current.getVersion() : "unloaded";
+    }
+
+    /**
+     * Thread-safe handle on the currently loaded model
+     */
+    public UnderwritingModel getModel() {
+        return model;
+    }
+
+    /**
+     * Atomically replace the model used for scoring; requests already scoring
+     * finish on the snapshot they read
+     */
+    public void publishModel(UnderwritingModel newModel) {
+        UnderwritingModel previous = model;
+        model = newModel;
+        logger.info("ML model published: {} -> {}",
+                previous != null ? previous.getVersion() : "none", newModel.getVersion());
+    }
+
+    /**
+     * Score many profiles at once (e.g. nightly portfolio re-scoring): the
+     * profiles are encoded into one contiguous feature matrix which is scored
+     * in parallel chunks. Rows that cannot be encoded are left unscored.
+     */
+    public ModelScores scoreBatch(List<CustomerRiskProfile> riskProfiles) {
+        return scoreBatch(FeatureMatrix.encode(riskProfiles));
+    }
+
+    /**
+     * Score every valid row of a feature matrix in parallel on the batch pool
+     * against a single model snapshot. A saturated pool fails the whole call
+     * with ExecutorSaturatedException.
+     */
+    public ModelScores scoreBatch(FeatureMatrix features) {
+        UnderwritingModel snapshot = model;
+        ModelScores scores = snapshot.newScores(features.rows());
+        int chunkSize = Math.max(1, batchChunkSize);
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int from = 0; from < features.rows(); from += chunkSize) {
+            int chunkStart = from;
+            int chunkEnd = Math.min(from + chunkSize, features.rows());
+            try {
+                chunks.add(CompletableFuture.runAsync(
+                        () -> snapshot.score(features, chunkStart, chunkEnd, scores), workloadExecutors.batch()));
+            } catch (ExecutorSaturatedException e) {
+                // Queued chunks that have not started yet will not run
+                chunks.forEach(chunk -> chunk.cancel(false));
+                throw e;
+            }
+        }
+        CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).join();
+
+        logger.info("ML batch scoring completed - Rows: {}, Chunks: {}, Model: {}, Time: {} ms",
+                features.rows(), chunks.size(), snapshot.getVersion(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return scores;
+    }
+
+    private static String sha256Prefix(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes), 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 
@@ -54,15 +210,18 @@ public class MLUnderwritingService {
         logger.debug("Assessing risk with ML model");
         
         try {
-            // Create instance from risk profile
-            Instance instance = createInstance(riskProfile);
+            // Encode risk profile into the feature vector
+            double[][] buffers = scratch.get();
+            double[] features = buffers[0];
+            double[] distribution = buffers[1];
+            UnderwritingModelSchema.encode(riskProfile, features);
             
-            // Classify
-            double prediction = decisionTree.classifyInstance(instance);
-            double[] distribution = decisionTree.distributionForInstance(instance);
+            // Classify (single pass yields class and distribution)
+            UnderwritingModel snapshot = model;
+            int prediction = snapshot.classify(features, distribution);
             
             // Interpret results
-            interpretMLResults(prediction, distribution, decision);
+            interpretMLResults(snapshot.classLabel(prediction), decision);
             
             // Calculate confidence
             double confidence = getMaxConfidence(distribution);
@@ -83,107 +242,11 @@ public class MLUnderwritingService {
         }
     }
 
-    /**
-     * Create Weka dataset structure
-     */
-    private void createDatasetStructure() {
-        ArrayList<Attribute> attributes = new ArrayList<>();
-        
-        // Numeric attributes
-        attributes.add(new Attribute("creditScore"));
-        attributes.add(new Attribute("claimsCount"));
-        attributes.add(new Attribute("age"));
-        attributes.add(new Attribute("yearsLicensed"));
-        
-        // Nominal attributes
-        ArrayList<String> insuranceTypes = new ArrayList<>();
-        insuranceTypes.add("auto");
-        insuranceTypes.add("home");
-        insuranceTypes.add("life");
-        insuranceTypes.add("health");
-        attributes.add(new Attribute("insuranceType", insuranceTypes));
-        
-        // Class attribute (decision)
-        ArrayList<String> classValues = new ArrayList<>();
-        classValues.add("APPROVE");
-        classValues.add("REJECT");
-        classValues.add("REFER");
-        attributes.add(new Attribute("decision", classValues));
-        
-        // Create Instances object
-        trainingDataStructure = new Instances("UnderwritingData", attributes, 0);
-        trainingDataStructure.setClassIndex(trainingDataStructure.numAttributes() - 1);
-    }
-
-    /**
-     * Train the model with sample data
-     */
-    private void trainModel() throws Exception {
-        // Create training data
-        Instances trainingData = new Instances(trainingDataStructure);
-        
-        // Add training examples (in production, load from database)
-        addTrainingExample(trainingData, 750, 0, 30, 10, "auto", "APPROVE");
-        addTrainingExample(trainingData, 800, 0, 35, 15, "auto", "APPROVE");
-        addTrainingExample(trainingData, 550, 3, 25, 5, "auto", "REJECT");
-        addTrainingExample(trainingData, 500, 5, 22, 3, "auto", "REJECT");
-        addTrainingExample(trainingData, 650, 1, 40, 20, "auto", "APPROVE");
-        addTrainingExample(trainingData, 620, 2, 28, 8, "auto", "REFER");
-        addTrainingExample(trainingData, 700, 0, 45, 25, "home", "APPROVE");
-        addTrainingExample(trainingData, 580, 4, 30, 10, "home", "REJECT");
-        addTrainingExample(trainingData, 720, 1, 50, 30, "life", "APPROVE");
-        addTrainingExample(trainingData, 600, 2, 35, 15, "health", "REFER");
-        
-        // Initialize and train J48 decision tree
-        decisionTree = new J48();
-        decisionTree.setOptions(new String[]{"-C", "0.25", "-M", "2"});
-        decisionTree.buildClassifier(trainingData);
-        
-        logger.debug("Decision tree model: \n{}", decisionTree.toString());
-    }
-
-    /**
-     * Add training example
-     */
-    private void addTrainingExample(Instances data, double creditScore, double claims, 
-                                     double age, double yearsLicensed, 
-                                     String insuranceType, String decision) {
-        Instance instance = new DenseInstance(6);
-        instance.setDataset(data);
-        
-        instance.setValue(0, creditScore);
-        instance.setValue(1, claims);
-        instance.setValue(2, age);
-        instance.setValue(3, yearsLicensed);
-        instance.setValue(4, insuranceType);
-        instance.setValue(5, decision);
-        
-        data.add(instance);
-    }
-
-    /**
-     * Create instance from risk profile
-     */
-    private Instance createInstance(CustomerRiskProfile riskProfile) {
-        Instance instance = new DenseInstance(6);
-        instance.setDataset(trainingDataStructure);
-        
-        instance.setValue(0, riskProfile.getCreditScore() != null ? riskProfile.getCreditScore() : 650);
-        instance.setValue(1, riskProfile.getClaimsInLast3Years() != null ? riskProfile.getClaimsInLast3Years() : 0);
-        instance.setValue(2, riskProfile.getAge() != null ? riskProfile.getAge() : 30);
-        instance.setValue(3, riskProfile.getYearsLicensed() != null ? riskProfile.getYearsLicensed() : 5);
-        instance.setValue(4, riskProfile.getInsuranceType());
-        
-        return instance;
-    }
-
     /**
      * Interpret ML results
      */
-    private void interpretMLResults(double prediction, double[] distribution, 
-                                     UnderwritingDecision decision) {
-        String predictedClass = trainingDataStructure.classAttribute().value((int) prediction);
-        
+    private void interpretMLResults(String predictedClass, UnderwritingDecision decision) {
+
         decision.setDecision(predictedClass);
         
         switch (predictedClass) {
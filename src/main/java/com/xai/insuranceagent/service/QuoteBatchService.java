@@ -0,0 +1,211 @@
+package com.xai.insuranceagent.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.xai.insuranceagent.concurrent.ExecutorSaturatedException;
+import com.xai.insuranceagent.concurrent.WorkloadExecutors;
+import com.xai.insuranceagent.model.quote.QuoteBatchError;
+import com.xai.insuranceagent.model.quote.QuoteDetail;
+import com.xai.insuranceagent.model.quote.QuoteRequest;
+import com.xai.insuranceagent.model.quote.QuoteResponse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Prices NDJSON quote batches.
+ *
+ * The request body is read one line at a time and each line is parsed,
+ * validated, priced and serialized on the batch pool. Results are written in
+ * input order through a sliding window of at most max-in-flight rows, so
+ * memory stays bounded however large the batch is. A row that cannot be
+ * parsed, fails validation or cannot be priced produces an inline
+ * QuoteBatchError and the stream carries on.
+ *
+ * If the batch pool is saturated before the first result is written the
+ * batch is shed with ExecutorSaturatedException (503); once streaming has
+ * started, a rejected row is priced on the request thread instead, which
+ * slows reading down to what the pool can take.
+ */
+@Service
+public class QuoteBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuoteBatchService.class);
+
+    @Autowired
+    private EnhancedQuotingService quotingService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired(required = false)
+    private Validator validator;
+
+    @Value("${insurance.quoting.batch.max-in-flight:256}")
+    private int maxInFlight;
+
+    @Value("${insurance.quoting.batch.max-line-length:65536}")
+    private int maxLineLength;
+
+    @Autowired
+    private WorkloadExecutors workloadExecutors;
+
+    /**
+     * Price every non-blank line of {@code input} and write one NDJSON
+     * QuoteResponse or QuoteBatchError per line to {@code output}, in input
+     * order. Returns the number of rows processed.
+     */
+    public long generateQuoteBatch(InputStream input, OutputStream output) throws IOException {
+        return generateQuoteBatch(input, output, QuoteDetail.ALL);
+    }
+
+    /**
+     * As {@link #generateQuoteBatch(InputStream, OutputStream)}, rendering
+     * only the listed explanatory parts of each QuoteResponse
+     */
+    public long generateQuoteBatch(InputStream input, OutputStream output, Set<QuoteDetail> details)
+            throws IOException {
+        ObjectReader requestReader = objectMapper.readerFor(QuoteRequest.class);
+        Reader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Deque<CompletableFuture<byte[]>> inFlight = new ArrayDeque<>();
+        StringBuilder line = new StringBuilder();
+        long lineNumber = 0;
+        long rows = 0;
+        long written = 0;
+        long start = System.nanoTime();
+
+        try {
+            int length;
+            while ((length = readLine(reader, line)) >= 0) {
+                lineNumber++;
+                String json = line.toString();
+                if (json.isBlank()) {
+                    continue;
+                }
+                rows++;
+                if (inFlight.size() >= Math.max(1, maxInFlight)) {
+                    writeResult(inFlight.removeFirst(), output);
+                    written++;
+                }
+
+                long row = lineNumber;
+                if (length > maxLineLength) {
+                    inFlight.addLast(CompletableFuture.completedFuture(serialize(error(row, HttpStatus.BAD_REQUEST,
+                            "Line exceeds maximum length of " + maxLineLength + " characters", null))));
+                } else {
+                    try {
+                        inFlight.addLast(CompletableFuture.supplyAsync(
+                                () -> priceRow(row, json, requestReader, details), workloadExecutors.batch()));
+                    } catch (ExecutorSaturatedException e) {
+                        if (written == 0) {
+                            throw e;
+                        }
+                        inFlight.addLast(CompletableFuture.completedFuture(priceRow(row, json, requestReader, details)));
+                    }
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                writeResult(inFlight.removeFirst(), output);
+            }
+            output.flush();
+        } finally {
+            // Client went away: drop whatever is still queued
+            inFlight.forEach(result -> result.cancel(false));
+        }
+
+        logger.info("Quote batch completed - Rows: {}, Time: {} ms", rows, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    private byte[] priceRow(long row, String json, ObjectReader requestReader, Set<QuoteDetail> quoteDetails) {
+        QuoteRequest request;
+        try {
+            request = requestReader.readValue(json);
+        } catch (JsonProcessingException e) {
+            return serialize(error(row, HttpStatus.BAD_REQUEST, "Malformed quote request: " + e.getOriginalMessage(), null));
+        }
+
+        if (validator != null) {
+            Set<ConstraintViolation<QuoteRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                List<String> details = violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.toList());
+                return serialize(error(row, HttpStatus.BAD_REQUEST, "Invalid quote request data", details));
+            }
+        }
+
+        try {
+            QuoteResponse response = quotingService.generateDetailedQuote(request, quoteDetails);
+            return serialize(response);
+        } catch (Exception e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            logger.warn("Quote batch line {} failed: {}", row, cause.getMessage());
+            return serialize(error(row, HttpStatus.INTERNAL_SERVER_ERROR, "Failed to generate quote: " + cause.getMessage(), null));
+        }
+    }
+
+    private void writeResult(CompletableFuture<byte[]> result, OutputStream output) throws IOException {
+        if (!result.isDone()) {
+            // Push out what is ready before waiting on a slower row
+            output.flush();
+        }
+        output.write(result.join());
+        output.write('\n');
+    }
+
+    /**
+     * Read the next line into {@code line}, keeping at most maxLineLength + 1
+     * characters. Returns the full line length, or -1 at end of input.
+     */
+    private int readLine(Reader reader, StringBuilder line) throws IOException {
+        line.setLength(0);
+        int length = 0;
+        int c;
+        while ((c = reader.read()) != -1 && c != '\n') {
+            if (length++ <= maxLineLength && c != '\r') {
+                line.append((char) c);
+            }
+        }
+        return c == -1 && length == 0 ? -1 : length;
+    }
+
+    private QuoteBatchError error(long row, HttpStatus status, String message, List<String> details) {
+        return QuoteBatchError.builder()
+                .line(row)
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(message)
+                .details(details)
+                .build();
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize quote batch result", e);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.xai.insuranceagent.service;
 
 import com.xai.insuranceagent.model.Customer;
 import com.xai.insuranceagent.model.ProcessResponse;
+import com.xai.insuranceagent.rating.KeywordClassifier;
 import com.xai.insuranceagent.util.OpenAIClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,6 +26,9 @@ public class QuotingService {
     @Autowired
     private OpenAIClient openAIClient;
 
+    @Autowired
+    private KeywordClassifier keywordClassifier;
+
     @Value("${insurance.quoting.base-rate.auto}")
     private double autoBaseRate;
 
@@ -97,8 +101,8 @@ public class QuotingService {
         
         // Insurance type specific factors
         if ("auto".equals(customer.getInsuranceType()) && customer.getVehicle() != null) {
-            if (customer.getVehicle().toLowerCase().contains("tesla") || 
-                customer.getVehicle().toLowerCase().contains("sports")) {
+            if (KeywordClassifier.matches(keywordClassifier.classify(customer.getVehicle()),
+                    keywordClassifier.mask(KeywordClassifier.HIGH_PERFORMANCE, KeywordClassifier.ELECTRIC))) {
                 multiplier += 0.15;
             }
         }
@@ -0,0 +1,165 @@
+package com.xai.insuranceagent.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.xai.insuranceagent.model.underwriting.CustomerRiskProfile;
+import com.xai.insuranceagent.model.underwriting.UnderwritingDecision;
+import com.xai.insuranceagent.util.IdGenerator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Bounded, TTL-based cache of underwriting decisions keyed by a fingerprint
+ * of the rating-relevant fields of a CustomerRiskProfile.
+ *
+ * Entries are tagged with the model generation (ruleset + ML model version)
+ * they were decided under. After a generation change the old entries simply
+ * miss, are overwritten by the next put for the same fingerprint or expire
+ * with the TTL; the cache is never flushed as a whole, so a hot path never
+ * pays for a full invalidation.
+ */
+@Component
+public class UnderwritingDecisionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnderwritingDecisionCache.class);
+
+    private final Cache<String, CachedDecision> cache;
+    private final IdGenerator idGenerator;
+    private final boolean enabled;
+
+    @Autowired
+    public UnderwritingDecisionCache(MeterRegistry meterRegistry,
+                                     IdGenerator idGenerator,
+                                     @Value("${insurance.underwriting.decision-cache.enabled:true}") boolean enabled,
+                                     @Value("${insurance.underwriting.decision-cache.max-size:50000}") long maxSize,
+                                     @Value("${insurance.underwriting.decision-cache.ttl:10m}") Duration ttl) {
+        this.enabled = enabled;
+        this.idGenerator = idGenerator;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "underwriting.decisions");
+        Gauge.builder("underwriting.decision.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Fraction of underwriting requests served from the decision cache")
+                .register(meterRegistry);
+
+        logger.info("Underwriting decision cache - Enabled: {}, Max size: {}, TTL: {}", enabled, maxSize, ttl);
+    }
+
+    /**
+     * Look up a decision for an equivalent profile decided under the given
+     * generation. A hit returns a copy with a fresh decisionId/decisionDate.
+     */
+    public Optional<UnderwritingDecision> get(CustomerRiskProfile riskProfile, String generation) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        CachedDecision entry = cache.getIfPresent(fingerprint(riskProfile));
+        if (entry == null || !entry.generation().equals(generation)) {
+            return Optional.empty();
+        }
+        return Optional.of(copyOf(entry.decision(), riskProfile.getCustomerId(), true));
+    }
+
+    /**
+     * Store a freshly computed decision
+     */
+    public void put(CustomerRiskProfile riskProfile, String generation, UnderwritingDecision decision) {
+        if (!enabled) {
+            return;
+        }
+        cache.put(fingerprint(riskProfile),
+                new CachedDecision(generation, copyOf(decision, decision.getCustomerId(), false)));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Stable SHA-256 fingerprint over exactly the profile fields read by
+     * underwriting-rules.drl, calculateRiskScore and the ML feature vector.
+     * customerId, address, income and similar fields are deliberately excluded.
+     */
+    static String fingerprint(CustomerRiskProfile p) {
+        StringBuilder canonical = new StringBuilder(160);
+        append(canonical, p.getInsuranceType());
+        append(canonical, p.getCreditScore());
+        append(canonical, p.getClaimsInLast3Years());
+        append(canonical, p.getAge());
+        append(canonical, p.getYearsLicensed());
+        append(canonical, p.getDui());
+        append(canonical, p.getDrivingViolations());
+        append(canonical, p.getAtFaultAccidents());
+        append(canonical, p.getPreviousCancellation());
+        append(canonical, p.getPreviousDenial());
+        append(canonical, p.getSmoker());
+        append(canonical, p.getMedicalConditions() != null ? p.getMedicalConditions().size() : null);
+        append(canonical, p.getInFloodZone());
+        append(canonical, p.getPropertyAge());
+        append(canonical, p.getHasSecuritySystem());
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void append(StringBuilder canonical, Object value) {
+        if (value == null) {
+            canonical.append('~');
+        } else {
+            String text = value.toString();
+            canonical.append(text.length()).append(':').append(text);
+        }
+        canonical.append('|');
+    }
+
+    private UnderwritingDecision copyOf(UnderwritingDecision decision, String customerId, boolean fresh) {
+        UnderwritingDecision.UnderwritingDecisionBuilder builder = decision.toBuilder()
+                .customerId(customerId)
+                .riskFactors(copyOf(decision.getRiskFactors()))
+                .positiveFactors(copyOf(decision.getPositiveFactors()))
+                .exclusions(copyOf(decision.getExclusions()))
+                .conditions(copyOf(decision.getConditions()))
+                .complianceIssues(copyOf(decision.getComplianceIssues()));
+        if (fresh) {
+            builder.decisionId(idGenerator.nextId(EnhancedUnderwritingService.DECISION_ID_PREFIX))
+                    .decisionDate(LocalDateTime.now());
+        }
+        return builder.build();
+    }
+
+    private static List<String> copyOf(List<String> values) {
+        return values != null ? new ArrayList<>(values) : null;
+    }
+
+    private record CachedDecision(String generation, UnderwritingDecision decision) {
+    }
+}
@@ -2,6 +2,7 @@ package com.xai.insuranceagent.service;
 
 import com.xai.insuranceagent.model.Customer;
 import com.xai.insuranceagent.model.ProcessResponse;
+import com.xai.insuranceagent.rating.KeywordClassifier;
 import com.xai.insuranceagent.util.OpenAIClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +21,9 @@ public class UnderwritingService {
     @Autowired
     private OpenAIClient openAIClient;
 
+    @Autowired
+    private KeywordClassifier keywordClassifier;
+
     @Value("${insurance.underwriting.age.min}")
     private int minAge;
 
@@ -90,10 +94,10 @@ public class UnderwritingService {
         switch (customer.getInsuranceType().toLowerCase()) {
             case "auto":
                 if (customer.getVehicle() != null) {
-                    String vehicle = customer.getVehicle().toLowerCase();
-                    if (vehicle.contains("sports") || vehicle.contains("racing")) {
+                    long vehicleClasses = keywordClassifier.classify(customer.getVehicle());
+                    if (KeywordClassifier.matches(vehicleClasses, keywordClassifier.mask(KeywordClassifier.HIGH_PERFORMANCE))) {
                         risk += 0.4;
-                    } else if (vehicle.contains("tesla") || vehicle.contains("electric")) {
+                    } else if (KeywordClassifier.matches(vehicleClasses, keywordClassifier.mask(KeywordClassifier.ELECTRIC))) {
                         risk += 0.2;
                     } else {
                         risk += 0.1;
@@ -105,11 +109,9 @@ public class UnderwritingService {
                 if (customer.getSmoker() != null && customer.getSmoker()) {
                     risk += 0.5;
                 }
-                if (customer.getOccupation() != null) {
-                    String occupation = customer.getOccupation().toLowerCase();
-                    if (occupation.contains("pilot") || occupation.contains("miner")) {
-                        risk += 0.3;
-                    }
+                if (KeywordClassifier.matches(keywordClassifier.classify(customer.getOccupation()),
+                        keywordClassifier.mask(KeywordClassifier.HIGH_RISK_OCCUPATION))) {
+                    risk += 0.3;
                 }
                 break;
                 
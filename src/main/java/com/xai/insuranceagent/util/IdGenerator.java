@@ -0,0 +1,131 @@
+package com.xai.insuranceagent.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free generator of time-ordered, collision-free identifiers for quotes,
+ * underwriting decisions and documents.
+ *
+ * Each 64-bit ID packs, from the most significant bit down, milliseconds
+ * since 2024-01-01 (41 bits), a node ID (10 bits) and a per-millisecond
+ * sequence (12 bits). The last issued timestamp and sequence are kept in a
+ * single AtomicLong: an ID is issued by one CAS, and when a millisecond's
+ * sequence is exhausted (or the clock steps back) the generator simply runs
+ * ahead of the wall clock, so IDs stay strictly increasing on a node. IDs from
+ * different nodes never collide as long as each replica has its own
+ * insurance.ids.node-id.
+ *
+ * String IDs are a prefix, '-' and 13 characters of Crockford base32, written
+ * straight into a char array. They are fixed-width, so they sort
+ * lexicographically in creation order.
+ */
+@Component
+public class IdGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGenerator.class);
+
+    /** 2024-01-01T00:00:00Z */
+    public static final long EPOCH_MILLIS = 1704067200000L;
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13;
+
+    private final int nodeId;
+    private final long nodeBits;
+
+    // (milliseconds since EPOCH_MILLIS << SEQUENCE_BITS) | sequence of the last issued ID
+    private final AtomicLong lastState = new AtomicLong();
+
+    public IdGenerator(@Value("${insurance.ids.node-id:-1}") int nodeId) {
+        if (nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID);
+        }
+        if (nodeId < 0) {
+            String host = hostName();
+            nodeId = Math.floorMod(host.hashCode(), MAX_NODE_ID + 1);
+            logger.warn("insurance.ids.node-id not set - derived node ID {} from host '{}'; "
+                    + "set it explicitly per replica to guarantee unique IDs", nodeId, host);
+        }
+        this.nodeId = nodeId;
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+    }
+
+    /**
+     * Next ID as a number
+     */
+    public long nextLong() {
+        long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long state;
+        long next;
+        do {
+            state = lastState.get();
+            next = Math.max(state + 1, now);
+        } while (!lastState.compareAndSet(state, next));
+
+        return ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+    }
+
+    /**
+     * Next ID rendered as {@code prefix-XXXXXXXXXXXXX}, e.g. AUT-01HV3K8Q7N2M4
+     */
+    public String nextId(String prefix) {
+        return encode(prefix, nextLong());
+    }
+
+    /**
+     * Render {@code id} with the given prefix
+     */
+    public static String encode(String prefix, long id) {
+        int prefixLength = prefix.length();
+        char[] chars = new char[prefixLength + 1 + ENCODED_LENGTH];
+        prefix.getChars(0, prefixLength, chars, 0);
+        chars[prefixLength] = '-';
+        for (int i = chars.length - 1; i > prefixLength; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Creation time embedded in an ID
+     */
+    public static Instant creationTime(long id) {
+        return Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS);
+    }
+
+    /**
+     * Node that issued an ID
+     */
+    public static int nodeOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    private static String hostName() {
+        String host = System.getenv("HOSTNAME");
+        if (host != null && !host.isBlank()) {
+            return host;
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "localhost";
+        }
+    }
+}
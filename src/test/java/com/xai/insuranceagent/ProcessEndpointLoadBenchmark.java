@@ -0,0 +1,193 @@
+package com.xai.insuranceagent;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test of /insurance/process and /insurance/process-async with
+ * platform or virtual threads (insurance.threads.virtual.enabled). The app
+ * runs in-process with the external credit check enabled against a stub
+ * bureau that answers after a fixed delay, so every request blocks in an
+ * OkHttp call the way it would in production. Each level fires that many
+ * requests at once and reports throughput, latency percentiles and how many
+ * were shed with 503.
+ *
+ * mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=$JDK21_HOME/bin/java
+ *     -Dexec.args="-cp %classpath com.xai.insuranceagent.ProcessEndpointLoadBenchmark
+ *                  virtual process 1000,2000,5000,10000 50"
+ *
+ * The build targets Java 17, so point exec.executable at a JDK 21 java to
+ * compare both modes on the same runtime.
+ *
+ * Arguments: platform|virtual, process|process-async, concurrency levels and
+ * bureau delay in ms. Virtual mode needs JDK 21+ (it falls back to platform
+ * threads otherwise) and 10k connections need ulimit -n above 20000.
+ */
+public class ProcessEndpointLoadBenchmark {
+
+    private static final String API_KEY = "load-test-key";
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "platform";
+        String endpoint = args.length > 1 ? args[1] : "process";
+        int[] levels = Arrays.stream((args.length > 2 ? args[2] : "1000,2000,5000,10000").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        int bureauDelayMs = args.length > 3 ? Integer.parseInt(args[3]) : 50;
+
+        // DevTools would restart main() in a new class loader with the Spring arguments
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        ScheduledExecutorService delays = Executors.newScheduledThreadPool(4);
+        HttpServer bureau = startBureau(delays, bureauDelayMs);
+        ConfigurableApplicationContext app = SpringApplication.run(InsuranceAgentApplication.class,
+                "--server.port=0",
+                "--server.tomcat.max-connections=20000",
+                "--server.tomcat.accept-count=10000",
+                "--insurance.threads.virtual.enabled=" + "virtual".equals(mode),
+                "--insurance.security.api-key=" + API_KEY,
+                "--insurance.underwriting.use-external-credit-check=true",
+                "--insurance.underwriting.decision-cache.enabled=false",
+                "--insurance.external-api.credit-score.enabled=true",
+                "--insurance.external-api.credit-score.url=http://localhost:" + bureau.getAddress().getPort(),
+                "--logging.level.root=WARN",
+                "--logging.level.com.xai.insuranceagent=WARN");
+        int port = ((ServletWebServerApplicationContext) app).getWebServer().getPort();
+        String contextPath = app.getEnvironment().getProperty("server.servlet.context-path", "");
+        URI uri = URI.create("http://localhost:" + port + contextPath + "/api/v1/insurance/" + endpoint);
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        try {
+            System.out.printf("mode=%s endpoint=/%s bureau-delay=%d ms java=%d%n",
+                    mode, endpoint, bureauDelayMs, Runtime.version().feature());
+            run(client, uri, 200, "warmup");
+            System.out.printf("%8s %8s %8s %8s %10s %9s %9s %9s%n",
+                    "requests", "ok", "503", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+            for (int level : levels) {
+                run(client, uri, level, null);
+            }
+        } finally {
+            app.close();
+            bureau.stop(0);
+            delays.shutdownNow();
+        }
+    }
+
+    private static void run(HttpClient client, URI uri, int concurrency, String label) {
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger shed = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        long[] latencies = new long[concurrency];
+        AtomicLong sequence = new AtomicLong(System.nanoTime());
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> requests = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            int slot = i;
+            long sent = System.nanoTime();
+            requests.add(client.sendAsync(request(uri, sequence.incrementAndGet()), HttpResponse.BodyHandlers.discarding())
+                    .handle((response, throwable) -> {
+                        latencies[slot] = System.nanoTime() - sent;
+                        if (throwable != null) {
+                            errors.incrementAndGet();
+                        } else if (response.statusCode() == 200) {
+                            ok.incrementAndGet();
+                        } else if (response.statusCode() == 503) {
+                            shed.incrementAndGet();
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(requests.toArray(new CompletableFuture[0])).join();
+        long elapsed = System.nanoTime() - start;
+
+        if (label != null) {
+            return;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%8d %8d %8d %8d %10.0f %9.1f %9.1f %9.1f%n",
+                concurrency, ok.get(), shed.get(), errors.get(),
+                concurrency / (elapsed / 1e9),
+                millis(latencies[concurrency / 2]),
+                millis(latencies[Math.min(concurrency - 1, (int) (concurrency * 0.99))]),
+                millis(latencies[concurrency - 1]));
+    }
+
+    private static HttpRequest request(URI uri, long sequence) {
+        // Unique customer IDs so that neither the credit score cache nor coalescing hides the bureau call
+        String body = """
+                {"customerId": "LOAD%d", "customerName": "Load Test", "age": 35, "gender": "female",
+                 "address": "500 Market Street, San Francisco", "email": "load@example.com",
+                 "insuranceType": "auto", "vehicleModel": "Toyota Camry", "creditScore": 720,
+                 "claimsHistory": 0, "isSmoker": false, "occupation": "Engineer"}
+                """.formatted(sequence);
+        return HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(120))
+                .header("Content-Type", "application/json")
+                .header("X-API-Key", API_KEY)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /**
+     * Credit bureau stub; responses are delayed on a timer, not a blocked
+     * thread. The timer pool also runs the handlers so that shutting it down
+     * lets the JVM exit.
+     */
+    private static HttpServer startBureau(ScheduledExecutorService delays, int delayMs) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 10000);
+        server.createContext("/credit-score", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            delays.schedule(() -> respond(exchange), delayMs, TimeUnit.MILLISECONDS);
+        });
+        server.setExecutor(delays);
+        server.start();
+        return server;
+    }
+
+    private static void respond(HttpExchange exchange) {
+        byte[] body = """
+                {"customerId": "LOAD", "creditScore": 715, "scoreRange": "300-850", "bureau": "Experian",
+                 "delinquencies": 0, "bankruptcies": 0, "riskLevel": "MEDIUM"}
+                """.getBytes(StandardCharsets.UTF_8);
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            out.write(body);
+        } catch (IOException e) {
+            // client gave up
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,156 @@
+package com.xai.insuranceagent.client;
+
+import com.sun.net.httpserver.HttpServer;
+import com.xai.insuranceagent.model.quote.QuoteRequest;
+import com.xai.insuranceagent.model.quote.QuoteResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for GuideWireClient against a local HTTP server
+ */
+class GuideWireClientTest {
+
+    private static final String QUOTE_JSON = "{\"premium\":1234.5,\"totalPremium\":1234.5,\"currency\":\"USD\","
+            + "\"quotedAt\":\"2024-05-01T10:00:00\",\"quoteId\":\"GW-1\",\"underwriter\":\"ignored\"}";
+
+    private HttpServer server;
+    private GuideWireClient client;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger inHandler = new AtomicInteger();
+    private final AtomicInteger maxInHandler = new AtomicInteger();
+    private volatile int status = 200;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/quotes", exchange -> {
+            maxInHandler.accumulateAndGet(inHandler.incrementAndGet(), Math::max);
+            try {
+                release.await(10, TimeUnit.SECONDS);
+                byte[] body = QUOTE_JSON.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(status, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inHandler.decrementAndGet();
+            }
+        });
+        server.start();
+
+        client = new GuideWireClient();
+        ReflectionTestUtils.setField(client, "apiUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(client, "apiKey", "test-key");
+        ReflectionTestUtils.setField(client, "timeoutSeconds", 10);
+        ReflectionTestUtils.setField(client, "apiEnabled", true);
+        ReflectionTestUtils.setField(client, "maxRequests", 2);
+        ReflectionTestUtils.setField(client, "maxRequestsPerHost", 2);
+        ReflectionTestUtils.setField(client, "coalescing", true);
+        client.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        client.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Async quotes should be bounded by the dispatcher, not one thread each")
+    void testAsyncQuotesUseBoundedDispatcher() throws Exception {
+        // Given
+        List<CompletableFuture<QuoteResponse>> quotes = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            QuoteRequest request = request();
+            request.setAge(30 + i);
+            quotes.add(client.getQuoteAsync(request));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (inHandler.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Then: two calls on the wire, the rest queued without threads
+        assertEquals(2, inHandler.get());
+        assertTrue(quotes.stream().noneMatch(CompletableFuture::isDone));
+        assertTrue(dispatcherThreads() <= 2);
+
+        release.countDown();
+        for (CompletableFuture<QuoteResponse> quote : quotes) {
+            QuoteResponse response = quote.get(10, TimeUnit.SECONDS);
+            assertEquals(1234.5, response.getTotalPremium());
+            assertEquals("GW-1", response.getQuoteId());
+            assertNotNull(response.getQuotedAt());
+        }
+        assertEquals(2, maxInHandler.get());
+    }
+
+    @Test
+    @DisplayName("Identical concurrent quote requests should make one call")
+    void testIdenticalRequestsCoalesce() throws Exception {
+        // Given
+        QuoteRequest other = request();
+        other.setAge(55);
+
+        // When
+        CompletableFuture<QuoteResponse> first = client.getQuoteAsync(request());
+        CompletableFuture<QuoteResponse> duplicate = client.getQuoteAsync(request());
+        CompletableFuture<QuoteResponse> different = client.getQuoteAsync(other);
+        release.countDown();
+
+        // Then
+        QuoteResponse response = first.get(10, TimeUnit.SECONDS);
+        QuoteResponse shared = duplicate.get(10, TimeUnit.SECONDS);
+        different.get(10, TimeUnit.SECONDS);
+        assertEquals(response, shared);
+        assertNotSame(response, shared);
+        assertEquals(2, client.getQuoteFlight().getCalls());
+        assertEquals(1, client.getQuoteFlight().getSuppressed());
+    }
+
+    @Test
+    @DisplayName("API errors should fall back to the mock quote")
+    void testAsyncQuoteErrorFallsBackToMock() throws Exception {
+        status = 503;
+        release.countDown();
+
+        QuoteResponse response = client.getQuoteAsync(request()).get(10, TimeUnit.SECONDS);
+
+        assertEquals(1000.0, response.getTotalPremium());
+        assertTrue(response.getQuoteId().startsWith("GW-"));
+        assertNotEquals("GW-1", response.getQuoteId());
+    }
+
+    private static QuoteRequest request() {
+        return QuoteRequest.builder().age(30).address("1 Main St").insuranceType("auto").build();
+    }
+
+    private static long dispatcherThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("guidewire-http-"))
+                .count();
+    }
+}
@@ -0,0 +1,123 @@
+package com.xai.insuranceagent.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SingleFlight
+ */
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight<StringBuilder> flight;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        flight = new SingleFlight<>("test", StringBuilder::new, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Identical in-flight calls should share one outbound call")
+    void testConcurrentCallsCoalesce() throws Exception {
+        // Given
+        AtomicInteger outbound = new AtomicInteger();
+        CompletableFuture<StringBuilder> response = new CompletableFuture<>();
+
+        // When
+        List<CompletableFuture<StringBuilder>> callers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            callers.add(flight.execute(SingleFlight.key("quote", "auto"), () -> {
+                outbound.incrementAndGet();
+                return response;
+            }));
+        }
+        response.complete(new StringBuilder("premium"));
+
+        // Then: one call, five independent copies of its result
+        assertEquals(1, outbound.get());
+        assertEquals(4, flight.getSuppressed());
+        callers.get(0).get().append("-changed");
+        assertEquals("premium", callers.get(1).get().toString());
+        assertEquals(0, flight.getInFlight());
+        assertEquals(4.0, meterRegistry.get("external.calls.coalesced").tag("result", "suppressed")
+                .functionCounter().count());
+
+        // Completed calls are not cached
+        flight.execute(SingleFlight.key("quote", "auto"), () -> {
+            outbound.incrementAndGet();
+            return CompletableFuture.completedFuture(new StringBuilder());
+        });
+        assertEquals(2, outbound.get());
+    }
+
+    @Test
+    @DisplayName("Different keys and failures should not be shared")
+    void testKeysAndFailures() {
+        CompletableFuture<StringBuilder> failing = new CompletableFuture<>();
+        CompletableFuture<StringBuilder> first = flight.execute(SingleFlight.key("a"), () -> failing);
+        CompletableFuture<StringBuilder> second = flight.execute(SingleFlight.key("a"), () -> fail("coalesced"));
+        CompletableFuture<StringBuilder> other = flight.execute(SingleFlight.key("b"),
+                () -> CompletableFuture.completedFuture(new StringBuilder("b")));
+
+        failing.completeExceptionally(new IllegalStateException("timeout"));
+
+        assertThrows(ExecutionException.class, first::get);
+        assertThrows(ExecutionException.class, second::get);
+        assertEquals("b", other.join().toString());
+        assertNotEquals(SingleFlight.key("ab", "c"), SingleFlight.key("a", "bc"));
+    }
+
+    @Test
+    @DisplayName("Blocking callers should wait for the leader's result")
+    void testBlockingCallCoalesces() throws Exception {
+        // Given
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger outbound = new AtomicInteger();
+        String key = SingleFlight.key("CUST001", "123-45-6789");
+
+        // When
+        CompletableFuture<StringBuilder> leader = CompletableFuture.supplyAsync(() -> {
+            try {
+                return flight.call(key, () -> {
+                    outbound.incrementAndGet();
+                    entered.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return new StringBuilder("720");
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        CompletableFuture<StringBuilder> follower = CompletableFuture.supplyAsync(() -> {
+            try {
+                return flight.call(key, () -> new StringBuilder("second call"));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (flight.getSuppressed() == 0) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        // Then
+        assertEquals("720", leader.get(5, TimeUnit.SECONDS).toString());
+        assertEquals("720", follower.get(5, TimeUnit.SECONDS).toString());
+        assertEquals(1, outbound.get());
+    }
+}
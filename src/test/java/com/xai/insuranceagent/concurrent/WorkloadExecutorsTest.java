@@ -0,0 +1,115 @@
+package com.xai.insuranceagent.concurrent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for WorkloadExecutors
+ */
+class WorkloadExecutorsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private WorkloadExecutors executors;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // One thread and one queue slot per pool
+        executors = new WorkloadExecutors(meterRegistry, 1, 1, 1, 1, 1, 1, 1, 1, 3, false, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executors.shutdown();
+    }
+
+    @Test
+    @DisplayName("A full pool should reject with a retry hint without affecting other pools")
+    void testSaturatedPoolRejects() throws Exception {
+        // Given: the CPU pool's thread is busy and its queue is full
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> await(release), executors.cpu());
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> "queued", executors.cpu());
+
+        // When
+        ExecutorSaturatedException rejected = assertThrows(ExecutorSaturatedException.class,
+                () -> CompletableFuture.supplyAsync(() -> "rejected", executors.cpu()));
+        String io = CompletableFuture.supplyAsync(() -> "io", executors.blockingIo()).get(5, TimeUnit.SECONDS);
+        release.countDown();
+
+        // Then
+        assertEquals("cpu", rejected.getPool());
+        assertEquals(3, rejected.getRetryAfterSeconds());
+        assertEquals("io", io);
+        assertEquals("done", running.get(5, TimeUnit.SECONDS));
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get("executor.rejected").tag("name", "cpu").counter().count());
+    }
+
+    @Test
+    @DisplayName("Pools should report queue depth, active threads and wait time")
+    void testPoolMetrics() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> await(release), executors.externalApi());
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> "queued", executors.externalApi());
+
+        // When
+        while (meterRegistry.get("executor.active").tag("name", "external-api").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+        double queueDepth = meterRegistry.get("executor.queued").tag("name", "external-api").gauge().value();
+        release.countDown();
+        CompletableFuture.allOf(running, queued).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(1.0, queueDepth);
+        assertEquals(2, meterRegistry.get("executor.wait").tag("name", "external-api").timer().count());
+    }
+
+    @Test
+    @DisplayName("Virtual-thread mode should use virtual threads on JDK 21+ and platform pools otherwise")
+    void testVirtualThreadMode() throws Exception {
+        // Given: at most two blocking I/O tasks at once in virtual-thread mode
+        executors.shutdown();
+        meterRegistry = new SimpleMeterRegistry();
+        executors = new WorkloadExecutors(meterRegistry, 1, 1, 1, 1, 1, 1, 1, 1, 3, true, 2);
+
+        // When
+        String worker = CompletableFuture.supplyAsync(() -> Thread.currentThread().getName(),
+                executors.blockingIo()).get(5, TimeUnit.SECONDS);
+        String cpuWorker = CompletableFuture.supplyAsync(() -> Thread.currentThread().getName(),
+                executors.cpu()).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(VirtualThreads.isAvailable(), worker.startsWith("blocking-io-vt-"), worker);
+        assertTrue(cpuWorker.startsWith("cpu-"), cpuWorker);
+        if (VirtualThreads.isAvailable()) {
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> await(release), executors.blockingIo());
+            CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> await(release), executors.blockingIo());
+            assertThrows(ExecutorSaturatedException.class,
+                    () -> CompletableFuture.supplyAsync(() -> "third", executors.blockingIo()));
+            release.countDown();
+            CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static String await(CountDownLatch release) {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+}
@@ -0,0 +1,93 @@
+package com.xai.insuranceagent.config;
+
+import com.xai.insuranceagent.model.underwriting.CustomerRiskProfile;
+import com.xai.insuranceagent.model.underwriting.UnderwritingDecision;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.kie.api.runtime.KieContainer;
+import org.kie.api.runtime.KieSession;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DroolsConfig executable model and DRL loading paths
+ */
+class DroolsConfigTest {
+
+    private final DroolsConfig droolsConfig = new DroolsConfig();
+
+    @Test
+    @DisplayName("Executable model should produce the same decisions as runtime DRL compilation")
+    void testExecutableModelMatchesDrl() {
+        KieContainer executableModel = droolsConfig.loadExecutableModel();
+        KieContainer drl = droolsConfig.compileDrl();
+
+        List<CustomerRiskProfile> profiles = List.of(
+                profile("CUST001", 550, "auto", 0, false),
+                profile("CUST002", 800, "auto", 0, false),
+                profile("CUST003", 700, "home", 4, false),
+                profile("CUST004", 690, "health", 0, true),
+                profile("CUST005", 680, "auto", 1, false));
+
+        for (CustomerRiskProfile profile : profiles) {
+            UnderwritingDecision fromModel = fire(executableModel, profile);
+            UnderwritingDecision fromDrl = fire(drl, profile);
+
+            assertEquals(fromDrl.getDecision(), fromModel.getDecision(), profile.getCustomerId());
+            assertEquals(fromDrl.getRiskScore(), fromModel.getRiskScore(), profile.getCustomerId());
+            assertEquals(fromDrl.getPremiumMultiplier(), fromModel.getPremiumMultiplier(), profile.getCustomerId());
+            assertEquals(fromDrl.getRiskFactors(), fromModel.getRiskFactors(), profile.getCustomerId());
+        }
+    }
+
+    @Test
+    @DisplayName("Should report startup load time for the active source")
+    void testLoadTimeReported() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("dev");
+
+        assertNotNull(droolsConfig.kieContainer(environment, registry));
+        assertNotNull(registry.find("underwriting.rules.load.time").tag("source", "drl").timeGauge());
+    }
+
+    private UnderwritingDecision fire(KieContainer kieContainer, CustomerRiskProfile profile) {
+        UnderwritingDecision decision = UnderwritingDecision.builder()
+                .riskFactors(new ArrayList<>())
+                .positiveFactors(new ArrayList<>())
+                .exclusions(new ArrayList<>())
+                .conditions(new ArrayList<>())
+                .build();
+
+        KieSession session = kieContainer.newKieSession();
+        try {
+            session.setGlobal("logger", LoggerFactory.getLogger(DroolsConfigTest.class));
+            session.insert(profile);
+            session.insert(decision);
+            session.fireAllRules();
+        } finally {
+            session.dispose();
+        }
+        return decision;
+    }
+
+    private CustomerRiskProfile profile(String customerId, int creditScore, String type,
+                                        int claims, boolean smoker) {
+        return CustomerRiskProfile.builder()
+                .customerId(customerId)
+                .creditScore(creditScore)
+                .insuranceType(type)
+                .age(35)
+                .claimsInLast3Years(claims)
+                .drivingViolations(0)
+                .atFaultAccidents(0)
+                .smoker(smoker)
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.xai.insuranceagent.ml;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import weka.classifiers.trees.J48;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Validates CompiledDecisionTree against Weka's J48 inference
+ */
+class CompiledDecisionTreeTest {
+
+    @Test
+    @DisplayName("Compiled tree should match J48 class and distribution bit-for-bit")
+    void testMatchesWekaBitForBit() throws Exception {
+        // Given a noisy synthetic training set large enough to grow a deep tree
+        Random random = new Random(42);
+        Instances training = randomData(random, 3000);
+        J48 j48 = UnderwritingModelTrainer.train(training);
+        CompiledDecisionTree compiled = CompiledDecisionTree.compile(j48, new Instances(training, 0));
+        assertTrue(compiled.numNodes() > 10, "expected a non-trivial tree");
+
+        // When / Then
+        Instances test = randomData(random, 5000);
+        double[] features = new double[UnderwritingModelSchema.NUM_ATTRIBUTES];
+        double[] distribution = new double[compiled.numClasses()];
+        for (Instance instance : test) {
+            for (int i = 0; i < features.length; i++) {
+                features[i] = instance.value(i);
+            }
+            int predicted = compiled.classify(features, distribution);
+
+            assertEquals((int) j48.classifyInstance(instance), predicted);
+            double[] expected = j48.distributionForInstance(instance);
+            for (int c = 0; c < expected.length; c++) {
+                assertEquals(Double.doubleToLongBits(expected[c]), Double.doubleToLongBits(distribution[c]),
+                        "class " + c + " for " + instance);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Compiled tree should reject missing values")
+    void testRejectsMissingValues() throws Exception {
+        Instances training = randomData(new Random(7), 500);
+        CompiledDecisionTree compiled = CompiledDecisionTree.compile(
+                UnderwritingModelTrainer.train(training), new Instances(training, 0));
+
+        double[] features = {Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN};
+        assertThrows(IllegalArgumentException.class,
+                () -> compiled.classify(features, new double[compiled.numClasses()]));
+    }
+
+    private Instances randomData(Random random, int rows) {
+        Instances data = UnderwritingModelSchema.header();
+        for (int r = 0; r < rows; r++) {
+            int creditScore = 450 + random.nextInt(400);
+            int claims = random.nextInt(6);
+            int age = 18 + random.nextInt(60);
+            int yearsLicensed = random.nextInt(Math.max(1, age - 15));
+            int type = random.nextInt(UnderwritingModelSchema.INSURANCE_TYPES.size());
+
+            int decision;
+            if (random.nextDouble() < 0.1) {
+                decision = random.nextInt(3);
+            } else if (creditScore < 580 || claims > 3) {
+                decision = 1;
+            } else if (creditScore < 650 || (claims > 1 && type == 0) || yearsLicensed < 2) {
+                decision = 2;
+            } else {
+                decision = 0;
+            }
+
+            Instance instance = new DenseInstance(UnderwritingModelSchema.NUM_ATTRIBUTES);
+            instance.setDataset(data);
+            instance.setValue(UnderwritingModelSchema.CREDIT_SCORE, creditScore);
+            instance.setValue(UnderwritingModelSchema.CLAIMS_COUNT, claims);
+            instance.setValue(UnderwritingModelSchema.AGE, age);
+            instance.setValue(UnderwritingModelSchema.YEARS_LICENSED, yearsLicensed);
+            instance.setValue(UnderwritingModelSchema.INSURANCE_TYPE, type);
+            instance.setValue(UnderwritingModelSchema.DECISION, decision);
+            data.add(instance);
+        }
+        return data;
+    }
+}
@@ -0,0 +1,69 @@
+package com.xai.insuranceagent.ml;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import weka.classifiers.trees.HoeffdingTree;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Validates SnapshotClassifier against direct Weka inference
+ */
+class SnapshotClassifierTest {
+
+    @Test
+    @DisplayName("Snapshot should score matrix rows like Weka while reusing its instance")
+    void testMatchesWekaOnMatrixRows() throws Exception {
+        // Given
+        Random random = new Random(11);
+        Instances training = randomData(random, 2000);
+        HoeffdingTree tree = new HoeffdingTree();
+        tree.buildClassifier(training);
+        SnapshotClassifier snapshot = new SnapshotClassifier(tree, training);
+
+        Instances test = randomData(random, 500);
+        int width = UnderwritingModelSchema.NUM_ATTRIBUTES;
+        double[] matrix = new double[test.numInstances() * width];
+        for (int r = 0; r < test.numInstances(); r++) {
+            for (int i = 0; i < width; i++) {
+                matrix[r * width + i] = test.instance(r).value(i);
+            }
+        }
+
+        // When / Then
+        double[] distribution = new double[snapshot.numClasses()];
+        for (int r = 0; r < test.numInstances(); r++) {
+            int predicted = snapshot.classify(matrix, r * width, distribution);
+
+            Instance instance = test.instance(r);
+            assertEquals((int) tree.classifyInstance(instance), predicted);
+            assertArrayEquals(tree.distributionForInstance(instance), distribution, "row " + r);
+        }
+    }
+
+    private Instances randomData(Random random, int rows) {
+        Instances data = UnderwritingModelSchema.header();
+        for (int r = 0; r < rows; r++) {
+            int creditScore = 450 + random.nextInt(400);
+            int claims = random.nextInt(6);
+            int decision = creditScore < 580 || claims > 3 ? 1 : creditScore < 650 ? 2 : 0;
+
+            Instance instance = new DenseInstance(UnderwritingModelSchema.NUM_ATTRIBUTES);
+            instance.setDataset(data);
+            instance.setValue(UnderwritingModelSchema.CREDIT_SCORE, creditScore);
+            instance.setValue(UnderwritingModelSchema.CLAIMS_COUNT, claims);
+            instance.setValue(UnderwritingModelSchema.AGE, 18 + random.nextInt(60));
+            instance.setValue(UnderwritingModelSchema.YEARS_LICENSED, random.nextInt(20));
+            instance.setValue(UnderwritingModelSchema.INSURANCE_TYPE,
+                    random.nextInt(UnderwritingModelSchema.INSURANCE_TYPES.size()));
+            instance.setValue(UnderwritingModelSchema.DECISION, decision);
+            data.add(instance);
+        }
+        return data;
+    }
+}
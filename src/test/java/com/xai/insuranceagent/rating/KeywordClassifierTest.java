@@ -0,0 +1,92 @@
+package com.xai.insuranceagent.rating;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for KeywordClassifier
+ */
+class KeywordClassifierTest {
+
+    private KeywordClassifier classifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        classifier = KeywordClassifier.load(new ClassPathResource("rating/keywords.json"));
+    }
+
+    @Test
+    @DisplayName("Should report every matching class in one pass, ignoring case")
+    void testClassifyAllClasses() {
+        // When
+        long classes = classifier.classify("Tesla Model S Plaid (Sports trim), Shanghai CITY");
+
+        // Then
+        assertEquals(classifier.mask(KeywordClassifier.HIGH_PERFORMANCE, KeywordClassifier.ELECTRIC,
+                KeywordClassifier.LUXURY, KeywordClassifier.MAJOR_CITY, KeywordClassifier.URBAN_AREA), classes);
+        assertFalse(KeywordClassifier.matches(classes, classifier.mask(KeywordClassifier.LARGE)));
+        assertEquals(0L, classifier.classify(null));
+        assertEquals(0L, classifier.classify("Honda Civic"));
+    }
+
+    @Test
+    @DisplayName("Should derive the urban flag from major cities and urban keywords")
+    void testIsUrban() {
+        assertTrue(classifier.isUrban("350 Fifth Avenue, New York"));
+        assertTrue(classifier.isUrban("12 Urban Heights"));
+        assertFalse(classifier.isUrban("Rural Route 9, Farmville"));
+        assertFalse(classifier.isUrban(null));
+    }
+
+    @Test
+    @DisplayName("Overlapping keywords should match like String.contains")
+    void testMatchesContainsOnRandomText() {
+        // Given - keywords that are prefixes/suffixes of each other
+        Map<String, List<String>> classes = new LinkedHashMap<>();
+        classes.put("A", List.of("he", "she"));
+        classes.put("B", List.of("hers", "his"));
+        classes.put("C", List.of("é", "sHe"));
+        KeywordClassifier overlapping = KeywordClassifier.compile("test", classes);
+
+        Random random = new Random(42);
+        String alphabet = "hesirÉé ";
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int j = random.nextInt(12); j > 0; j--) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            // When
+            long actual = overlapping.classify(text);
+
+            // Then
+            String lower = text.toString().toLowerCase();
+            long expected = 0L;
+            int bit = 0;
+            for (List<String> keywords : classes.values()) {
+                for (String keyword : keywords) {
+                    if (lower.contains(keyword.toLowerCase())) {
+                        expected |= 1L << bit;
+                    }
+                }
+                bit++;
+            }
+            assertEquals(expected, actual, "Mismatch for '" + text + "'");
+        }
+    }
+
+    @Test
+    @DisplayName("Unknown class names should be rejected")
+    void testUnknownClassRejected() {
+        assertThrows(IllegalArgumentException.class, () -> classifier.mask("NOT_A_CLASS"));
+    }
+}
@@ -0,0 +1,116 @@
+package com.xai.insuranceagent.rating;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Money
+ */
+class MoneyTest {
+
+    @Test
+    @DisplayName("Decimal amounts and rates should convert without binary drift")
+    void testConversions() {
+        assertEquals(10, Money.toCents(0.1));
+        assertEquals(123457, Money.toCents(1234.565));
+        assertEquals(-123457, Money.toCents(-1234.565));
+        assertEquals(123456, Money.toCents(1234.565, RoundingMode.HALF_EVEN));
+        assertEquals(150000, Money.toCents(1500.0));
+
+        assertEquals(200000, Money.toPpm(0.20));
+        assertEquals(-50000, Money.toPpm(-0.05));
+        assertEquals(0.15, Money.ppmToDouble(Money.toPpm(0.15)));
+        assertEquals(1234.57, Money.toDouble(123457));
+    }
+
+    @Test
+    @DisplayName("Rounding should agree with BigDecimal for every mode")
+    void testRoundingModes() {
+        long[] numerators = {0, 1, 499_999, 500_000, 500_001, 1_500_000, 2_500_000, 7_654_321};
+        for (RoundingMode mode : RoundingMode.values()) {
+            if (mode == RoundingMode.UNNECESSARY) {
+                continue;
+            }
+            for (long numerator : numerators) {
+                for (long value : new long[] {numerator, -numerator}) {
+                    long expected = BigDecimal.valueOf(value).divide(BigDecimal.valueOf(Money.PPM), 0, mode)
+                            .longValueExact();
+                    assertEquals(expected, Money.divide(value, Money.PPM, mode), mode + " " + value);
+                }
+            }
+        }
+
+        assertEquals(5, Money.divide(5_000_000, Money.PPM, RoundingMode.UNNECESSARY));
+        assertThrows(ArithmeticException.class, () -> Money.divide(5_000_001, Money.PPM, RoundingMode.UNNECESSARY));
+    }
+
+    @Test
+    @DisplayName("Multiplication should round half-cent ties explicitly")
+    void testMultiply() {
+        // 1000.10 * 0.15 = 150.015 exactly; the double product is 150.01499...
+        assertEquals(15002, Money.multiply(100010, Money.toPpm(0.15)));
+        assertEquals(15002, Money.multiply(100010, Money.toPpm(0.15), RoundingMode.HALF_EVEN));
+        assertEquals(15001, Money.multiply(100010, Money.toPpm(0.15), RoundingMode.HALF_DOWN));
+        assertEquals(-15002, Money.multiply(100010, Money.toPpm(-0.15)));
+        assertEquals(15001, Math.round(1000.10 * 0.15 * 100.0), "legacy double rounding");
+
+        assertThrows(ArithmeticException.class, () -> Money.product(Long.MAX_VALUE / 2, Money.PPM));
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1));
+    }
+
+    @Test
+    @DisplayName("Formatting should always show two decimals")
+    void testFormat() {
+        assertEquals("1500.00", Money.format(150000));
+        assertEquals("0.05", Money.format(5));
+        assertEquals("-61.73", Money.format(-6173));
+    }
+
+    @Test
+    @DisplayName("Fixed-point factors should match the legacy double formula except on half-cent ties")
+    void testEquivalenceWithDoubleFormula() throws Exception {
+        KeywordClassifier classifier = KeywordClassifier.load(new ClassPathResource("rating/keywords.json"));
+        RatingPlan plan = RatingPlan.load(new ClassPathResource("rating/rating-plan.json"), classifier);
+
+        // Every distinct rate in the shipped plan, including negative ones
+        List<Long> rates = new ArrayList<>();
+        for (int band = 0; band < plan.numAgeBands(); band++) {
+            rates.add(plan.ageRate(band));
+        }
+        for (InsuranceType type : InsuranceType.values()) {
+            for (Gender gender : Gender.values()) {
+                rates.add(plan.genderRate(type, gender));
+            }
+            for (int riskClass = 0; riskClass < plan.numRiskClasses(type); riskClass++) {
+                rates.add(plan.riskRate(type, riskClass));
+            }
+        }
+        rates.add(plan.locationRate(true));
+
+        int ties = 0;
+        for (long baseCents = 1; baseCents <= 1_000_000; baseCents += 37) {
+            double base = Money.toDouble(baseCents);
+            for (long rate : rates) {
+                long fixed = Money.multiply(baseCents, rate);
+                long legacy = Math.round(base * Money.ppmToDouble(rate) * 100.0);
+                if (fixed != legacy) {
+                    // Only exact half cents may differ: the double product lands
+                    // either side of the tie, HALF_UP always rounds away from zero
+                    long product = Money.product(baseCents, rate);
+                    assertEquals(Money.PPM / 2, Math.abs(product % Money.PPM), base + " * " + rate + "ppm");
+                    assertEquals(1, Math.abs(fixed - legacy));
+                    ties++;
+                }
+            }
+        }
+        assertTrue(ties > 0, "grid should exercise half-cent ties");
+    }
+}
@@ -0,0 +1,81 @@
+package com.xai.insuranceagent.rating;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Premium adjustment arithmetic: the previous double formula (multiply,
+ * then Math.round(x * 100) / 100 per component) against fixed-point cents
+ * and ppm rates with a single rounding of the total.
+ *
+ * Run with (after mvn test-compile):
+ * mvn exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main PremiumCalculationBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PremiumCalculationBenchmark {
+
+    private static final int QUOTES = 1024;
+
+    private final double[] baseAmounts = new double[QUOTES];
+    private final long[] baseCents = new long[QUOTES];
+
+    // age, gender, location, risk
+    private final double[] rates = {0.20, 0.08, 0.10, 0.25};
+    private final long[] ratesPpm = new long[rates.length];
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < QUOTES; i++) {
+            baseCents[i] = 50_000 + i * 137L;
+            baseAmounts[i] = Money.toDouble(baseCents[i]);
+        }
+        for (int i = 0; i < rates.length; i++) {
+            ratesPpm[i] = Money.toPpm(rates[i]);
+        }
+    }
+
+    @Benchmark
+    public void doubleFormula(Blackhole blackhole) {
+        for (int i = 0; i < QUOTES; i++) {
+            double base = baseAmounts[i];
+            double total = 0;
+            for (double rate : rates) {
+                double factor = base * rate;
+                blackhole.consume(Math.round(factor * 100.0) / 100.0);
+                total += factor;
+            }
+            blackhole.consume(Math.round((base + total) * 100.0) / 100.0);
+        }
+    }
+
+    @Benchmark
+    public void fixedPoint(Blackhole blackhole) {
+        for (int i = 0; i < QUOTES; i++) {
+            long base = baseCents[i];
+            long total = 0;
+            for (long rate : ratesPpm) {
+                long factor = Money.product(base, rate);
+                blackhole.consume(Money.micros(factor, Money.DEFAULT_ROUNDING));
+                total = Money.add(total, factor);
+            }
+            blackhole.consume(Money.add(base, Money.micros(total, Money.DEFAULT_ROUNDING)));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.xai.insuranceagent.rating;
+
+import com.xai.insuranceagent.model.quote.QuoteRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RatingPlan
+ */
+class RatingPlanTest {
+
+    private KeywordClassifier keywordClassifier;
+    private RatingPlan plan;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        keywordClassifier = KeywordClassifier.load(new ClassPathResource("rating/keywords.json"));
+        plan = RatingPlan.load(new ClassPathResource("rating/rating-plan.json"), keywordClassifier);
+    }
+
+    @Test
+    @DisplayName("Age bands should match the documented boundaries")
+    void testAgeBands() {
+        assertEquals(0.20, plan.ageFactor(plan.ageBand(24)));
+        assertEquals(-0.05, plan.ageFactor(plan.ageBand(25)));
+        assertEquals(-0.05, plan.ageFactor(plan.ageBand(35)));
+        assertEquals(0.0, plan.ageFactor(plan.ageBand(36)));
+        assertEquals(0.0, plan.ageFactor(plan.ageBand(65)));
+        assertEquals(0.15, plan.ageFactor(plan.ageBand(66)));
+
+        // Out-of-range ages clamp to the first and last band
+        assertEquals(0.20, plan.ageFactor(plan.ageBand(-3)));
+        assertEquals(0.15, plan.ageFactor(plan.ageBand(150)));
+    }
+
+    @Test
+    @DisplayName("Risk classes should resolve in priority order per product")
+    void testRiskClasses() {
+        QuoteRequest sportsLuxury = QuoteRequest.builder().vehicleModel("BMW Sports Coupe").build();
+        int riskClass = plan.riskClass(InsuranceType.AUTO, sportsLuxury);
+        assertEquals("HIGH_PERFORMANCE", plan.riskClassName(InsuranceType.AUTO, riskClass));
+        assertEquals(0.25, plan.riskFactor(InsuranceType.AUTO, riskClass));
+
+        QuoteRequest pilot = QuoteRequest.builder().occupation("Airline Pilot").build();
+        assertEquals(0.20, plan.riskFactor(InsuranceType.LIFE, plan.riskClass(InsuranceType.LIFE, pilot)));
+
+        QuoteRequest mansion = QuoteRequest.builder().propertyValue(1000000.0).build();
+        assertEquals(0, plan.riskClass(InsuranceType.HOME, mansion));
+        mansion.setPropertyValue(1000000.01);
+        assertEquals(1, plan.riskClass(InsuranceType.HOME, mansion));
+
+        assertEquals(0, plan.riskClass(InsuranceType.OTHER, sportsLuxury));
+    }
+
+    @Test
+    @DisplayName("Gender, location and deductible lookups should match the plan")
+    void testLookups() {
+        assertEquals(0.08, plan.genderFactor(InsuranceType.AUTO, Gender.fromCode("MALE")));
+        assertEquals(0.0, plan.genderFactor(InsuranceType.LIFE, Gender.MALE));
+        assertTrue(plan.isUrbanAddress("88 Nanjing Road, Shanghai"));
+        assertFalse(plan.isUrbanAddress("1 Country Lane"));
+
+        assertEquals(1000, plan.deductible(InsuranceType.AUTO, 2000.01));
+        assertEquals(500, plan.deductible(InsuranceType.AUTO, 2000.0));
+        assertEquals(250, plan.deductible(InsuranceType.HEALTH, 900.0));
+        assertEquals(500, plan.deductible(InsuranceType.LIFE, 9000.0));
+    }
+
+    @Test
+    @DisplayName("Plans with gaps in their age bands should be rejected")
+    void testAgeBandGapRejected() {
+        RatingPlanDefinition definition = new RatingPlanDefinition();
+        definition.setVersion("test");
+        definition.setMaxAge(50);
+        definition.setAgeBands(List.of(
+                new RatingPlanDefinition.AgeBand("young", 0, 24, 0.2),
+                new RatingPlanDefinition.AgeBand("adult", 26, 50, 0.0)));
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> RatingPlan.compile(definition, keywordClassifier));
+        assertTrue(error.getMessage().contains("25"));
+    }
+
+    @Test
+    @DisplayName("Unknown product types should be rejected")
+    void testUnknownProductRejected() {
+        RatingPlanDefinition definition = new RatingPlanDefinition();
+        definition.setVersion("test");
+        definition.setMaxAge(10);
+        definition.setAgeBands(List.of(new RatingPlanDefinition.AgeBand("all", 0, 10, 0.0)));
+        definition.setProducts(Map.of("boat", new RatingPlanDefinition.Product()));
+
+        assertThrows(IllegalArgumentException.class, () -> RatingPlan.compile(definition, keywordClassifier));
+    }
+
+    @Test
+    @DisplayName("Bundle discounts should use the highest tier reached")
+    void testBundleDiscounts() {
+        assertEquals(0, plan.bundleDiscountRate(1));
+        assertEquals(50_000, plan.bundleDiscountRate(2));
+        assertEquals(100_000, plan.bundleDiscountRate(3));
+        assertEquals(100_000, plan.bundleDiscountRate(4));
+
+        RatingPlanDefinition definition = new RatingPlanDefinition();
+        definition.setVersion("test");
+        definition.setMaxAge(10);
+        definition.setAgeBands(List.of(new RatingPlanDefinition.AgeBand("all", 0, 10, 0.0)));
+        definition.setBundleDiscounts(List.of(new RatingPlanDefinition.BundleDiscount(2, 1.5)));
+        assertThrows(IllegalArgumentException.class, () -> RatingPlan.compile(definition, keywordClassifier));
+    }
+}
@@ -0,0 +1,156 @@
+package com.xai.insuranceagent.rules;
+
+import com.xai.insuranceagent.concurrent.ExecutorSaturatedException;
+import com.xai.insuranceagent.config.DroolsConfig;
+import com.xai.insuranceagent.model.underwriting.CustomerRiskProfile;
+import com.xai.insuranceagent.model.underwriting.RuleStatistics;
+import com.xai.insuranceagent.model.underwriting.UnderwritingDecision;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.kie.api.KieBase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RuleSessionExecutor against the real underwriting ruleset
+ */
+class RuleSessionExecutorTest {
+
+    private static KieBase kieBase;
+
+    @BeforeAll
+    static void compileRules() {
+        kieBase = new DroolsConfig().compileDrl().getKieBase();
+    }
+
+    @Test
+    @DisplayName("Should reuse pooled sessions across executions")
+    void testPooledSessionReuse() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RuleSessionExecutor executor = new RuleSessionExecutor(
+                kieBase, registry, RuleSessionExecutor.SessionMode.POOLED, 2, 500, 2);
+
+        UnderwritingDecision first = newDecision();
+        int firstFired = executor.execute(profile("CUST001", 550), first);
+        UnderwritingDecision second = newDecision();
+        int secondFired = executor.execute(profile("CUST002", 800), second);
+
+        assertTrue(firstFired > 0);
+        assertTrue(secondFired > 0);
+        assertEquals("REJECT", first.getDecision());
+        assertEquals("APPROVE", second.getDecision());
+        assertEquals(1.0, registry.get("underwriting.rules.session.pool.size").gauge().value());
+        assertEquals(1.0, registry.get("underwriting.rules.session.pool.idle").gauge().value());
+        assertEquals(2, registry.get("underwriting.rules.session.wait").timer().count());
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should produce the same decision in stateless mode")
+    void testStatelessMatchesPooled() {
+        RuleSessionExecutor pooled = new RuleSessionExecutor(
+                kieBase, new SimpleMeterRegistry(), RuleSessionExecutor.SessionMode.POOLED, 1, 500, 2);
+        RuleSessionExecutor stateless = new RuleSessionExecutor(
+                kieBase, new SimpleMeterRegistry(), RuleSessionExecutor.SessionMode.STATELESS, 1, 500, 2);
+
+        UnderwritingDecision pooledDecision = newDecision();
+        UnderwritingDecision statelessDecision = newDecision();
+        int pooledFired = pooled.execute(profile("CUST003", 700), pooledDecision);
+        int statelessFired = stateless.execute(profile("CUST003", 700), statelessDecision);
+
+        assertEquals(pooledFired, statelessFired);
+        assertEquals(pooledDecision.getDecision(), statelessDecision.getDecision());
+        assertEquals(pooledDecision.getRiskScore(), statelessDecision.getRiskScore());
+        assertEquals(pooledDecision.getPremiumMultiplier(), statelessDecision.getPremiumMultiplier());
+        pooled.shutdown();
+    }
+
+    @Test
+    @DisplayName("In-flight work should finish on the old ruleset after a swap")
+    void testSwapKeepsInFlightOnOldRuleset() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RuleSessionExecutor executor = new RuleSessionExecutor(
+                kieBase, registry, RuleSessionExecutor.SessionMode.POOLED, 2, 500, 2);
+        String originalVersion = executor.getRulesetVersion();
+
+        String inFlightVersion = executor.withSession(rules -> {
+            executor.swap(kieBase, "next");
+            rules.execute(profile("CUST001", 550), newDecision());
+            return rules.getRulesetVersion();
+        });
+
+        assertEquals(originalVersion, inFlightVersion);
+        assertEquals("next", executor.getRulesetVersion());
+        assertEquals("next", executor.forCurrentRuleset().getRulesetVersion());
+        // The session borrowed from the retired ruleset was disposed, not pooled
+        assertEquals(0.0, registry.get("underwriting.rules.session.pool.size").gauge().value());
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should record per-rule match and fire statistics")
+    void testRuleMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RuleSessionExecutor executor = new RuleSessionExecutor(
+                kieBase, registry, RuleSessionExecutor.SessionMode.POOLED, 1, 500, 2);
+
+        executor.execute(profile("CUST001", 550), newDecision());
+        executor.execute(profile("CUST002", 560), newDecision());
+
+        List<RuleStatistics> stats = executor.getRuleMetrics().snapshot();
+        RuleStatistics lowCredit = stats.stream()
+                .filter(s -> s.getRuleName().equals("Low Credit Score - Reject"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2L, lowCredit.getFires());
+        assertTrue(lowCredit.getMatches() >= 2L);
+        assertNotNull(lowCredit.getP95ActionTimeMs());
+        assertEquals(10, stats.size());  // Rules that never fired are listed too
+        assertEquals(2.0, registry.get("underwriting.rules.rule.fired")
+                .tag("rule", "Low Credit Score - Reject").functionCounter().count());
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should shed with a retryable saturation error when no session frees up in time")
+    void testPoolExhaustion() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RuleSessionExecutor executor = new RuleSessionExecutor(
+                kieBase, registry, RuleSessionExecutor.SessionMode.POOLED, 1, 50, 3);
+
+        // The only session is held while a second execution asks for one
+        ExecutorSaturatedException exhausted = executor.withSession(rules -> assertThrows(
+                ExecutorSaturatedException.class, () -> executor.execute(profile("CUST001", 550), newDecision())));
+
+        assertEquals("rule-session", exhausted.getPool());
+        assertEquals(3, exhausted.getRetryAfterSeconds());
+        assertEquals(1.0, registry.get("underwriting.rules.session.exhausted").counter().count());
+        assertTrue(executor.execute(profile("CUST002", 800), newDecision()) > 0);
+        executor.shutdown();
+    }
+
+    private CustomerRiskProfile profile(String customerId, int creditScore) {
+        return CustomerRiskProfile.builder()
+                .customerId(customerId)
+                .creditScore(creditScore)
+                .insuranceType("auto")
+                .age(35)
+                .claimsInLast3Years(0)
+                .build();
+    }
+
+    private UnderwritingDecision newDecision() {
+        return UnderwritingDecision.builder()
+                .riskFactors(new ArrayList<>())
+                .positiveFactors(new ArrayList<>())
+                .exclusions(new ArrayList<>())
+                .conditions(new ArrayList<>())
+                .complianceIssues(new ArrayList<>())
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.xai.insuranceagent.rules;
+
+import com.xai.insuranceagent.config.DroolsConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RulesHotReloader
+ */
+class RulesHotReloaderTest {
+
+    @TempDir
+    Path rulesDirectory;
+
+    private final DroolsConfig droolsConfig = new DroolsConfig();
+    private SimpleMeterRegistry registry;
+    private RuleSessionExecutor executor;
+    private RulesHotReloader reloader;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        executor = new RuleSessionExecutor(droolsConfig.compileDrl().getKieBase(), registry,
+                RuleSessionExecutor.SessionMode.POOLED, 2, 500, 2);
+        reloader = new RulesHotReloader(executor, droolsConfig, registry, true,
+                rulesDirectory.toString(), 60_000);
+    }
+
+    @Test
+    @DisplayName("Should swap in a changed ruleset and keep the current one on compile errors")
+    void testReloadOnChange() throws Exception {
+        String drl;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(DroolsConfig.RULES_PATH)) {
+            drl = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String original = executor.getRulesetVersion();
+
+        // Same content as the packaged rules: nothing to reload
+        Files.writeString(rulesDirectory.resolve(DroolsConfig.RULES_PATH), drl);
+        assertFalse(reloader.checkForChanges());
+        assertEquals(original, executor.getRulesetVersion());
+
+        // Changed rules are compiled and swapped in
+        Files.writeString(rulesDirectory.resolve(DroolsConfig.RULES_PATH), drl + "\n// tweak\n");
+        assertTrue(reloader.checkForChanges());
+        String reloaded = executor.getRulesetVersion();
+        assertNotEquals(original, reloaded);
+
+        // Broken rules leave the last good ruleset active
+        Files.writeString(rulesDirectory.resolve(DroolsConfig.RULES_PATH), drl + "\nrule \"Broken\" when then");
+        assertFalse(reloader.checkForChanges());
+        assertEquals(reloaded, executor.getRulesetVersion());
+        assertEquals(1.0, registry.get("underwriting.rules.reload").tag("result", "failure").counter().count());
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,129 @@
+package com.xai.insuranceagent.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.xai.insuranceagent.client.CreditScoreClient;
+import com.xai.insuranceagent.client.CreditScoreClient.CreditScoreResponse;
+import com.xai.insuranceagent.util.EncryptionUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CreditScoreCache
+ */
+@ExtendWith(MockitoExtension.class)
+class CreditScoreCacheTest {
+
+    @Mock
+    private CreditScoreClient creditScoreClient;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private CreditScoreCache cache;
+
+    @BeforeEach
+    void setUp() {
+        EncryptionUtil encryptionUtil = new EncryptionUtil();
+        ReflectionTestUtils.setField(encryptionUtil, "secretKey", "MySecretKey12345MySecretKey12345");
+        // Refreshes run inline so that their effect can be asserted directly
+        cache = new CreditScoreCache(creditScoreClient, encryptionUtil, new SimpleMeterRegistry(), true, 100,
+                Duration.ofDays(7), Duration.ofDays(30), nanos::get, Runnable::run);
+    }
+
+    @Test
+    @DisplayName("Repeat lookups should be served from the cache")
+    void testHitAvoidsBureauCall() throws Exception {
+        // Given
+        when(creditScoreClient.getCreditScore("CUST001", "123-45-6789")).thenReturn(score(720));
+
+        // When
+        CreditScoreResponse first = cache.getCreditScore("CUST001", "123-45-6789");
+        CreditScoreResponse second = cache.getCreditScore("CUST001", "123-45-6789");
+
+        // Then
+        assertEquals(720, second.getCreditScore());
+        assertNotSame(first, second);
+        verify(creditScoreClient, times(1)).getCreditScore(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Entries should be keyed by a salted hash and stored encrypted")
+    void testEntriesAreOpaque() throws Exception {
+        // Given
+        when(creditScoreClient.getCreditScore("CUST001", "123-45-6789")).thenReturn(score(720));
+
+        // When
+        cache.getCreditScore("CUST001", "123-45-6789");
+
+        // Then
+        @SuppressWarnings("unchecked")
+        Cache<String, CreditScoreCache.CachedScore> entries =
+                (Cache<String, CreditScoreCache.CachedScore>) ReflectionTestUtils.getField(cache, "cache");
+        assertEquals(1, entries.estimatedSize());
+        entries.asMap().forEach((key, entry) -> {
+            assertFalse(key.contains("CUST001"));
+            assertFalse(entry.ciphertext().contains("CUST001"));
+            assertFalse(entry.ciphertext().contains("720"));
+        });
+    }
+
+    @Test
+    @DisplayName("Stale entries should be served while refreshed in the background")
+    void testStaleEntryRefreshedInBackground() throws Exception {
+        // Given
+        when(creditScoreClient.getCreditScore("CUST001", "123-45-6789")).thenReturn(score(720), score(680));
+        cache.getCreditScore("CUST001", "123-45-6789");
+        nanos.addAndGet(Duration.ofDays(8).toNanos());
+
+        // When
+        CreditScoreResponse stale = cache.getCreditScore("CUST001", "123-45-6789");
+        CreditScoreResponse refreshed = cache.getCreditScore("CUST001", "123-45-6789");
+
+        // Then
+        assertEquals(720, stale.getCreditScore());
+        assertEquals(680, refreshed.getCreditScore());
+        verify(creditScoreClient, times(2)).getCreditScore(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Expired entries and mock fallbacks should not be served from the cache")
+    void testExpiredAndMockScoresFetchedAgain() throws Exception {
+        // Given
+        CreditScoreResponse mock = score(650);
+        mock.setBureau(CreditScoreClient.MOCK_BUREAU);
+        when(creditScoreClient.getCreditScore("CUST001", "123-45-6789")).thenReturn(score(720), score(700));
+        when(creditScoreClient.getCreditScore("CUST002", "987-65-4321")).thenReturn(mock);
+
+        // When
+        cache.getCreditScore("CUST001", "123-45-6789");
+        nanos.addAndGet(Duration.ofDays(31).toNanos());
+        CreditScoreResponse afterTtl = cache.getCreditScore("CUST001", "123-45-6789");
+        cache.getCreditScore("CUST002", "987-65-4321");
+        cache.getCreditScore("CUST002", "987-65-4321");
+
+        // Then
+        assertEquals(700, afterTtl.getCreditScore());
+        verify(creditScoreClient, times(2)).getCreditScore("CUST001", "123-45-6789");
+        verify(creditScoreClient, times(2)).getCreditScore("CUST002", "987-65-4321");
+    }
+
+    private static CreditScoreResponse score(int creditScore) {
+        return CreditScoreResponse.builder()
+                .customerId("CUST001")
+                .creditScore(creditScore)
+                .scoreRange("300-850")
+                .bureau("Experian")
+                .riskLevel(creditScore >= 700 ? "MEDIUM" : "HIGH")
+                .build();
+    }
+}
@@ -1,9 +1,12 @@
 package com.xai.insuranceagent.service;
 
 import com.xai.insuranceagent.client.DocuSignClient;
+import com.xai.insuranceagent.concurrent.WorkloadExecutors;
 import com.xai.insuranceagent.model.document.DocumentRequest;
 import com.xai.insuranceagent.model.document.DocumentResponse;
 import com.xai.insuranceagent.util.EncryptionUtil;
+import com.xai.insuranceagent.util.IdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.junit.jupiter.api.BeforeEach;
@@ -61,6 +64,8 @@ class EnhancedDocumentFillingServiceTest {
         ReflectionTestUtils.setField(documentFillingService, "templateDirectory", templateDirectory);
         ReflectionTestUtils.setField(documentFillingService, "outputDirectory", outputDirectory);
         ReflectionTestUtils.setField(documentFillingService, "useDocuSign", false);
+        ReflectionTestUtils.setField(documentFillingService, "idGenerator", new IdGenerator(1));
+        ReflectionTestUtils.setField(documentFillingService, "workloadExecutors", new WorkloadExecutors(new SimpleMeterRegistry()));
 
         // Create a sample PDF template
         createSamplePDFTemplate();
@@ -173,7 +178,7 @@ class EnhancedDocumentFillingServiceTest {
 
     @Test
     @DisplayName("Should handle electronic signature request")
-    void testFillDocumentWithSignature() {
+    void testFillDocumentWithSignature() throws Exception {
         // Given
         ReflectionTestUtils.setField(documentFillingService, "useDocuSign", true);
         
@@ -1,8 +1,18 @@
 package com.xai.insuranceagent.service;
 
 import com.xai.insuranceagent.client.GuideWireClient;
+import com.xai.insuranceagent.concurrent.ExecutorSaturatedException;
+import com.xai.insuranceagent.concurrent.WorkloadExecutors;
+import com.xai.insuranceagent.model.quote.BundleQuoteRequest;
+import com.xai.insuranceagent.model.quote.BundleQuoteResponse;
+import com.xai.insuranceagent.model.quote.QuoteDetail;
+import com.xai.insuranceagent.model.quote.QuoteGridRequest;
+import com.xai.insuranceagent.model.quote.QuoteGridResponse;
 import com.xai.insuranceagent.model.quote.QuoteRequest;
 import com.xai.insuranceagent.model.quote.QuoteResponse;
+import com.xai.insuranceagent.rating.KeywordClassifier;
+import com.xai.insuranceagent.util.IdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,9 +20,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -31,13 +47,20 @@ class EnhancedQuotingServiceTest {
     private EnhancedQuotingService quotingService;
 
     @BeforeEach
-    void setUp() {
+    void setUp() throws Exception {
         // Set configuration values via reflection
         ReflectionTestUtils.setField(quotingService, "autoBaseRate", 1000.0);
         ReflectionTestUtils.setField(quotingService, "homeBaseRate", 800.0);
         ReflectionTestUtils.setField(quotingService, "lifeBaseRate", 500.0);
         ReflectionTestUtils.setField(quotingService, "healthBaseRate", 600.0);
+        ReflectionTestUtils.setField(quotingService, "ratingPlanLocation", "classpath:rating/rating-plan.json");
+        ReflectionTestUtils.setField(quotingService, "latticeEnabled", true);
+        ReflectionTestUtils.setField(quotingService, "maxGridCells", 1000);
         ReflectionTestUtils.setField(quotingService, "useExternalApi", false);
+        ReflectionTestUtils.setField(quotingService, "idGenerator", new IdGenerator(1));
+        ReflectionTestUtils.setField(quotingService, "workloadExecutors", new WorkloadExecutors(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(quotingService, "keywordClassifier",
+                KeywordClassifier.load(new ClassPathResource("rating/keywords.json")));
     }
 
     @Test
@@ -238,6 +261,27 @@ class EnhancedQuotingServiceTest {
         verify(guideWireClient, times(1)).getQuoteAsync(any(QuoteRequest.class));
     }
 
+    @Test
+    @DisplayName("Lattice hit ratio should count external premiums calculated in full as misses")
+    void testLatticeHitRatioCountsExternalQuotes() {
+        // Given
+        QuoteRequest request = QuoteRequest.builder()
+                .age(30)
+                .insuranceType("auto")
+                .address("Test City")
+                .build();
+        when(guideWireClient.getQuoteAsync(any(QuoteRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                QuoteResponse.builder().premium(1200.0).totalPremium(1200.0).currency("USD").build()));
+
+        // When
+        quotingService.generateDetailedQuote(request);
+        ReflectionTestUtils.setField(quotingService, "useExternalApi", true);
+        quotingService.generateQuoteAsync(request).join();
+
+        // Then
+        assertEquals(0.5, quotingService.getLatticeHitRatio(), 0.001);
+    }
+
     @Test
     @DisplayName("Should fallback to local calculation when external API fails")
     void testExternalApiFallback() throws Exception {
@@ -262,6 +306,53 @@ class EnhancedQuotingServiceTest {
         assertNotNull(response.getTotalPremium());
     }
 
+    @Test
+    @DisplayName("Should shed, not price locally, when the CPU pool is saturated")
+    void testSaturatedCpuPoolIsNotSwallowedByFallback() throws Exception {
+        // Given - one CPU thread, busy, and a queue of one, full
+        WorkloadExecutors executors = new WorkloadExecutors(new SimpleMeterRegistry(),
+                1, 1, 0, 1000, 16, 200, 32, 500, 2, false, 10000);
+        ReflectionTestUtils.setField(quotingService, "workloadExecutors", executors);
+        ReflectionTestUtils.setField(quotingService, "useExternalApi", true);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        try {
+            executors.cpu().execute(() -> {
+                started.countDown();
+                awaitQuietly(release);
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            executors.cpu().execute(() -> { });
+
+            QuoteRequest request = QuoteRequest.builder()
+                    .age(30)
+                    .insuranceType("auto")
+                    .address("Test City")
+                    .build();
+            when(guideWireClient.getQuoteAsync(any(QuoteRequest.class))).thenReturn(CompletableFuture.completedFuture(
+                    QuoteResponse.builder().quoteId("GW-1").totalPremium(1200.0).build()));
+
+            // When
+            CompletableFuture<QuoteResponse> futureResponse = quotingService.generateQuoteAsync(request);
+
+            // Then
+            ExecutionException thrown = assertThrows(ExecutionException.class,
+                    () -> futureResponse.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(ExecutorSaturatedException.class, thrown.getCause());
+        } finally {
+            release.countDown();
+            executors.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     @Test
     @DisplayName("Should validate quote ID format")
     void testQuoteIdFormat() {
@@ -348,5 +439,287 @@ class EnhancedQuotingServiceTest {
         assertNotNull(response.getTotalPremium());
         assertTrue(response.getTotalPremium() > 0);
     }
-}
 
+    @Test
+    @DisplayName("Lattice quotes should match the full calculation for every cell")
+    void testLatticeMatchesFullCalculation() {
+        String[] types = {"auto", "home", "life", "health"};
+        String[] genders = {"male", "female", "other", null};
+        String[] details = {null, "Porsche 911", "BMW X5", "Ford Truck", "Airline Pilot"};
+        int[] ages = {18, 24, 25, 35, 36, 65, 66, 100};
+
+        for (String type : types) {
+            for (String gender : genders) {
+                for (String detail : details) {
+                    for (int age : ages) {
+                        for (boolean urban : new boolean[] {false, true}) {
+                            // Given
+                            QuoteRequest request = QuoteRequest.builder()
+                                    .age(age)
+                                    .gender(gender)
+                                    .address("1 Main St")
+                                    .insuranceType(type)
+                                    .vehicleModel(detail)
+                                    .occupation(detail)
+                                    .smoker(detail != null)
+                                    .propertyValue(detail != null ? 2000000.0 : 300000.0)
+                                    .isUrbanArea(urban)
+                                    .build();
+
+                            // When
+                            ReflectionTestUtils.setField(quotingService, "latticeEnabled", true);
+                            QuoteResponse fromLattice = quotingService.generateDetailedQuote(request);
+                            ReflectionTestUtils.setField(quotingService, "latticeEnabled", false);
+                            QuoteResponse calculated = quotingService.generateDetailedQuote(request);
+
+                            // Then
+                            String cell = type + "/" + gender + "/" + detail + "/" + age + "/" + urban;
+                            assertEquals(calculated.getTotalPremium(), fromLattice.getTotalPremium(), cell);
+                            assertEquals(calculated.getDeductible(), fromLattice.getDeductible(), cell);
+                            assertEquals(calculated.getBreakdown(), fromLattice.getBreakdown(), cell);
+                        }
+                    }
+                }
+            }
+        }
+        assertEquals(0.5, quotingService.getLatticeHitRatio(), 0.0001);
+        assertTrue(quotingService.getQuoteLattice().getFootprintBytes() > 0);
+    }
+
+    @Test
+    @DisplayName("Lean quotes should return the same numbers without explanatory text")
+    void testLeanQuoteSkipsExplanations() {
+        // Given
+        QuoteRequest request = QuoteRequest.builder()
+                .age(22)
+                .gender("male")
+                .address("1 Main St")
+                .insuranceType("auto")
+                .vehicleModel("Porsche 911")
+                .isUrbanArea(true)
+                .build();
+
+        for (boolean latticeEnabled : new boolean[] {true, false}) {
+            ReflectionTestUtils.setField(quotingService, "latticeEnabled", latticeEnabled);
+
+            // When
+            QuoteResponse full = quotingService.generateDetailedQuote(request);
+            QuoteResponse lean = quotingService.generateDetailedQuote(request, QuoteDetail.LEAN);
+            QuoteResponse numbers = quotingService.generateDetailedQuote(request, QuoteDetail.parse("breakdown"));
+
+            // Then
+            assertEquals(full.getTotalPremium(), lean.getTotalPremium());
+            assertEquals(full.getDeductible(), lean.getDeductible());
+            assertNotNull(lean.getQuoteId());
+            assertNull(lean.getBreakdown());
+            assertNull(lean.getCoverageDetails());
+            assertNull(lean.getValidUntil());
+
+            assertNotNull(full.getBreakdown().getCalculationNotes());
+            assertNull(numbers.getBreakdown().getCalculationNotes());
+            assertEquals(full.getBreakdown().getTotalAdjustment(), numbers.getBreakdown().getTotalAdjustment());
+            assertNull(numbers.getCoverageDetails());
+        }
+    }
+
+    @Test
+    @DisplayName("Quote fields parameter should parse profiles and field lists")
+    void testQuoteDetailParsing() {
+        assertEquals(QuoteDetail.ALL, QuoteDetail.parse(null));
+        assertEquals(QuoteDetail.ALL, QuoteDetail.parse("all"));
+        assertEquals(QuoteDetail.LEAN, QuoteDetail.parse(" LEAN "));
+        assertEquals(Set.of(QuoteDetail.NOTES, QuoteDetail.BREAKDOWN, QuoteDetail.VALID_UNTIL),
+                QuoteDetail.parse("notes, validUntil"));
+        assertThrows(IllegalArgumentException.class, () -> QuoteDetail.parse("breakdown,premium"));
+    }
+
+    @Test
+    @DisplayName("Bundle quote should price each product and apply the multi-policy discount")
+    void testBundleQuote() {
+        // Given
+        BundleQuoteRequest request = BundleQuoteRequest.builder()
+                .insuranceTypes(List.of("auto", "home", "life"))
+                .age(30)
+                .gender("female")
+                .address("Shanghai, Pudong")
+                .vehicleModel("BMW X5")
+                .propertyValue(1500000.0)
+                .occupation("Teacher")
+                .build();
+
+        // When
+        BundleQuoteResponse bundle = quotingService.generateBundleQuote(request, QuoteDetail.ALL);
+
+        // Then
+        assertEquals(3, bundle.getQuotes().size());
+        double subtotal = 0;
+        for (int i = 0; i < 3; i++) {
+            QuoteResponse single = quotingService.generateDetailedQuote(
+                    request.forProduct(request.getInsuranceTypes().get(i)));
+            QuoteResponse quote = bundle.getQuotes().get(i);
+            assertEquals(single.getTotalPremium(), quote.getTotalPremium());
+            assertEquals(single.getBreakdown(), quote.getBreakdown());
+            subtotal += quote.getTotalPremium();
+        }
+        assertEquals(subtotal, bundle.getSubtotalPremium(), 0.001);
+        assertEquals(0.10, bundle.getDiscountRate());
+        assertEquals(Math.round(subtotal * 10.0) / 100.0, bundle.getDiscountAmount(), 0.001);
+        assertEquals(bundle.getSubtotalPremium() - bundle.getDiscountAmount(), bundle.getTotalPremium(), 0.001);
+        assertTrue(bundle.getBundleId().startsWith("BND-"));
+        verifyNoInteractions(guideWireClient);
+    }
+
+    @Test
+    @DisplayName("Bundle quote should fetch external product quotes in parallel")
+    void testBundleQuoteExternalApi() {
+        // Given
+        ReflectionTestUtils.setField(quotingService, "useExternalApi", true);
+        CompletableFuture<QuoteResponse> auto = new CompletableFuture<>();
+        CompletableFuture<QuoteResponse> home = new CompletableFuture<>();
+        when(guideWireClient.getQuoteAsync(any(QuoteRequest.class))).thenAnswer(invocation -> {
+            QuoteRequest product = invocation.getArgument(0);
+            return "auto".equals(product.getInsuranceType()) ? auto : home;
+        });
+        BundleQuoteRequest request = BundleQuoteRequest.builder()
+                .insuranceTypes(List.of("auto", "home"))
+                .age(45)
+                .address("1 Main St")
+                .build();
+
+        // When: both requests are issued before either completes
+        CompletableFuture<BundleQuoteResponse> bundle = CompletableFuture.supplyAsync(
+                () -> quotingService.generateBundleQuote(request, QuoteDetail.LEAN));
+        verify(guideWireClient, timeout(5000).times(2)).getQuoteAsync(any(QuoteRequest.class));
+        home.complete(QuoteResponse.builder().premium(800.0).totalPremium(800.0).build());
+        auto.complete(QuoteResponse.builder().premium(1200.0).totalPremium(1200.0).build());
+
+        // Then
+        BundleQuoteResponse response = bundle.join();
+        assertEquals(2000.0, response.getSubtotalPremium());
+        assertEquals(100.0, response.getDiscountAmount());
+        assertEquals(1900.0, response.getTotalPremium());
+        assertNull(response.getQuotes().get(0).getBreakdown());
+    }
+
+    @Test
+    @DisplayName("Bundle quote should enhance external quotes and price failed products locally")
+    void testBundleQuoteExternalApiFallback() {
+        // Given
+        ReflectionTestUtils.setField(quotingService, "useExternalApi", true);
+        when(guideWireClient.getQuoteAsync(any(QuoteRequest.class))).thenAnswer(invocation -> {
+            QuoteRequest product = invocation.getArgument(0);
+            return "auto".equals(product.getInsuranceType())
+                    ? CompletableFuture.completedFuture(QuoteResponse.builder().premium(1200.0).totalPremium(1200.0).build())
+                    : CompletableFuture.failedFuture(new RuntimeException("API Error"));
+        });
+        BundleQuoteRequest request = BundleQuoteRequest.builder()
+                .insuranceTypes(List.of("auto", "home"))
+                .age(45)
+                .gender("female")
+                .address("1 Main St")
+                .build();
+
+        // When
+        BundleQuoteResponse response = quotingService.generateBundleQuote(request, QuoteDetail.ALL);
+
+        // Then
+        QuoteResponse home = quotingService.generateDetailedQuote(request.forProduct("home"));
+        assertEquals(1200.0, response.getQuotes().get(0).getTotalPremium());
+        assertEquals(1200.0, response.getQuotes().get(0).getBreakdown().getBasePremium());
+        assertEquals(home.getTotalPremium(), response.getQuotes().get(1).getTotalPremium());
+    }
+
+    @Test
+    @DisplayName("Bundle quote should reject repeated insurance types")
+    void testBundleQuoteDuplicateType() {
+        BundleQuoteRequest request = BundleQuoteRequest.builder()
+                .insuranceTypes(List.of("auto", "AUTO"))
+                .age(45)
+                .address("1 Main St")
+                .build();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> quotingService.generateBundleQuote(request, QuoteDetail.ALL));
+    }
+
+    @Test
+    @DisplayName("Quote grid cells should match individually generated quotes")
+    void testQuoteGridMatchesSingleQuotes() {
+        // Given
+        List<String> ages = List.of("22", "30", "50", "70");
+        List<String> genders = List.of("male", "female");
+        List<String> vehicles = List.of("Honda Civic", "Porsche 911", "BMW X5");
+        List<String> urban = List.of("true", "false");
+        QuoteGridRequest request = QuoteGridRequest.builder()
+                .base(QuoteRequest.builder()
+                        .age(40)
+                        .address("1 Main St")
+                        .insuranceType("auto")
+                        .build())
+                .dimensions(List.of(
+                        dimension("age", ages),
+                        dimension("gender", genders),
+                        dimension("vehicleModel", vehicles),
+                        dimension("smoker", List.of("true")),
+                        dimension("isUrbanArea", urban)))
+                .build();
+
+        // When
+        QuoteGridResponse grid = quotingService.generateQuoteGrid(request);
+
+        // Then: row-major, last dimension fastest; smoker does not rate auto
+        assertEquals(48, grid.getPremiums().length);
+        int cell = 0;
+        for (String age : ages) {
+            for (String gender : genders) {
+                for (String vehicle : vehicles) {
+                    for (String isUrban : urban) {
+                        QuoteResponse single = quotingService.generateDetailedQuote(QuoteRequest.builder()
+                                .age(Integer.parseInt(age))
+                                .gender(gender)
+                                .address("1 Main St")
+                                .insuranceType("auto")
+                                .vehicleModel(vehicle)
+                                .isUrbanArea(Boolean.parseBoolean(isUrban))
+                                .build(), QuoteDetail.LEAN);
+                        String label = age + "/" + gender + "/" + vehicle + "/" + isUrban;
+                        assertEquals(single.getTotalPremium(), grid.getPremiums()[cell], label);
+                        assertEquals(single.getDeductible(), grid.getDeductibles()[cell], label);
+                        cell++;
+                    }
+                }
+            }
+        }
+        assertEquals(1000.0, grid.getBasePremium());
+    }
+
+    @Test
+    @DisplayName("Quote grid should reject repeated dimensions and oversized grids")
+    void testQuoteGridLimits() {
+        QuoteRequest base = QuoteRequest.builder().age(40).address("1 Main St").insuranceType("home").build();
+
+        QuoteGridRequest repeated = QuoteGridRequest.builder()
+                .base(base)
+                .dimensions(List.of(dimension("age", List.of("30")), dimension("age", List.of("40"))))
+                .build();
+        assertThrows(IllegalArgumentException.class, () -> quotingService.generateQuoteGrid(repeated));
+
+        ReflectionTestUtils.setField(quotingService, "maxGridCells", 10);
+        QuoteGridRequest oversized = QuoteGridRequest.builder()
+                .base(base)
+                .dimensions(List.of(dimension("age", List.of("20", "30", "40", "50")),
+                        dimension("propertyValue", List.of("500000", "1500000", "3000000"))))
+                .build();
+        assertThrows(IllegalArgumentException.class, () -> quotingService.generateQuoteGrid(oversized));
+
+        QuoteGridRequest invalid = QuoteGridRequest.builder()
+                .base(base)
+                .dimensions(List.of(dimension("age", List.of("thirty"))))
+                .build();
+        assertThrows(IllegalArgumentException.class, () -> quotingService.generateQuoteGrid(invalid));
+    }
+
+    private static QuoteGridRequest.Dimension dimension(String field, List<String> values) {
+        return QuoteGridRequest.Dimension.builder().field(field).values(values).build();
+    }
+}
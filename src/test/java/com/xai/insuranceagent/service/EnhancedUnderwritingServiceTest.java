@@ -1,22 +1,29 @@
 package com.xai.insuranceagent.service;
 
 import com.xai.insuranceagent.client.CreditScoreClient;
+import com.xai.insuranceagent.concurrent.WorkloadExecutors;
 import com.xai.insuranceagent.model.underwriting.CustomerRiskProfile;
 import com.xai.insuranceagent.model.underwriting.UnderwritingDecision;
+import com.xai.insuranceagent.rules.RuleRunner;
+import com.xai.insuranceagent.rules.RuleSessionExecutor;
 import com.xai.insuranceagent.util.EncryptionUtil;
+import com.xai.insuranceagent.util.IdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.kie.api.runtime.KieContainer;
-import org.kie.api.runtime.KieSession;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -30,10 +37,7 @@ import static org.mockito.Mockito.*;
 class EnhancedUnderwritingServiceTest {
 
     @Mock
-    private KieContainer kieContainer;
-
-    @Mock
-    private KieSession kieSession;
+    private RuleSessionExecutor ruleSessionExecutor;
 
     @Mock
     private CreditScoreClient creditScoreClient;
@@ -52,13 +56,16 @@ class EnhancedUnderwritingServiceTest {
         // Set configuration values
         ReflectionTestUtils.setField(underwritingService, "useML", false);
         ReflectionTestUtils.setField(underwritingService, "useExternalCreditCheck", false);
+        ReflectionTestUtils.setField(underwritingService, "enrichmentDeadlineMs", 2000L);
+        ReflectionTestUtils.setField(underwritingService, "idGenerator", new IdGenerator(1));
+        ReflectionTestUtils.setField(underwritingService, "workloadExecutors", new WorkloadExecutors(new SimpleMeterRegistry()));
 
-        // Mock KieContainer
-        when(kieContainer.newKieSession()).thenReturn(kieSession);
-        when(kieSession.fireAllRules()).thenReturn(1);
+        // Mock rule session executor
+        lenient().when(ruleSessionExecutor.forCurrentRuleset()).thenReturn(ruleSessionExecutor);
+        lenient().when(ruleSessionExecutor.execute(any(), any())).thenReturn(1);
         
         // Mock EncryptionUtil
-        when(encryptionUtil.maskSensitiveData(anyString())).thenAnswer(i -> "MASKED");
+        lenient().when(encryptionUtil.maskSensitiveData(anyString())).thenAnswer(i -> "MASKED");
     }
 
     @Test
@@ -82,7 +89,7 @@ class EnhancedUnderwritingServiceTest {
         assertEquals("CUST001", decision.getCustomerId());
         assertNotNull(decision.getDecision());
         assertTrue(decision.getRiskScore() >= 0 && decision.getRiskScore() <= 100);
-        verify(kieSession, times(1)).fireAllRules();
+        verify(ruleSessionExecutor, times(1)).execute(any(), any());
     }
 
     @Test
@@ -360,7 +367,136 @@ class EnhancedUnderwritingServiceTest {
 
         // Then
         assertNotNull(decision);
+        assertEquals(720, profile.getCreditScore());
         verify(creditScoreClient, times(1)).getCreditScore(anyString(), anyString());
     }
-}
 
+    @Test
+    @DisplayName("Should fall back to the supplied credit score when the lookup misses its deadline")
+    void testExternalCreditCheckDeadline() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(underwritingService, "useExternalCreditCheck", true);
+        ReflectionTestUtils.setField(underwritingService, "enrichmentDeadlineMs", 50L);
+
+        CustomerRiskProfile profile = CustomerRiskProfile.builder()
+                .customerId("CUST015")
+                .creditScore(650)
+                .insuranceType("auto")
+                .age(28)
+                .externalCreditCheckCompleted(false)
+                .build();
+
+        CountDownLatch release = new CountDownLatch(1);
+        when(creditScoreClient.getCreditScore(anyString(), anyString())).thenAnswer(i -> {
+            release.await(5, TimeUnit.SECONDS);
+            return CreditScoreClient.CreditScoreResponse.builder().creditScore(800).build();
+        });
+
+        // When
+        long start = System.nanoTime();
+        UnderwritingDecision decision = underwritingService.performUnderwriting(profile);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        release.countDown();
+
+        // Then
+        assertNotNull(decision);
+        assertEquals(650, profile.getCreditScore());
+        assertFalse(profile.getExternalCreditCheckCompleted());
+        assertTrue(elapsedMs < 2000, "underwriting waited " + elapsedMs + " ms");
+    }
+
+    @Test
+    @DisplayName("Async underwriting should not hold a cpu thread while the credit lookup is in flight")
+    void testAsyncUnderwritingDoesNotBlockCpuPool() throws Exception {
+        // Given: a single cpu thread and a bureau call that has not answered yet
+        WorkloadExecutors executors = new WorkloadExecutors(new SimpleMeterRegistry(),
+                1, 10, 0, 1000, 16, 200, 32, 500, 2, false, 10000);
+        ReflectionTestUtils.setField(underwritingService, "workloadExecutors", executors);
+        ReflectionTestUtils.setField(underwritingService, "useExternalCreditCheck", true);
+        ReflectionTestUtils.setField(underwritingService, "enrichmentDeadlineMs", 5000L);
+
+        CustomerRiskProfile profile = CustomerRiskProfile.builder()
+                .customerId("CUST016")
+                .creditScore(650)
+                .insuranceType("auto")
+                .age(28)
+                .externalCreditCheckCompleted(false)
+                .build();
+
+        CountDownLatch release = new CountDownLatch(1);
+        when(creditScoreClient.getCreditScore(anyString(), anyString())).thenAnswer(i -> {
+            release.await(5, TimeUnit.SECONDS);
+            return CreditScoreClient.CreditScoreResponse.builder().creditScore(800).build();
+        });
+
+        // When
+        CompletableFuture<UnderwritingDecision> futureDecision = underwritingService.performUnderwritingAsync(profile);
+
+        // Then: the cpu thread is still free for other work, and the decision uses the bureau score
+        assertEquals("free", CompletableFuture.supplyAsync(() -> "free", executors.cpu()).get(1, TimeUnit.SECONDS));
+        assertFalse(futureDecision.isDone());
+        release.countDown();
+        assertNotNull(futureDecision.get(5, TimeUnit.SECONDS).getDecision());
+        assertEquals(800, profile.getCreditScore());
+        executors.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should underwrite a batch in order and fall back to REFER for failed items")
+    @SuppressWarnings("unchecked")
+    void testBatchUnderwriting() {
+        // Given
+        ReflectionTestUtils.setField(underwritingService, "batchPartitionSize", 2);
+        when(ruleSessionExecutor.withSession(any())).thenAnswer(
+                i -> ((Function<RuleRunner, Object>) i.getArgument(0)).apply(ruleSessionExecutor));
+
+        List<CustomerRiskProfile> profiles = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            profiles.add(CustomerRiskProfile.builder()
+                    .customerId("BATCH" + i)
+                    .creditScore(700 + i)
+                    .insuranceType(i == 3 ? null : "auto")  // Item 3 fails during scoring
+                    .age(30)
+                    .build());
+        }
+
+        // When
+        List<UnderwritingDecision> decisions = new ArrayList<>();
+        List<Integer> partitionSizes = new ArrayList<>();
+        underwritingService.performUnderwritingBatch(profiles, partition -> {
+            partitionSizes.add(partition.size());
+            decisions.addAll(partition);
+        });
+
+        // Then
+        assertTrue(partitionSizes.size() >= 3);
+        assertTrue(partitionSizes.stream().allMatch(size -> size <= 2));
+        assertEquals(5, decisions.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals("BATCH" + i, decisions.get(i).getCustomerId());
+        }
+        assertEquals("REFER", decisions.get(3).getDecision());
+        assertEquals("ERROR_FALLBACK", decisions.get(3).getDecisionMethod());
+        assertEquals("STANDARD_ASSESSMENT", decisions.get(0).getDecisionMethod());
+        verify(ruleSessionExecutor, times(partitionSizes.size())).withSession(any());
+    }
+
+    @Test
+    @DisplayName("Should report the underlying cause when a whole batch partition fails")
+    void testBatchPartitionFailure() {
+        // Given
+        when(ruleSessionExecutor.withSession(any()))
+                .thenThrow(new IllegalStateException("No rule session available within 500 ms"));
+        List<CustomerRiskProfile> profiles = List.of(
+                CustomerRiskProfile.builder().customerId("BATCH0").insuranceType("auto").age(30).build());
+
+        // When
+        List<UnderwritingDecision> decisions = new ArrayList<>();
+        underwritingService.performUnderwritingBatch(profiles, decisions::addAll);
+
+        // Then
+        assertEquals(1, decisions.size());
+        assertEquals("REFER", decisions.get(0).getDecision());
+        assertEquals("System error: No rule session available within 500 ms", decisions.get(0).getReferralReason());
+    }
+}
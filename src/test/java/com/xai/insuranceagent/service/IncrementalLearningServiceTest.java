@@ -0,0 +1,107 @@
+package com.xai.insuranceagent.service;
+
+import com.xai.insuranceagent.model.underwriting.CustomerRiskProfile;
+import com.xai.insuranceagent.model.underwriting.UnderwritingDecision;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IncrementalLearningService
+ */
+class IncrementalLearningServiceTest {
+
+    private MLUnderwritingService mlService;
+    private IncrementalLearningService learner;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mlService = new MLUnderwritingService();
+        ReflectionTestUtils.setField(mlService, "resourceLoader", new DefaultResourceLoader());
+        ReflectionTestUtils.setField(mlService, "modelPath", "classpath:ml/underwriting-j48.model");
+        mlService.initializeMLModel();
+
+        registry = new SimpleMeterRegistry();
+        learner = new IncrementalLearningService();
+        ReflectionTestUtils.setField(learner, "mlUnderwritingService", mlService);
+        ReflectionTestUtils.setField(learner, "meterRegistry", registry);
+        ReflectionTestUtils.setField(learner, "queueCapacity", 50);
+        ReflectionTestUtils.setField(learner, "minExamples", 40L);
+        ReflectionTestUtils.setField(learner, "publishEvery", 40L);
+        ReflectionTestUtils.setField(learner, "publishIntervalMillis", 60000L);
+        learner.initialize();
+    }
+
+    @Test
+    @DisplayName("Should publish a learned snapshot once it beats the offline model on the holdout")
+    void testPublishesSnapshot() throws Exception {
+        // Given: outcomes the J48 gets wrong (good risks now referred, poor risks approved)
+        String initialVersion = mlService.getModelVersion();
+        for (int i = 0; i < 40; i++) {
+            boolean good = i % 2 == 0;
+            assertTrue(learner.submit(profile(good ? 780 : 520, good ? 0 : 4), good ? "REFER" : "APPROVE"));
+        }
+
+        // When
+        learner.learnPending();
+
+        // Then
+        assertEquals(40, learner.getLearnedCount());
+        assertEquals("hoeffding-40", mlService.getModelVersion());
+        assertNotEquals(initialVersion, mlService.getModelVersion());
+        UnderwritingDecision decision = mlService.assessRiskWithML(profile(520, 4), new UnderwritingDecision());
+        assertEquals("APPROVE", decision.getDecision());
+        assertNotNull(decision.getConfidenceScore());
+        assertEquals(1.0, registry.get("underwriting.ml.learning.published").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should keep the offline model while it is more accurate than the learned snapshot")
+    void testKeepsOfflineModel() throws Exception {
+        // Given: outcomes the J48 already predicts
+        String initialVersion = mlService.getModelVersion();
+        for (int i = 0; i < 40; i++) {
+            boolean good = i % 2 == 0;
+            assertTrue(learner.submit(profile(good ? 780 : 520, good ? 0 : 4), good ? "APPROVE" : "REJECT"));
+        }
+
+        // When
+        learner.learnPending();
+
+        // Then
+        assertEquals(40, learner.getLearnedCount());
+        assertEquals(initialVersion, mlService.getModelVersion());
+        assertEquals(0.0, registry.get("underwriting.ml.learning.published").counter().count());
+        assertEquals(1.0, registry.get("underwriting.ml.learning.withheld").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should drop examples instead of blocking when the queue is full")
+    void testBoundedQueue() {
+        for (int i = 0; i < 50; i++) {
+            assertTrue(learner.submit(profile(700, 0), "APPROVE"));
+        }
+
+        assertFalse(learner.submit(profile(700, 0), "APPROVE"));
+        assertFalse(learner.submit(profile(700, 0), "MAYBE"));
+        assertEquals(50, learner.getQueueSize());
+        assertEquals(1.0, registry.get("underwriting.ml.learning.dropped").counter().count());
+    }
+
+    private CustomerRiskProfile profile(int creditScore, int claims) {
+        return CustomerRiskProfile.builder()
+                .customerId("CUST001")
+                .creditScore(creditScore)
+                .claimsInLast3Years(claims)
+                .age(35)
+                .yearsLicensed(10)
+                .insuranceType("auto")
+                .build();
+    }
+}
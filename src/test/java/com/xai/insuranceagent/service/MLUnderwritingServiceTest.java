@@ -0,0 +1,144 @@
+package com.xai.insuranceagent.service;
+
+import com.xai.insuranceagent.concurrent.WorkloadExecutors;
+import com.xai.insuranceagent.ml.ModelScores;
+import com.xai.insuranceagent.ml.UnderwritingModelSchema;
+import com.xai.insuranceagent.ml.UnderwritingModelTrainer;
+import com.xai.insuranceagent.model.underwriting.CustomerRiskProfile;
+import com.xai.insuranceagent.model.underwriting.UnderwritingDecision;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.test.util.ReflectionTestUtils;
+import weka.core.Attribute;
+import weka.core.Instances;
+import weka.core.SerializationHelper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MLUnderwritingService model loading
+ */
+class MLUnderwritingServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Should load an offline-trained model from disk and score with it")
+    void testLoadTrainedModel() throws Exception {
+        // Given
+        Path csv = tempDir.resolve("training.csv");
+        Files.writeString(csv, String.join("\n",
+                "insuranceType,creditScore,claimsCount,age,yearsLicensed,decision",
+                "home,700,0,45,25,APPROVE",
+                "auto,750,0,30,10,APPROVE",
+                "auto,800,0,35,15,APPROVE",
+                "auto,550,3,25,5,REJECT",
+                "auto,500,5,22,3,REJECT",
+                "home,580,4,30,10,REJECT",
+                "auto,620,2,28,8,REFER",
+                "health,600,2,35,15,REFER"));
+        Path model = tempDir.resolve("models/underwriting.model");
+        UnderwritingModelTrainer.main(new String[]{csv.toString(), model.toString()});
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MLUnderwritingService service = newService("file:" + model, registry);
+
+        // When
+        service.initializeMLModel();
+        UnderwritingDecision decision = service.assessRiskWithML(CustomerRiskProfile.builder()
+                .customerId("CUST001")
+                .creditScore(520)
+                .claimsInLast3Years(4)
+                .age(24)
+                .yearsLicensed(4)
+                .insuranceType("auto")
+                .build(), new UnderwritingDecision());
+
+        // Then
+        assertEquals("REJECT", decision.getDecision());
+        assertTrue(service.getModelVersion().startsWith("j48-"));
+        assertNotNull(registry.find("underwriting.ml.model.load.time").timeGauge());
+    }
+
+    @Test
+    @DisplayName("Should reject a model whose attribute schema does not match")
+    void testSchemaMismatchRejected() throws Exception {
+        // Given a header with a different set of insurance types
+        ArrayList<Attribute> attributes = new ArrayList<>();
+        Instances expected = UnderwritingModelSchema.header();
+        for (int i = 0; i < expected.numAttributes(); i++) {
+            attributes.add(i == UnderwritingModelSchema.INSURANCE_TYPE
+                    ? new Attribute("insuranceType", new ArrayList<>(List.of("auto", "home")))
+                    : (Attribute) expected.attribute(i).copy());
+        }
+        Instances header = new Instances(UnderwritingModelSchema.RELATION, attributes, 0);
+        header.setClassIndex(UnderwritingModelSchema.DECISION);
+
+        Path model = tempDir.resolve("stale.model");
+        SerializationHelper.writeAll(model.toString(),
+                new Object[]{UnderwritingModelTrainer.train(UnderwritingModelSchema.header()), header});
+
+        MLUnderwritingService service = newService("file:" + model, null);
+
+        // When / Then
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> service.loadModel(new FileSystemResource(model)));
+        assertTrue(e.getMessage().contains("schema mismatch"));
+    }
+
+    @Test
+    @DisplayName("Batch scoring should match single-profile scoring row by row")
+    void testBatchScoringMatchesSingle() {
+        // Given the bundled model and a small batch split into several chunks
+        MLUnderwritingService service = newService("classpath:ml/underwriting-j48.model", null);
+        ReflectionTestUtils.setField(service, "batchChunkSize", 3);
+        service.initializeMLModel();
+
+        List<CustomerRiskProfile> profiles = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            profiles.add(CustomerRiskProfile.builder()
+                    .customerId("CUST" + i)
+                    .creditScore(500 + i * 35)
+                    .claimsInLast3Years(i % 4)
+                    .age(25 + i)
+                    .insuranceType(i == 6 ? "marine" : "auto")  // Row 6 is not supported by the model
+                    .build());
+        }
+
+        // When
+        ModelScores scores = service.scoreBatch(profiles);
+
+        // Then
+        assertEquals(10, scores.size());
+        assertFalse(scores.isScored(6));
+        assertNull(scores.decision(6));
+        for (int i = 0; i < 10; i++) {
+            if (i == 6) {
+                continue;
+            }
+            UnderwritingDecision single = service.assessRiskWithML(profiles.get(i), new UnderwritingDecision());
+            assertEquals(single.getDecision(), scores.decision(i));
+            assertEquals(single.getConfidenceScore(), scores.confidence(i));
+        }
+    }
+
+    private MLUnderwritingService newService(String modelPath, SimpleMeterRegistry registry) {
+        MLUnderwritingService service = new MLUnderwritingService();
+        ReflectionTestUtils.setField(service, "resourceLoader", new DefaultResourceLoader());
+        ReflectionTestUtils.setField(service, "meterRegistry", registry);
+        ReflectionTestUtils.setField(service, "modelPath", modelPath);
+        ReflectionTestUtils.setField(service, "batchChunkSize", 4096);
+        ReflectionTestUtils.setField(service, "workloadExecutors", new WorkloadExecutors(new SimpleMeterRegistry()));
+        return service;
+    }
+}
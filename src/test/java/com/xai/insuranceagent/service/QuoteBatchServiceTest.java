@@ -0,0 +1,189 @@
+package com.xai.insuranceagent.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xai.insuranceagent.concurrent.ExecutorSaturatedException;
+import com.xai.insuranceagent.concurrent.WorkloadExecutors;
+import com.xai.insuranceagent.model.quote.QuoteDetail;
+import com.xai.insuranceagent.model.quote.QuoteRequest;
+import com.xai.insuranceagent.model.quote.QuoteResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for QuoteBatchService
+ */
+@ExtendWith(MockitoExtension.class)
+class QuoteBatchServiceTest {
+
+    @Mock
+    private EnhancedQuotingService quotingService;
+
+    @InjectMocks
+    private QuoteBatchService quoteBatchService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private WorkloadExecutors workloadExecutors;
+
+    @BeforeEach
+    void setUp() {
+        workloadExecutors = new WorkloadExecutors(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(quoteBatchService, "workloadExecutors", workloadExecutors);
+        ReflectionTestUtils.setField(quoteBatchService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(quoteBatchService, "validator",
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(quoteBatchService, "maxInFlight", 256);
+        ReflectionTestUtils.setField(quoteBatchService, "maxLineLength", 65536);
+
+        lenient().when(quotingService.generateDetailedQuote(any(QuoteRequest.class), eq(QuoteDetail.ALL))).thenAnswer(invocation -> {
+            QuoteRequest request = invocation.getArgument(0);
+            if (request.getAddress().contains("fail")) {
+                throw new RuntimeException("Failed to generate quote", new IllegalStateException("rating unavailable"));
+            }
+            return QuoteResponse.builder()
+                    .quoteId("Q-" + request.getAge())
+                    .totalPremium(1000.0 + request.getAge())
+                    .build();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        workloadExecutors.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should stream one result per row in order with inline errors")
+    void testMixedBatch() throws Exception {
+        // Given
+        String body = request(30) + "\n"
+                + "{not json\n"
+                + "\n"
+                + "{\"age\":10,\"address\":\"1 Main St\",\"insuranceType\":\"auto\"}\r\n"
+                + request(40).replace("Main", "fail") + "\n"
+                + request(50);
+
+        // When
+        List<JsonNode> results = run(body);
+
+        // Then
+        assertEquals(5, results.size());
+        assertEquals("Q-30", results.get(0).get("quoteId").asText());
+
+        assertEquals(2, results.get(1).get("line").asInt());
+        assertEquals(400, results.get(1).get("status").asInt());
+
+        assertEquals(4, results.get(2).get("line").asInt());
+        assertEquals("age: Age must be at least 18", results.get(2).get("details").get(0).asText());
+
+        assertEquals(5, results.get(3).get("line").asInt());
+        assertEquals(500, results.get(3).get("status").asInt());
+        assertTrue(results.get(3).get("message").asText().contains("rating unavailable"));
+
+        assertEquals("Q-50", results.get(4).get("quoteId").asText());
+    }
+
+    @Test
+    @DisplayName("Should preserve order when the batch is larger than the in-flight window")
+    void testWindowPreservesOrder() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(quoteBatchService, "maxInFlight", 3);
+        StringBuilder body = new StringBuilder();
+        for (int age = 18; age <= 100; age++) {
+            body.append(request(age)).append('\n');
+        }
+
+        // When
+        List<JsonNode> results = run(body.toString());
+
+        // Then
+        assertEquals(83, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals("Q-" + (18 + i), results.get(i).get("quoteId").asText());
+        }
+        verify(quotingService, times(83)).generateDetailedQuote(any(QuoteRequest.class), eq(QuoteDetail.ALL));
+    }
+
+    @Test
+    @DisplayName("Should reject over-long lines without buffering them")
+    void testLineTooLong() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(quoteBatchService, "maxLineLength", 100);
+        String body = "{\"address\":\"" + "x".repeat(500) + "\"}\n" + request(30) + "\n";
+
+        // When
+        List<JsonNode> results = run(body);
+
+        // Then
+        assertEquals(2, results.size());
+        assertEquals(1, results.get(0).get("line").asInt());
+        assertTrue(results.get(0).get("message").asText().contains("maximum length"));
+        assertEquals("Q-30", results.get(1).get("quoteId").asText());
+    }
+
+    @Test
+    @DisplayName("Should shed the batch with a saturation error before writing anything")
+    void testSaturatedPoolShedsBatch() throws Exception {
+        // Given: the batch pool's only thread is busy and its one queue slot taken
+        workloadExecutors.shutdown();
+        workloadExecutors = new WorkloadExecutors(new SimpleMeterRegistry(), 1, 1, 1, 1, 1, 1, 1, 1, 2, false, 0);
+        ReflectionTestUtils.setField(quoteBatchService, "workloadExecutors", workloadExecutors);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> await(release), workloadExecutors.batch());
+        CompletableFuture.runAsync(() -> { }, workloadExecutors.batch());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When / Then
+        ExecutorSaturatedException rejected = assertThrows(ExecutorSaturatedException.class,
+                () -> quoteBatchService.generateQuoteBatch(
+                        new ByteArrayInputStream(request(30).getBytes(StandardCharsets.UTF_8)), output));
+        release.countDown();
+        assertEquals("batch", rejected.getPool());
+        assertEquals(0, output.size());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<JsonNode> run(String body) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        quoteBatchService.generateQuoteBatch(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), output);
+
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readTree(line));
+        }
+        return results;
+    }
+
+    private String request(int age) {
+        return "{\"age\":" + age + ",\"gender\":\"male\",\"address\":\"1 Main St\",\"insuranceType\":\"auto\"}";
+    }
+}
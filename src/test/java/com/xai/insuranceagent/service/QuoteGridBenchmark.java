@@ -0,0 +1,91 @@
+package com.xai.insuranceagent.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.xai.insuranceagent.model.quote.QuoteDetail;
+import com.xai.insuranceagent.model.quote.QuoteGridRequest;
+import com.xai.insuranceagent.model.quote.QuoteGridResponse;
+import com.xai.insuranceagent.model.quote.QuoteRequest;
+import com.xai.insuranceagent.model.quote.QuoteResponse;
+import com.xai.insuranceagent.rating.KeywordClassifier;
+import com.xai.insuranceagent.util.IdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A 100-cell what-if grid (10 ages x 5 vehicles x urban/rural) against a
+ * single full quote. Run like QuoteRenderingBenchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuoteGridBenchmark {
+
+    private EnhancedQuotingService quotingService;
+    private QuoteRequest request;
+    private QuoteGridRequest gridRequest;
+
+    @Setup
+    public void setUp() throws Exception {
+        ((Logger) LoggerFactory.getLogger(EnhancedQuotingService.class)).setLevel(Level.OFF);
+
+        quotingService = new EnhancedQuotingService();
+        ReflectionTestUtils.setField(quotingService, "autoBaseRate", 1000.0);
+        ReflectionTestUtils.setField(quotingService, "homeBaseRate", 800.0);
+        ReflectionTestUtils.setField(quotingService, "lifeBaseRate", 500.0);
+        ReflectionTestUtils.setField(quotingService, "healthBaseRate", 600.0);
+        ReflectionTestUtils.setField(quotingService, "ratingPlanLocation", "classpath:rating/rating-plan.json");
+        ReflectionTestUtils.setField(quotingService, "latticeEnabled", true);
+        ReflectionTestUtils.setField(quotingService, "maxGridCells", 1000);
+        ReflectionTestUtils.setField(quotingService, "idGenerator", new IdGenerator(1));
+        ReflectionTestUtils.setField(quotingService, "keywordClassifier",
+                KeywordClassifier.load(new ClassPathResource("rating/keywords.json")));
+        quotingService.getQuoteLattice();
+
+        request = QuoteRequest.builder()
+                .age(30)
+                .gender("female")
+                .address("88 Century Avenue, Shanghai")
+                .insuranceType("auto")
+                .vehicleModel("Honda Civic")
+                .build();
+        gridRequest = QuoteGridRequest.builder()
+                .base(request)
+                .dimensions(List.of(
+                        QuoteGridRequest.Dimension.builder().field("age")
+                                .values(List.of("18", "22", "25", "30", "35", "40", "50", "60", "66", "75")).build(),
+                        QuoteGridRequest.Dimension.builder().field("vehicleModel")
+                                .values(List.of("Honda Civic", "Porsche 911", "BMW 3", "Ford Truck", "Tesla Model 3"))
+                                .build(),
+                        QuoteGridRequest.Dimension.builder().field("isUrbanArea")
+                                .values(List.of("true", "false")).build()))
+                .build();
+    }
+
+    @Benchmark
+    public QuoteResponse singleQuote() {
+        return quotingService.generateDetailedQuote(request, QuoteDetail.ALL);
+    }
+
+    @Benchmark
+    public QuoteGridResponse grid100() {
+        return quotingService.generateQuoteGrid(gridRequest);
+    }
+}
@@ -0,0 +1,87 @@
+package com.xai.insuranceagent.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.xai.insuranceagent.model.quote.QuoteDetail;
+import com.xai.insuranceagent.model.quote.QuoteRequest;
+import com.xai.insuranceagent.model.quote.QuoteResponse;
+import com.xai.insuranceagent.rating.KeywordClassifier;
+import com.xai.insuranceagent.util.IdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a detailed quote per response profile. Run with the GC profiler
+ * to see allocation per quote (gc.alloc.rate.norm, bytes/op):
+ *
+ * mvn exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main QuoteRenderingBenchmark -prof gc"
+ *
+ * Service logging is switched off so that only quoting itself is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuoteRenderingBenchmark {
+
+    /** Value of the fields= request parameter */
+    @Param({"all", "breakdown", "lean"})
+    public String fields;
+
+    /** Serve from the premium lattice or calculate in full */
+    @Param({"true", "false"})
+    public boolean lattice;
+
+    private EnhancedQuotingService quotingService;
+    private Set<QuoteDetail> details;
+    private QuoteRequest request;
+
+    @Setup
+    public void setUp() throws Exception {
+        ((Logger) LoggerFactory.getLogger(EnhancedQuotingService.class)).setLevel(Level.OFF);
+
+        quotingService = new EnhancedQuotingService();
+        ReflectionTestUtils.setField(quotingService, "autoBaseRate", 1000.0);
+        ReflectionTestUtils.setField(quotingService, "homeBaseRate", 800.0);
+        ReflectionTestUtils.setField(quotingService, "lifeBaseRate", 500.0);
+        ReflectionTestUtils.setField(quotingService, "healthBaseRate", 600.0);
+        ReflectionTestUtils.setField(quotingService, "ratingPlanLocation", "classpath:rating/rating-plan.json");
+        ReflectionTestUtils.setField(quotingService, "latticeEnabled", lattice);
+        ReflectionTestUtils.setField(quotingService, "idGenerator", new IdGenerator(1));
+        ReflectionTestUtils.setField(quotingService, "keywordClassifier",
+                KeywordClassifier.load(new ClassPathResource("rating/keywords.json")));
+        quotingService.getQuoteLattice();
+
+        details = QuoteDetail.parse(fields);
+        request = QuoteRequest.builder()
+                .age(22)
+                .gender("male")
+                .address("88 Century Avenue, Shanghai")
+                .insuranceType("auto")
+                .vehicleModel("Porsche 911")
+                .build();
+    }
+
+    @Benchmark
+    public QuoteResponse detailedQuote() {
+        return quotingService.generateDetailedQuote(request, details);
+    }
+}
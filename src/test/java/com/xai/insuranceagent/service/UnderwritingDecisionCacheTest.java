@@ -0,0 +1,112 @@
+package com.xai.insuranceagent.service;
+
+import com.xai.insuranceagent.model.underwriting.CustomerRiskProfile;
+import com.xai.insuranceagent.model.underwriting.UnderwritingDecision;
+import com.xai.insuranceagent.util.IdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for UnderwritingDecisionCache
+ */
+class UnderwritingDecisionCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UnderwritingDecisionCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UnderwritingDecisionCache(meterRegistry, new IdGenerator(1), true, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    @DisplayName("Fingerprint should ignore fields the rules never read")
+    void testFingerprintIgnoresIdentityFields() {
+        CustomerRiskProfile first = profile("CUST001");
+        CustomerRiskProfile second = profile("CUST002");
+        second.setAddress("1 Other Street");
+        second.setAnnualIncome(250000.0);
+
+        assertEquals(UnderwritingDecisionCache.fingerprint(first), UnderwritingDecisionCache.fingerprint(second));
+
+        second.setCreditScore(second.getCreditScore() + 1);
+        assertNotEquals(UnderwritingDecisionCache.fingerprint(first), UnderwritingDecisionCache.fingerprint(second));
+    }
+
+    @Test
+    @DisplayName("Cache hit should return a copy with fresh identifiers")
+    void testHitReturnsFreshCopy() {
+        // Given
+        UnderwritingDecision decision = decision("CUST001");
+        cache.put(profile("CUST001"), "v1", decision);
+
+        // When
+        Optional<UnderwritingDecision> hit = cache.get(profile("CUST002"), "v1");
+
+        // Then
+        assertTrue(hit.isPresent());
+        assertEquals("APPROVE", hit.get().getDecision());
+        assertEquals("CUST002", hit.get().getCustomerId());
+        assertNotEquals(decision.getDecisionId(), hit.get().getDecisionId());
+        assertNotSame(decision.getRiskFactors(), hit.get().getRiskFactors());
+        assertEquals(1.0, meterRegistry.get("underwriting.decision.cache.hit.ratio").gauge().value(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Ruleset or model change should miss stale decisions without flushing the cache")
+    void testGenerationChangeInvalidates() {
+        // Given
+        CustomerRiskProfile other = profile("CUST002");
+        other.setCreditScore(640);
+        cache.put(profile("CUST001"), "v1", decision("CUST001"));
+        cache.put(other, "v1", decision("CUST002"));
+
+        // When
+        Optional<UnderwritingDecision> stale = cache.get(profile("CUST001"), "v2");
+        cache.put(profile("CUST001"), "v2", decision("CUST001"));
+
+        // Then
+        assertTrue(stale.isEmpty());
+        assertEquals(2, cache.size());
+        assertTrue(cache.get(profile("CUST001"), "v2").isPresent());
+        assertTrue(cache.get(profile("CUST001"), "v1").isEmpty());
+    }
+
+    private CustomerRiskProfile profile(String customerId) {
+        return CustomerRiskProfile.builder()
+                .customerId(customerId)
+                .creditScore(720)
+                .insuranceType("auto")
+                .age(35)
+                .claimsInLast3Years(0)
+                .drivingViolations(0)
+                .atFaultAccidents(0)
+                .dui(false)
+                .yearsLicensed(15)
+                .address("123 Main St")
+                .build();
+    }
+
+    private UnderwritingDecision decision(String customerId) {
+        return UnderwritingDecision.builder()
+                .decisionId("DEC-1")
+                .customerId(customerId)
+                .decision("APPROVE")
+                .riskScore(25)
+                .premiumMultiplier(1.0)
+                .decisionDate(LocalDateTime.now().minusMinutes(5))
+                .riskFactors(new ArrayList<>(List.of("None")))
+                .build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.xai.insuranceagent.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IdGenerator
+ */
+class IdGeneratorTest {
+
+    @Test
+    @DisplayName("IDs should keep their prefix and sort in creation order")
+    void testPrefixAndOrdering() {
+        // Given
+        IdGenerator generator = new IdGenerator(7);
+
+        // When
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            ids.add(generator.nextId("AUT"));
+        }
+
+        // Then - 20000 IDs exceed one millisecond's sequence space
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0, ids.get(i - 1) + " !< " + ids.get(i));
+        }
+        assertTrue(ids.get(0).matches("AUT-[0-9A-HJKMNP-TV-Z]{13}"), ids.get(0));
+    }
+
+    @Test
+    @DisplayName("IDs should embed the node and creation time")
+    void testEmbeddedFields() {
+        IdGenerator generator = new IdGenerator(1023);
+        Instant before = Instant.now().minusMillis(1);
+
+        long id = generator.nextLong();
+
+        assertEquals(1023, IdGenerator.nodeOf(id));
+        Instant created = IdGenerator.creationTime(id);
+        assertFalse(created.isBefore(before));
+        assertTrue(Duration.between(created, Instant.now()).toMillis() < 1000);
+        assertThrows(IllegalArgumentException.class, () -> new IdGenerator(1024));
+    }
+
+    @Test
+    @DisplayName("Concurrent callers on several nodes should never collide")
+    void testConcurrentUniqueness() throws Exception {
+        // Given
+        IdGenerator[] nodes = {new IdGenerator(0), new IdGenerator(1), new IdGenerator(2)};
+        Set<Long> issued = ConcurrentHashMap.newKeySet();
+        int threads = 6;
+        int perThread = 20000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            IdGenerator generator = nodes[t % nodes.length];
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                Set<Long> local = new HashSet<>();
+                for (int i = 0; i < perThread; i++) {
+                    local.add(generator.nextLong());
+                }
+                issued.addAll(local);
+            });
+            worker.start();
+            workers.add(worker);
+        }
+
+        // When
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // Then
+        assertEquals(threads * perThread, issued.size());
+    }
+}